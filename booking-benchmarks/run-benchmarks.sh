@@ -0,0 +1,10 @@
+#!/bin/sh
+# Builds the application and the benchmarks, then runs them single- and multi-threaded with the GC profiler.
+# Results are written as JSON to target/jmh/<commit>/, so runs of different commits can be compared.
+# Usage: ./run-benchmarks.sh [include-regex]
+set -e
+cd "$(dirname "$0")"
+COMMIT=$(git rev-parse --short HEAD)
+mvn -q -f ../pom.xml install -DskipTests
+mvn -q package
+java --enable-preview -cp target/benchmarks.jar com.example.booking.benchmarks.BenchmarkRunner "${1:-.*Benchmark.*}" "target/jmh/$COMMIT"
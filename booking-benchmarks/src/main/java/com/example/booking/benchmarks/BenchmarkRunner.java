@@ -0,0 +1,49 @@
+package com.example.booking.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Runs the benchmarks single-threaded and with one thread per processor, with the GC profiler enabled,
+ * and writes the results of each pass as JSON.
+ * <p>
+ * Usage: {@code java --enable-preview -cp benchmarks.jar com.example.booking.benchmarks.BenchmarkRunner [include-regex] [result-dir]}.
+ * The result directory (default {@code target/jmh}) receives {@code results-1t.json} and
+ * {@code results-<n>t.json}; keeping one directory per commit allows runs to be compared, e.g. with
+ * JMH Visualizer or {@code jq}.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = args.length > 0 ? args[0] : ".*Benchmark.*";
+        Path resultDir = Files.createDirectories(Path.of(args.length > 1 ? args[1] : "target/jmh"));
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads : processors > 1 ? new int[]{1, processors} : new int[]{1}) {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(resultDir.resolve(STR."results-\{threads}t.json").toString())
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.booking.benchmarks;
+
+import com.example.booking.entity.Booking;
+import com.example.booking.entity.MobilePhone;
+import com.example.booking.factory.MobilePhoneFactory;
+import com.example.booking.repository.inmemory.InMemoryMobilePhoneStore;
+import com.example.booking.service.BookingManager;
+import com.example.booking.service.ServiceFixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the {@link BookingManager} with a varying number of active bookings.
+ * <p>
+ * {@code bookAndReturn} books a phone and returns it again, so the number of bookings stays constant
+ * during the run; every benchmark thread uses a free phone of its own. {@code findBookingByDeviceId}
+ * looks up random booked devices.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Xmx4g"})
+public class BookingBenchmark {
+
+    // Phones left free for bookAndReturn, at least one per benchmark thread
+    private static final int FREE_PHONES = 256;
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int bookings;
+
+    private BookingManager manager;
+    private String[] bookedIds;
+    private String[] freeIds;
+    private final AtomicInteger nextFreePhone = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        InMemoryMobilePhoneStore phoneStore = new InMemoryMobilePhoneStore();
+        manager = new ServiceFixture(phoneStore).bookingManager();
+        List<MobilePhone> phones = MobilePhoneFactory.createPhones(Fixtures.MODEL, 1, bookings + FREE_PHONES);
+        phoneStore.saveAll(phones);
+
+        bookedIds = new String[bookings];
+        for (int i = 0; i < bookings; i++) {
+            bookedIds[i] = phones.get(i).getId();
+            manager.bookPhone(bookedIds[i], Fixtures.USER).orElseThrow();
+        }
+        freeIds = phones.subList(bookings, phones.size()).stream().map(MobilePhone::getId).toArray(String[]::new);
+    }
+
+    /**
+     * The free phone of one benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class ThreadPhone {
+
+        private String phoneId;
+
+        @Setup
+        public void setUp(BookingBenchmark benchmark) {
+            phoneId = benchmark.freeIds[benchmark.nextFreePhone.getAndIncrement() % FREE_PHONES];
+        }
+    }
+
+    @Benchmark
+    public Optional<Booking> bookAndReturn(ThreadPhone phone) {
+        Booking booking = manager.bookPhone(phone.phoneId, Fixtures.USER).orElseThrow();
+        return manager.returnPhone(booking.getId(), Fixtures.USER);
+    }
+
+    @Benchmark
+    public Optional<Booking> findBookingByDeviceId() {
+        return manager.findBookingByDeviceId(bookedIds[ThreadLocalRandom.current().nextInt(bookings)]);
+    }
+}
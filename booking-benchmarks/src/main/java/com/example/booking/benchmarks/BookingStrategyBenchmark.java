@@ -0,0 +1,93 @@
+package com.example.booking.benchmarks;
+
+import com.example.booking.entity.MobilePhone;
+import com.example.booking.factory.MobilePhoneFactory;
+import com.example.booking.repository.inmemory.InMemoryMobilePhoneStore;
+import com.example.booking.service.BookingManager;
+import com.example.booking.service.BookingStrategy;
+import com.example.booking.service.ServiceFixture;
+import com.example.booking.service.impl.AdvancedBookingStrategy;
+import com.example.booking.service.impl.PriorityBookingStrategy;
+import com.example.booking.service.impl.SimpleBookingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures booking and returning a phone through each {@link BookingStrategy}, with a thousand other
+ * phones booked. Every benchmark thread books and returns a phone of its own.
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class BookingStrategyBenchmark {
+
+    private static final int BOOKINGS = 1000;
+    private static final int FREE_PHONES = 256;
+
+    @Param({"simple", "advanced", "priority"})
+    private String strategy;
+
+    private BookingStrategy bookingStrategy;
+    private BookingManager manager;
+    private String[] freeIds;
+    private final AtomicInteger nextFreePhone = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        bookingStrategy = switch (strategy) {
+            case "simple" -> new SimpleBookingStrategy();
+            case "advanced" -> new AdvancedBookingStrategy();
+            case "priority" -> new PriorityBookingStrategy();
+            default -> throw new IllegalArgumentException(STR."Unknown strategy: \{strategy}");
+        };
+
+        InMemoryMobilePhoneStore phoneStore = new InMemoryMobilePhoneStore();
+        manager = new ServiceFixture(phoneStore).bookingManager();
+        List<MobilePhone> phones = MobilePhoneFactory.createPhones(Fixtures.MODEL, 1, BOOKINGS + FREE_PHONES);
+        phoneStore.saveAll(phones);
+        for (int i = 0; i < BOOKINGS; i++) {
+            manager.bookPhone(phones.get(i).getId(), Fixtures.USER).orElseThrow();
+        }
+        freeIds = phones.subList(BOOKINGS, phones.size()).stream().map(MobilePhone::getId).toArray(String[]::new);
+    }
+
+    /**
+     * The free phone of one benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class ThreadPhone {
+
+        private String phoneId;
+
+        @Setup
+        public void setUp(BookingStrategyBenchmark benchmark) {
+            phoneId = benchmark.freeIds[benchmark.nextFreePhone.getAndIncrement() % FREE_PHONES];
+        }
+    }
+
+    @Benchmark
+    public boolean bookAndReturn(ThreadPhone phone) {
+        return bookingStrategy.bookPhone(manager, phone.phoneId, Fixtures.USER)
+                && bookingStrategy.returnPhone(manager, phone.phoneId, Fixtures.USER);
+    }
+}
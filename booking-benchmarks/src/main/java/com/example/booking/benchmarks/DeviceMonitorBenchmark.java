@@ -0,0 +1,73 @@
+package com.example.booking.benchmarks;
+
+import com.example.booking.monitoring.DeviceMonitor;
+import com.example.booking.monitoring.ModelDictionary;
+import com.example.booking.monitoring.MonitoringResultTable;
+import com.example.booking.monitoring.entity.DeviceContext;
+import com.example.booking.monitoring.entity.DeviceMetrics;
+import com.example.booking.monitoring.tasks.BatteryLevelCheck;
+import com.example.booking.monitoring.tasks.MemoryUsageCheck;
+import com.example.booking.monitoring.tasks.MonitoringTask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures one {@link DeviceMonitor#startMonitoring()} run with the production monitoring tasks.
+ * Every benchmark thread monitors a device of its own; the result table is shared, as in the application.
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class DeviceMonitorBenchmark {
+
+    private List<MonitoringTask> tasks;
+    private int modelCode;
+    private final AtomicInteger nextDevice = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        MonitoringResultTable resultTable = new MonitoringResultTable();
+        tasks = List.of(new BatteryLevelCheck(resultTable), new MemoryUsageCheck(resultTable));
+        modelCode = new ModelDictionary().codeOf(Fixtures.MODEL);
+    }
+
+    /**
+     * The monitor of one benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class ThreadMonitor {
+
+        private DeviceMonitor monitor;
+
+        @Setup
+        public void setUp(DeviceMonitorBenchmark benchmark) {
+            int device = benchmark.nextDevice.getAndIncrement();
+            DeviceContext context = new DeviceContext(STR."benchmark-\{device}", new DeviceMetrics(80, 4096, 2048, 0.2));
+            monitor = new DeviceMonitor(context, benchmark.tasks, benchmark.modelCode, device);
+        }
+    }
+
+    @Benchmark
+    public void startMonitoring(ThreadMonitor device) {
+        device.monitor.startMonitoring();
+    }
+}
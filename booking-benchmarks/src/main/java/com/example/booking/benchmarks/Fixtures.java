@@ -0,0 +1,18 @@
+package com.example.booking.benchmarks;
+
+/**
+ * The phone model and the user shared by the benchmarks. The services under benchmark are wired by the
+ * {@link com.example.booking.service.ServiceFixture} of the application's test jar, on top of the in-memory stores.
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+final class Fixtures {
+
+    static final String MODEL = "Samsung Galaxy S9";
+    static final String USER = "admin";
+
+    private Fixtures() {
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.booking.benchmarks;
+
+import com.example.booking.entity.MobilePhone;
+import com.example.booking.factory.MobilePhoneFactory;
+import com.example.booking.monitoring.entity.DeviceMetrics;
+import com.example.booking.repository.inmemory.InMemoryMobilePhoneStore;
+import com.example.booking.service.BookingManager;
+import com.example.booking.service.MetricsBatchWriter;
+import com.example.booking.service.MetricsWriteBehindBuffer;
+import com.example.booking.service.ServiceFixture;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures the heap the booking and monitoring services retain per device.
+ * <p>
+ * Usage: {@code java --enable-preview -Xmx2g -cp benchmarks.jar com.example.booking.benchmarks.FleetFootprint [devices]}
+ * (default 100,000 devices). The phones are created and stored before the first measurement, so only the state
+ * the services add is counted: the monitors, the handles, the task results, the status cache and sampling queue
+ * entries after every device is registered, and the booking store after every tenth device is booked. The
+ * metrics buffer is flushed into a writer that discards the metrics, so the metrics stores do not grow.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+public final class FleetFootprint {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private FleetFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int devices = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        InMemoryMobilePhoneStore phoneStore = new InMemoryMobilePhoneStore();
+        List<MobilePhone> phones = MobilePhoneFactory.createPhones(Fixtures.MODEL, 1, devices);
+        phoneStore.saveAll(phones);
+
+        ServiceFixture fixture = new ServiceFixture(phoneStore);
+        MetricsWriteBehindBuffer metricsBuffer = new MetricsWriteBehindBuffer(new MetricsBatchWriter(null, null) {
+            @Override
+            public int write(Map<String, DeviceMetrics> metricsByDeviceId) {
+                return metricsByDeviceId.size();
+            }
+        }, fixture.deviceHandles());
+        fixture.metricsBuffer(metricsBuffer);
+        BookingManager bookingManager = fixture.bookingManager();
+        long baseline = usedHeap();
+
+        fixture.monitoringService().registerMonitors(phones);
+        metricsBuffer.flush();
+        long monitored = usedHeap();
+
+        for (int i = 0; i < devices; i += 10) {
+            bookingManager.bookPhone(phones.get(i).getId(), Fixtures.USER).orElseThrow();
+        }
+        metricsBuffer.flush();
+        long booked = usedHeap();
+
+        int bookings = (devices + 9) / 10;
+        System.out.println(STR."Monitoring: \{(monitored - baseline) / 1024} KiB for \{devices} devices, \{(monitored - baseline) / devices} bytes per device");
+        System.out.println(STR."Bookings:   \{(booked - monitored) / 1024} KiB for \{bookings} bookings, \{(booked - monitored) / bookings} bytes per booking");
+        System.out.println(STR."Total:      \{(booked - baseline) / devices} bytes per device");
+        if (fixture.monitoringService().getMonitoredDeviceCount() != devices || phoneStore.count() != devices) {
+            throw new IllegalStateException("The fleet was not retained until the last measurement");
+        }
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
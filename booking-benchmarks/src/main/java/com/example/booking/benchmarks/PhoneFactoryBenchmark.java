@@ -0,0 +1,88 @@
+package com.example.booking.benchmarks;
+
+import com.example.booking.entity.MobilePhone;
+import com.example.booking.factory.MobilePhoneFactory;
+import com.example.booking.factory.annotation.PhoneModel;
+import com.example.booking.factory.configuration.PhoneModelConfig;
+import com.example.booking.factory.configuration.PhoneModelConfigRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the compile-time generated phone-model registry with the reflective lookup it replaced.
+ * <p>
+ * {@code generatedCreate} and {@code reflectiveCreate} measure creating one phone through each path;
+ * {@code reflectiveScan} measures the class scan the factory used to run at class-load time, which the
+ * generated registry does not need at all. {@code factoryCreate} measures the path the application takes,
+ * {@link MobilePhoneFactory#createPhone(String, long)}: a catalog lookup followed by the generated creator.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class PhoneFactoryBenchmark {
+
+    @Param({ "Samsung Galaxy S9", "Nokia 3310" })
+    private String model;
+
+    private Map<String, Method> reflectiveCreators;
+
+    @Setup
+    public void setUp() {
+        reflectiveCreators = scanPhoneModelConfig();
+    }
+
+    @Benchmark
+    public MobilePhone generatedCreate() {
+        return PhoneModelConfigRegistry.create(model, "benchmark-1");
+    }
+
+    @Benchmark
+    public MobilePhone factoryCreate() {
+        return MobilePhoneFactory.createPhone(model, 1L);
+    }
+
+    @Benchmark
+    public MobilePhone reflectiveCreate() throws IllegalAccessException, InvocationTargetException {
+        return (MobilePhone) reflectiveCreators.get(model).invoke(null, "benchmark-1");
+    }
+
+    @Benchmark
+    public Map<String, Method> reflectiveScan() {
+        return scanPhoneModelConfig();
+    }
+
+    // The lookup MobilePhoneFactory performed in its static initializer before the registry was generated
+    private static Map<String, Method> scanPhoneModelConfig() {
+        Map<String, Method> creators = new HashMap<>();
+        for (Method method : PhoneModelConfig.class.getDeclaredMethods()) {
+            PhoneModel annotation = method.getAnnotation(PhoneModel.class);
+            if (annotation != null) {
+                creators.put(annotation.value(), method);
+            }
+        }
+        return Map.copyOf(creators);
+    }
+}
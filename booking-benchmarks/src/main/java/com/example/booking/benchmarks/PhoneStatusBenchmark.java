@@ -0,0 +1,97 @@
+package com.example.booking.benchmarks;
+
+import com.example.booking.entity.MobilePhone;
+import com.example.booking.factory.MobilePhoneFactory;
+import com.example.booking.monitoring.DeviceHandles;
+import com.example.booking.monitoring.DeviceStatusCache;
+import com.example.booking.repository.inmemory.InMemoryMobilePhoneStore;
+import com.example.booking.service.BookingManager;
+import com.example.booking.service.DeviceMonitoringService;
+import com.example.booking.service.ServiceFixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DeviceMonitoringService#getAllPhoneStatuses()} at varying fleet sizes, a tenth of the
+ * fleet being booked.
+ * <p>
+ * {@code allStatusesCached} serves every device from the status cache, the steady state between
+ * sampling rounds; {@code allStatusesAfterFleetChange} marks every device as changed before each call,
+ * so all statuses are serialized again.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Xmx4g"})
+public class PhoneStatusBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int devices;
+
+    private DeviceMonitoringService monitoringService;
+    private DeviceStatusCache statusCache;
+    private int[] handles;
+
+    @Setup
+    public void setUp() {
+        InMemoryMobilePhoneStore phoneStore = new InMemoryMobilePhoneStore();
+        ServiceFixture fixture = new ServiceFixture(phoneStore);
+        BookingManager bookingManager = fixture.bookingManager();
+        monitoringService = fixture.monitoringService();
+        statusCache = fixture.statusCache();
+        DeviceHandles deviceHandles = fixture.deviceHandles();
+
+        List<MobilePhone> phones = MobilePhoneFactory.createPhones(Fixtures.MODEL, 1, devices);
+        phoneStore.saveAll(phones);
+        monitoringService.registerMonitors(phones);
+        for (int i = 0; i < devices; i += 10) {
+            bookingManager.bookPhone(phones.get(i).getId(), Fixtures.USER).orElseThrow();
+        }
+        handles = phones.stream().mapToInt(phone -> deviceHandles.handleOf(phone.getId())).toArray();
+        monitoringService.getAllPhoneStatuses(); // fills the status cache
+    }
+
+    /**
+     * Marks the whole fleet as changed before every invocation.
+     */
+    @State(Scope.Thread)
+    public static class FleetChange {
+
+        @Setup(Level.Invocation)
+        public void markAllChanged(PhoneStatusBenchmark benchmark) {
+            for (int handle : benchmark.handles) {
+                benchmark.statusCache.markChanged(handle);
+            }
+        }
+    }
+
+    @Benchmark
+    public String allStatusesCached() {
+        return monitoringService.getAllPhoneStatuses();
+    }
+
+    @Benchmark
+    public String allStatusesAfterFleetChange(FleetChange change) {
+        return monitoringService.getAllPhoneStatuses();
+    }
+}
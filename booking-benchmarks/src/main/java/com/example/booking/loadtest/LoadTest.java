@@ -0,0 +1,143 @@
+package com.example.booking.loadtest;
+
+import com.example.booking.BookingApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * Open-loop HTTP load test of the booking and status endpoints.
+ * <p>
+ * Unless {@code --url} points to running instances, the application is booted in-process with the
+ * {@code inmemory} profile on a random port. The test then provisions {@code --phones} phones through the
+ * bulk endpoint of the first instance, sends unrecorded warm-up traffic, and runs one step per rate of {@code --rates}, each
+ * step sending the {@code --mix} of requests at that rate with an {@link OpenLoopDriver}. For every step
+ * it prints the achieved throughput and the latency percentiles of every operation, and writes their
+ * HdrHistogram percentile distributions (in milliseconds) to {@code --report-dir}.
+ * </p>
+ * <p>
+ * The saturation point is the rate beyond which the achieved throughput stops following the target
+ * rate and the tail latencies grow with every step.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+public final class LoadTest {
+
+    private static final String MODEL = "Samsung Galaxy S9";
+    private static final int PROVISION_CHUNK = 100_000;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = null;
+        List<URI> baseUris = options.targets();
+        if (baseUris.isEmpty()) {
+            context = new SpringApplicationBuilder(BookingApplication.class)
+                    .profiles("inmemory")
+                    .properties("server.port=0", "spring.main.banner-mode=off")
+                    .run();
+            baseUris = List.of(URI.create(STR."http://localhost:\{((WebServerApplicationContext) context).getWebServer().getPort()}"));
+        }
+
+        try (HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build()) {
+            List<String> phoneIds = provision(client, baseUris.getFirst(), options.phones());
+            System.out.println(STR."Provisioned \{phoneIds.size()} phones at \{baseUris.getFirst()}, sending requests to \{baseUris}");
+
+            OpenLoopDriver driver = new OpenLoopDriver(client, baseUris, phoneIds, options.mix(), options.maxInFlight());
+            if (!options.warmup().isZero()) {
+                driver.run(options.rates().getFirst(), options.warmup());
+            }
+
+            Files.createDirectories(options.reportDir());
+            for (int rate : options.rates()) {
+                OpenLoopDriver.StepResult result = driver.run(rate, options.duration());
+                report(result, System.out);
+                writeDistributions(result, options.reportDir());
+            }
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static List<String> provision(HttpClient client, URI baseUri, int phones) throws IOException, InterruptedException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<String> phoneIds = new ArrayList<>(phones);
+        for (int remaining = phones; remaining > 0; remaining -= PROVISION_CHUNK) {
+            String body = STR."[{\"model\":\"\{MODEL}\",\"count\":\{Math.min(remaining, PROVISION_CHUNK)}}]";
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(baseUri.resolve("/api/mobilephones/bulk"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException(STR."Provisioning failed with \{response.statusCode()}: \{response.body()}");
+            }
+            for (JsonNode id : mapper.readTree(response.body()).path("phoneIds")) {
+                phoneIds.add(id.asText());
+            }
+        }
+        return phoneIds;
+    }
+
+    private static void report(OpenLoopDriver.StepResult result, PrintStream out) {
+        double seconds = result.elapsedNanos() / 1e9;
+        out.printf("%nTarget %d req/s: achieved %.1f req/s over %.1f s, %d dropped%n",
+                result.rate(), result.completed() / seconds, seconds, result.dropped());
+        out.printf("%-9s %9s %9s %9s %9s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "ok", "rejected", "errors", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        result.latencies().forEach((operation, histogram) -> {
+            long[] outcomes = result.outcomes().get(operation);
+            if (histogram.getTotalCount() == 0) {
+                return;
+            }
+            out.printf("%-9s %9d %9d %9d %9d %9d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation.name().toLowerCase(), histogram.getTotalCount(), outcomes[0], outcomes[1], outcomes[2], outcomes[3],
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / NANOS_PER_MILLI);
+        });
+    }
+
+    private static void writeDistributions(OpenLoopDriver.StepResult result, Path reportDir) throws IOException {
+        for (var entry : result.latencies().entrySet()) {
+            Histogram histogram = entry.getValue();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            Path file = reportDir.resolve(STR."rate-\{result.rate()}-\{entry.getKey().name().toLowerCase()}.hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                histogram.outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+}
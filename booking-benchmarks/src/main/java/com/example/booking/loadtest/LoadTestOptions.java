@@ -0,0 +1,81 @@
+package com.example.booking.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options of the {@link LoadTest}, all given as {@code --name=value}.
+ *
+ * @param rates       The request rates per second to run, one step each, e.g. {@code --rates=500,1000,2000}.
+ * @param warmup      The unrecorded warm-up before the first step, {@code --warmup-seconds}.
+ * @param duration    The recorded duration of every step, {@code --duration-seconds}.
+ * @param phones      The number of phones provisioned before the test, {@code --phones}.
+ * @param mix         The relative weight of every operation, e.g. {@code --mix=book=45,return=45,strategy=1,status=9}.
+ * @param maxInFlight The number of outstanding requests beyond which new ones are dropped, {@code --max-in-flight}.
+ * @param targets     The base URLs of already running instances, {@code --url}, comma-separated for the nodes of a cluster;
+ *                    empty boots the application in-process.
+ * @param reportDir   The directory receiving the percentile distribution of every step and operation, {@code --report-dir}.
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+record LoadTestOptions(List<Integer> rates, Duration warmup, Duration duration, int phones,
+                       Map<Operation, Integer> mix, int maxInFlight, List<URI> targets, Path reportDir) {
+
+    static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException(STR."Expected --name=value but got: \{arg}");
+            }
+            values.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+
+        List<Integer> rates = Arrays.stream(values.getOrDefault("rates", "500,1000,2000").split(","))
+                .map(String::strip)
+                .map(Integer::valueOf)
+                .toList();
+        if (rates.stream().anyMatch(rate -> rate < 1)) {
+            throw new IllegalArgumentException(STR."Rates must be positive: \{rates}");
+        }
+        List<URI> targets = Arrays.stream(values.getOrDefault("url", "").split(","))
+                .map(String::strip)
+                .filter(url -> !url.isEmpty())
+                .map(URI::create)
+                .toList();
+        return new LoadTestOptions(rates,
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup-seconds", "10"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration-seconds", "30"))),
+                Integer.parseInt(values.getOrDefault("phones", "10000")),
+                parseMix(values.getOrDefault("mix", "book=45,return=45,strategy=1,status=9")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "10000")),
+                targets,
+                Path.of(values.getOrDefault("report-dir", "target/loadtest")));
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.strip().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(STR."Malformed mix entry: \{entry}");
+            }
+            int weight = Integer.parseInt(parts[1].strip());
+            if (weight < 0) {
+                throw new IllegalArgumentException(STR."Negative weight: \{entry}");
+            }
+            weights.put(Operation.valueOf(parts[0].strip().toUpperCase()), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("The mix must contain at least one operation");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.booking.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests at a fixed rate, independently of how fast the service answers (open loop).
+ * <p>
+ * Request {@code i} of a step is due at {@code start + i / rate}; it is sent on a virtual thread of its own
+ * as soon as it is due, even while earlier requests are still outstanding. Its latency is measured from
+ * the time it was due rather than from when it was actually sent, so a stalled service shows up in the
+ * percentiles instead of silently lowering the load (coordinated omission). Requests that cannot even be
+ * started because {@code maxInFlight} requests are outstanding are counted as dropped and recorded with the
+ * request timeout as their latency, so saturation raises the tail percentiles instead of vanishing from them.
+ * Against several instances every request goes to one of them picked at random, as a load balancer in front
+ * of the nodes of a cluster would spread them.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+final class OpenLoopDriver {
+
+    private static final String[] STRATEGIES = {"simpleStrategy", "advancedStrategy", "priorityStrategy"};
+    private static final String[] USERS = {"admin", "manager"};
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * How a request ended: answered with 2xx, rejected with 4xx, failed with 5xx or an I/O error, or never sent
+     * because too many requests were outstanding.
+     */
+    enum Outcome { OK, REJECTED, ERROR, DROPPED }
+
+    /**
+     * The recorded results of one step.
+     *
+     * @param rate         The intended request rate per second.
+     * @param elapsedNanos The time from the first request being due until the last one completed.
+     * @param latencies    The latency histogram of every operation in nanoseconds, dropped requests included.
+     * @param outcomes     The number of requests of every operation per {@link Outcome}, indexed by ordinal.
+     */
+    record StepResult(int rate, long elapsedNanos, Map<Operation, Histogram> latencies,
+                      Map<Operation, long[]> outcomes) {
+
+        long completed() {
+            return outcomes.values().stream()
+                    .mapToLong(counts -> counts[Outcome.OK.ordinal()] + counts[Outcome.REJECTED.ordinal()] + counts[Outcome.ERROR.ordinal()])
+                    .sum();
+        }
+
+        long dropped() {
+            return outcomes.values().stream().mapToLong(counts -> counts[Outcome.DROPPED.ordinal()]).sum();
+        }
+    }
+
+    private record BookedPhone(String phoneId, String user) {}
+
+    private final HttpClient client;
+    private final List<URI> baseUris;
+    private final List<String> phoneIds;
+    private final Operation[] schedule;
+    private final int maxInFlight;
+
+    // Phones booked by the load test and not returned yet; return requests take them from here
+    private final ConcurrentLinkedQueue<BookedPhone> booked = new ConcurrentLinkedQueue<>();
+
+    OpenLoopDriver(HttpClient client, List<URI> baseUris, List<String> phoneIds, Map<Operation, Integer> mix, int maxInFlight) {
+        this.client = client;
+        this.baseUris = baseUris;
+        this.phoneIds = phoneIds;
+        this.maxInFlight = maxInFlight;
+
+        List<Operation> weighted = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        this.schedule = weighted.toArray(Operation[]::new);
+    }
+
+    /**
+     * Runs one step.
+     *
+     * @param rate     The request rate per second.
+     * @param duration How long requests are sent.
+     * @return The latencies and outcomes of the step.
+     */
+    StepResult run(int rate, Duration duration) {
+        Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+        Map<Operation, LongAdder[]> outcomes = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(3));
+            LongAdder[] adders = new LongAdder[Outcome.values().length];
+            Arrays.setAll(adders, ignored -> new LongAdder());
+            outcomes.put(operation, adders);
+        }
+        Semaphore inFlight = new Semaphore(maxInFlight);
+
+        long intervalNanos = 1_000_000_000L / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long due = start + i * intervalNanos;
+                if (due - end >= 0) {
+                    break;
+                }
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                Operation operation = schedule[ThreadLocalRandom.current().nextInt(schedule.length)];
+                if (!inFlight.tryAcquire()) {
+                    recorders.get(operation).recordValue(REQUEST_TIMEOUT.toNanos());
+                    outcomes.get(operation)[Outcome.DROPPED.ordinal()].increment();
+                    continue;
+                }
+                executor.execute(() -> {
+                    try {
+                        Outcome outcome = send(operation);
+                        recorders.get(operation).recordValue(System.nanoTime() - due);
+                        outcomes.get(operation)[outcome.ordinal()].increment();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+        Map<Operation, long[]> counts = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, recorders.get(operation).getIntervalHistogram());
+            LongAdder[] adders = outcomes.get(operation);
+            counts.put(operation, Arrays.stream(adders).mapToLong(LongAdder::sum).toArray());
+        }
+        return new StepResult(rate, elapsed, latencies, counts);
+    }
+
+    private Outcome send(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            return switch (operation) {
+                case BOOK -> {
+                    String phoneId = phoneIds.get(random.nextInt(phoneIds.size()));
+                    String user = USERS[random.nextInt(USERS.length)];
+                    Outcome outcome = outcomeOf(post("/api/bookings/bookPhone", bookingJson(phoneId, user)));
+                    if (outcome == Outcome.OK) {
+                        booked.add(new BookedPhone(phoneId, user));
+                    }
+                    yield outcome;
+                }
+                case RETURN -> {
+                    BookedPhone phone = booked.poll();
+                    if (phone == null) { // nothing booked yet; the service is expected to reject this
+                        phone = new BookedPhone(phoneIds.get(random.nextInt(phoneIds.size())), USERS[0]);
+                    }
+                    yield outcomeOf(post("/api/bookings/returnPhone", bookingJson(phone.phoneId(), phone.user())));
+                }
+                case STRATEGY -> outcomeOf(client.send(
+                        request(STR."/api/bookings/strategy?strategyName=\{STRATEGIES[random.nextInt(STRATEGIES.length)]}")
+                                .POST(HttpRequest.BodyPublishers.noBody()).build(),
+                        HttpResponse.BodyHandlers.discarding()));
+                case STATUS -> outcomeOf(client.send(request("/api/mobilephones/status").GET().build(),
+                        HttpResponse.BodyHandlers.discarding()));
+            };
+        } catch (IOException e) {
+            return Outcome.ERROR;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Outcome.ERROR;
+        }
+    }
+
+    private HttpResponse<Void> post(String path, String json) throws IOException, InterruptedException {
+        return client.send(request(path)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(json))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        URI baseUri = baseUris.get(ThreadLocalRandom.current().nextInt(baseUris.size()));
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    // Phone ids are generated from model names and numbers, so they never need JSON escaping
+    private static String bookingJson(String phoneId, String user) {
+        return STR."{\"phoneId\":\"\{phoneId}\",\"userId\":\"\{user}\"}";
+    }
+
+    private static Outcome outcomeOf(HttpResponse<?> response) {
+        int status = response.statusCode();
+        if (status < 300) {
+            return Outcome.OK;
+        }
+        return status < 500 ? Outcome.REJECTED : Outcome.ERROR;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.booking.loadtest;
+
+/**
+ * The requests the load test sends, named as in the {@code --mix} option.
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+enum Operation {
+
+    /** {@code POST /api/bookings/bookPhone} for a random phone. */
+    BOOK,
+
+    /** {@code POST /api/bookings/returnPhone} for a phone booked earlier by the load test. */
+    RETURN,
+
+    /** {@code POST /api/bookings/strategy} switching to a random strategy. */
+    STRATEGY,
+
+    /** {@code GET /api/mobilephones/status}. */
+    STATUS
+}
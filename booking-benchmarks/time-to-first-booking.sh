@@ -0,0 +1,41 @@
+#!/bin/sh
+# Measures the time from launching the application until its first successful booking: the instance has to
+# start, accept a new phone and book it. Each run starts a fresh JVM; the times of all runs are printed.
+# Usage, from the project root: booking-benchmarks/time-to-first-booking.sh <runs> <java command line...>
+# The command line is completed with --server.port; see the README for the regular and the fast-startup commands.
+set -e
+RUNS=$1
+shift
+PORT=${PORT:-18080}
+URL="http://localhost:$PORT"
+
+now_ms() {
+  echo $(( $(date +%s%N) / 1000000 ))
+}
+
+run=1
+while [ "$run" -le "$RUNS" ]; do
+  start=$(now_ms)
+  "$@" --server.port="$PORT" > "time-to-first-booking-$run.log" 2>&1 &
+  pid=$!
+
+  phone=""
+  while [ -z "$phone" ]; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "The application exited, see time-to-first-booking-$run.log" >&2
+      exit 1
+    fi
+    phone=$(curl -s -X POST "$URL/api/mobilephones/?model=Samsung%20Galaxy%20S9" 2> /dev/null \
+      | sed -n 's/.*"id":"\([^"]*\)".*/\1/p') || true
+    [ -n "$phone" ] || sleep 0.01
+  done
+  until curl -sf -X POST "$URL/api/bookings/bookPhone" -H 'Content-Type: application/json' \
+      -d "{\"phoneId\":\"$phone\",\"userId\":\"admin\"}" > /dev/null 2>&1; do
+    sleep 0.01
+  done
+  echo "run $run: $(( $(now_ms) - start )) ms"
+
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+  run=$((run + 1))
+done
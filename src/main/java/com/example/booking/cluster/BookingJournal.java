@@ -0,0 +1,32 @@
+package com.example.booking.cluster;
+
+import com.example.booking.entity.Booking;
+
+/**
+ * Records the bookings made and returned on this node where the other nodes can see them.
+ * <p>
+ * Implemented by {@link LocalBookingJournal}, which records nothing because a single instance holds every
+ * booking, and in the {@code cluster} profile by {@link DatabaseBookingJournal}, which records them in the
+ * shared database. Both methods are called inside the transaction that changes the availability of the phone.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+public interface BookingJournal {
+
+    /**
+     * Records a booking that was just made.
+     *
+     * @param booking The new booking.
+     */
+    void booked(Booking booking);
+
+    /**
+     * Records that a booking was returned.
+     *
+     * @param booking The returned booking.
+     */
+    void returned(Booking booking);
+}
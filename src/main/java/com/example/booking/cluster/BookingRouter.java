@@ -0,0 +1,45 @@
+package com.example.booking.cluster;
+
+/**
+ * Decides which node handles the booking requests of a device and monitors it.
+ * <p>
+ * Implemented by {@link LocalBookingRouter}, which handles every device locally, and in the {@code cluster}
+ * profile by {@link ClusterBookingRouter}, which names the other node owning a device; the request is then
+ * forwarded to that {@link RemoteNode}.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+public interface BookingRouter {
+
+    /**
+     * Header marking a request forwarded by another node; such a request is always handled where it arrives,
+     * so requests cannot bounce between nodes whose views of the members differ.
+     */
+    String FORWARDED_HEADER = "X-Booking-Forwarded";
+
+    /**
+     * Returns the node owning a device if that is not this node.
+     *
+     * @param deviceId The unique identifier of the device.
+     * @return The owning node, or {@code null} if the request is handled by this node.
+     */
+    RemoteNode remoteOwnerOf(String deviceId);
+
+    /**
+     * Checks whether this node owns a device, and therefore holds its booking and monitors it.
+     *
+     * @param deviceId The unique identifier of the device.
+     * @return {@code true} if this node owns the device.
+     */
+    boolean owns(String deviceId);
+
+    /**
+     * Checks whether this node owns any devices yet.
+     *
+     * @return {@code false} while a node of a cluster does not know the members or its own URL.
+     */
+    boolean ownsDevices();
+}
@@ -0,0 +1,79 @@
+package com.example.booking.cluster;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Routes the booking requests of a device to the node owning it on the {@link HashRing}.
+ * <p>
+ * Each node keeps the bookings of the devices it owns in its {@link com.example.booking.service.BookingStore},
+ * so booking and returning a phone always reach the same node, whichever node the load balancer picked.
+ * Requests are forwarded by the returned {@link RemoteNode} with a {@link RestClient} over a shared
+ * {@link HttpClient}, which keeps its connections to the other nodes open.
+ * </p>
+ * <p>
+ * The nodes only share bookings through the database, so the router refuses to start with the {@code inmemory}
+ * profile, whose stores are private to each node: phones created on one node would not exist on their owner.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+@Profile("cluster")
+public class ClusterBookingRouter implements BookingRouter {
+
+    private final ClusterMembership membership;
+    private final LocalNode localNode;
+    private final RestClient restClient;
+
+    public ClusterBookingRouter(ClusterMembership membership, LocalNode localNode, RestClient.Builder restClientBuilder,
+                                @Value("${booking.cluster.forward-timeout-millis:2000}") long timeoutMillis,
+                                Environment environment) {
+        if (environment.matchesProfiles("inmemory")) {
+            throw new IllegalStateException("The cluster profile needs the shared database and cannot be combined with inmemory");
+        }
+        this.membership = membership;
+        this.localNode = localNode;
+
+        Duration timeout = Duration.ofMillis(timeoutMillis);
+        JdkClientHttpRequestFactory requestFactory =
+                new JdkClientHttpRequestFactory(HttpClient.newBuilder().connectTimeout(timeout).build());
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+    }
+
+    @Override
+    public RemoteNode remoteOwnerOf(String deviceId) {
+        String owner = membership.ring().ownerOf(deviceId);
+        return owner == null || owner.equals(localNode.getUrl()) ? null : new RemoteNode(owner, restClient);
+    }
+
+    /**
+     * Checks whether this node owns a device on the current ring. A node owns no device until it knows the
+     * members and its own URL, so its monitoring waits for the first ring that includes it, while a booking
+     * request arriving meanwhile is still handled locally.
+     *
+     * @param deviceId The unique identifier of the device.
+     * @return {@code true} if this node is the owner of the device on the current ring.
+     */
+    @Override
+    public boolean owns(String deviceId) {
+        String self = localNode.getUrl();
+        return self != null && self.equals(membership.ring().ownerOf(deviceId));
+    }
+
+    @Override
+    public boolean ownsDevices() {
+        String self = localNode.getUrl();
+        return self != null && membership.ring().getNodes().contains(self);
+    }
+}
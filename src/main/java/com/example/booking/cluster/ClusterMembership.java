@@ -0,0 +1,23 @@
+package com.example.booking.cluster;
+
+/**
+ * Source of the nodes taking part in the cluster.
+ * <p>
+ * Implemented by {@link StaticClusterMembership}, which reads the members from the configuration, and by
+ * {@link DatabaseClusterMembership}, which discovers them through heartbeats in the shared database. The
+ * implementation is chosen with {@code booking.cluster.membership}.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+public interface ClusterMembership {
+
+    /**
+     * Returns the hash ring of the current members. The ring is replaced, never changed, when the members change.
+     *
+     * @return The current ring; empty while no member is known yet.
+     */
+    HashRing ring();
+}
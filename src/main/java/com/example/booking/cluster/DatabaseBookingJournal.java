@@ -0,0 +1,224 @@
+package com.example.booking.cluster;
+
+import com.example.booking.entity.ActiveBooking;
+import com.example.booking.entity.Booking;
+import com.example.booking.entity.MobilePhone;
+import com.example.booking.entity.event.BookingChangedEvent;
+import com.example.booking.entity.event.DeviceOwnershipChangedEvent;
+import com.example.booking.repository.ActiveBookingRepository;
+import com.example.booking.service.BookingStore;
+import com.example.booking.service.MobilePhoneCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Records the active bookings in the {@code active_booking} table of the shared database and loads into the
+ * {@link BookingStore} of each node the bookings of the devices that node owns.
+ * <p>
+ * The owner of a phone inserts the row in the transaction that books the phone and deletes it in the one that
+ * returns it. Every {@code booking.cluster.booking-sync-millis} the node compares the {@link HashRing} of its
+ * {@link ClusterMembership} with the ring its store follows. When the ring changed, the node drops the bookings
+ * of the devices it gave up, reads the bookings of the {@link HashRing.Segment}s it gained by their ring
+ * position, and publishes a {@link DeviceOwnershipChangedEvent}. While the ring stays the same nothing is read.
+ * So a node that takes over a device, because its owner stopped or a node joined, holds the device's booking
+ * and accepts its return, and each node reads only its share of the table, once per change of the members.
+ * </p>
+ * <p>
+ * The previous owner may still book or return a gained device until it sees the new ring as well, so the
+ * gained segments are read again on the next {@code SETTLE_ROUNDS} synchronizations. A difference between
+ * such a read and the store is acted on only when the next read still shows it; a booking whose transaction
+ * has not committed yet, or a return whose deletion has not, is thereby never undone by a read in between.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Component
+@Profile("cluster & !inmemory")
+@RequiredArgsConstructor
+public class DatabaseBookingJournal implements BookingJournal {
+
+    // Synchronizations that read the gained segments again after a change of the ring
+    static final int SETTLE_ROUNDS = 3;
+
+    private final ActiveBookingRepository activeBookingRepository;
+    private final BookingStore bookings;
+    private final MobilePhoneCache phoneCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClusterMembership membership;
+    private final LocalNode localNode;
+
+    // The state below is only read and replaced by the scheduler thread
+    private HashRing ownedRing = HashRing.empty();
+    private List<HashRing.Segment> settlingSegments = List.of();
+    private int settleRounds;
+    // Differences seen by the previous read of the settling segments
+    private Set<Difference> pendingDifferences = Set.of();
+
+    @Override
+    public void booked(Booking booking) {
+        // Flushed right away, so a failed insert fails the booking before it is added to the store
+        activeBookingRepository.saveAndFlush(new ActiveBooking(booking));
+    }
+
+    @Override
+    public void returned(Booking booking) {
+        activeBookingRepository.deleteByPhoneId(booking.getMobilePhone().getId());
+    }
+
+    /**
+     * Brings the bookings of this node in line with the devices it owns on the current ring: loads the
+     * bookings of the gained segments when the ring changed, and reads those segments again while they settle.
+     */
+    @Scheduled(fixedDelayString = "${booking.cluster.booking-sync-millis:1000}")
+    public void synchronize() {
+        String self = localNode.getUrl();
+        HashRing ring = membership.ring();
+        if (self == null || !ring.getNodes().contains(self)) {
+            return; // not a member yet, so the node owns nothing
+        }
+
+        if (ring != ownedRing) {
+            changeOwnership(self, ring);
+        } else if (settleRounds > 0) {
+            reconcile(self, ring);
+            if (--settleRounds == 0) {
+                settlingSegments = List.of();
+                pendingDifferences = Set.of();
+            }
+        }
+    }
+
+    private void changeOwnership(String self, HashRing ring) {
+        List<HashRing.Segment> gained = ring.segmentsGainedBy(self, ownedRing);
+        int released = release(self, ring);
+        int loaded = 0;
+        for (HashRing.Segment segment : gained) {
+            for (ActiveBooking activeBooking : activeBookingRepository.findByRingPositionBetween(segment.from(), segment.to())) {
+                if (bookings.getByDeviceId(activeBooking.getPhoneId()) == null && adopt(activeBooking)) {
+                    loaded++;
+                }
+            }
+        }
+        log.info("Took over {} ring segments with {} bookings and released {} bookings for members {}",
+                gained.size(), loaded, released, ring.getNodes());
+
+        List<HashRing.Segment> settling = new ArrayList<>(settlingSegments);
+        settling.addAll(gained);
+        settlingSegments = settling;
+        settleRounds = SETTLE_ROUNDS;
+        pendingDifferences = Set.of();
+        ownedRing = ring;
+        eventPublisher.publishEvent(new DeviceOwnershipChangedEvent(this));
+    }
+
+    // Drops the bookings of the devices owned by other nodes; they keep their rows and stay booked there
+    private int release(String self, HashRing ring) {
+        List<Booking> released = new ArrayList<>();
+        bookings.forEach(booking -> {
+            if (!self.equals(ring.ownerOf(booking.getMobilePhone().getId()))) {
+                released.add(booking);
+            }
+        });
+        for (Booking booking : released) {
+            if (bookings.remove(booking)) {
+                phoneCache.invalidate(booking.getMobilePhone().getId()); // the new owner changes its availability
+            }
+        }
+        return released.size();
+    }
+
+    /**
+     * Compares the recorded bookings of the settling segments with the store. A booking missing from the table
+     * is dropped and a recorded booking missing from the store is added, once two consecutive reads agree.
+     */
+    private void reconcile(String self, HashRing ring) {
+        Map<String, ActiveBooking> recorded = new HashMap<>();
+        for (HashRing.Segment segment : settlingSegments) {
+            for (ActiveBooking activeBooking : activeBookingRepository.findByRingPositionBetween(segment.from(), segment.to())) {
+                if (self.equals(ring.ownerOf(activeBooking.getPhoneId()))) {
+                    recorded.put(activeBooking.getPhoneId(), activeBooking);
+                }
+            }
+        }
+
+        Set<Difference> differences = new HashSet<>();
+        bookings.forEach(booking -> {
+            String phoneId = booking.getMobilePhone().getId();
+            if (!isSettling(phoneId)) {
+                return;
+            }
+            ActiveBooking activeBooking = recorded.get(phoneId);
+            if (activeBooking == null || !activeBooking.getBookedBy().equals(booking.getBookedBy())) {
+                Difference difference = new Difference(phoneId, booking.getBookedBy(), false);
+                if (pendingDifferences.contains(difference)) {
+                    drop(booking);
+                } else {
+                    differences.add(difference);
+                }
+            }
+        });
+        for (ActiveBooking activeBooking : recorded.values()) {
+            Booking booking = bookings.getByDeviceId(activeBooking.getPhoneId());
+            if (booking == null || !booking.getBookedBy().equals(activeBooking.getBookedBy())) {
+                Difference difference = new Difference(activeBooking.getPhoneId(), activeBooking.getBookedBy(), true);
+                if (pendingDifferences.contains(difference) && booking == null) {
+                    adopt(activeBooking);
+                } else {
+                    differences.add(difference);
+                }
+            }
+        }
+        pendingDifferences = differences;
+    }
+
+    private boolean isSettling(String phoneId) {
+        long position = HashRing.positionOf(phoneId);
+        for (HashRing.Segment segment : settlingSegments) {
+            if (segment.contains(position)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void drop(Booking booking) {
+        String phoneId = booking.getMobilePhone().getId();
+        if (bookings.remove(booking)) {
+            phoneCache.invalidate(phoneId); // the next lookup reads the availability left by the returning node
+            log.debug("Dropped the booking of phone {} by {}, it was returned on another node", phoneId, booking.getBookedBy());
+            eventPublisher.publishEvent(new BookingChangedEvent(this, phoneId, false));
+        }
+    }
+
+    private boolean adopt(ActiveBooking activeBooking) {
+        String phoneId = activeBooking.getPhoneId();
+        phoneCache.invalidate(phoneId); // the cached phone does not know about a booking made on another node
+        MobilePhone phone = phoneCache.findById(phoneId).orElse(null);
+        if (phone == null || phone.isAvailable()) {
+            return false; // deleted or returned since the table was read
+        }
+        bookings.add(new Booking(phoneId, phone, activeBooking.getBookedAt(), activeBooking.getBookedBy()));
+        log.debug("Added the booking of phone {} by {}, made on another node", phoneId, activeBooking.getBookedBy());
+        eventPublisher.publishEvent(new BookingChangedEvent(this, phoneId, true));
+        return true;
+    }
+
+    /**
+     * A booking of a phone by a user that is either only recorded in the database or only held in the store.
+     */
+    private record Difference(String phoneId, String bookedBy, boolean recorded) {}
+}
@@ -0,0 +1,103 @@
+package com.example.booking.cluster;
+
+import com.example.booking.entity.ClusterNode;
+import com.example.booking.repository.ClusterNodeRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cluster membership discovered through heartbeats in the shared database.
+ * <p>
+ * Every {@code booking.cluster.heartbeat-millis} the node refreshes its {@link ClusterNode} row and reads
+ * the nodes whose last heartbeat is younger than three intervals. The ring is rebuilt only when this set
+ * changed. A node removes its row when it shuts down, so the others drop it with their next heartbeat; a
+ * node that died is dropped once its heartbeat expired.
+ * </p>
+ * <p>
+ * While the nodes' views of the members differ, for at most one interval, two nodes may both consider
+ * themselves owners of a device. The conditional availability update in the shared database still lets
+ * only one booking of the phone succeed.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Component
+@Profile("cluster & !inmemory")
+@ConditionalOnProperty(name = "booking.cluster.membership", havingValue = "database")
+public class DatabaseClusterMembership implements ClusterMembership {
+
+    private final ClusterNodeRepository clusterNodeRepository;
+    private final LocalNode localNode;
+    private final Duration heartbeatTimeout;
+
+    private volatile HashRing ring = HashRing.empty();
+
+    public DatabaseClusterMembership(ClusterNodeRepository clusterNodeRepository, LocalNode localNode,
+                                     @Value("${booking.cluster.heartbeat-millis:1000}") long heartbeatMillis) {
+        this.clusterNodeRepository = clusterNodeRepository;
+        this.localNode = localNode;
+        this.heartbeatTimeout = Duration.ofMillis(3 * heartbeatMillis);
+    }
+
+    @Override
+    public HashRing ring() {
+        return ring;
+    }
+
+    /**
+     * Refreshes the heartbeat of this node and rebuilds the ring if the live nodes changed.
+     */
+    @Scheduled(fixedDelayString = "${booking.cluster.heartbeat-millis:1000}")
+    @Transactional
+    public void heartbeat() {
+        String self = localNode.getUrl();
+        if (self == null) {
+            return; // not serving yet
+        }
+
+        Instant now = Instant.now();
+        if (clusterNodeRepository.touch(self, now) == 0) {
+            clusterNodeRepository.save(new ClusterNode(self, now));
+        }
+
+        List<String> members = new ArrayList<>(clusterNodeRepository.findUrlsAliveSince(now.minus(heartbeatTimeout)));
+        if (!members.contains(self)) {
+            members.add(self);
+        }
+        if (!ring.hasMembers(members)) {
+            ring = new HashRing(members);
+            log.info("Cluster members changed to {}", ring.getNodes());
+        }
+    }
+
+    /**
+     * Unregisters this node, so the other nodes take over its devices without waiting for its heartbeat to expire.
+     */
+    @PreDestroy
+    public void leave() {
+        String self = localNode.getUrl();
+        if (self == null) {
+            return;
+        }
+        try {
+            clusterNodeRepository.deleteById(self);
+        } catch (DataAccessException e) {
+            log.warn("Cannot unregister cluster node {}, it expires with its heartbeat", self, e);
+        }
+    }
+}
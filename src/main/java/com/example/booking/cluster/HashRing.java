@@ -0,0 +1,194 @@
+package com.example.booking.cluster;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Immutable consistent-hash ring mapping device ids to the node that owns their booking state.
+ * <p>
+ * Every node is placed on the ring at {@code VIRTUAL_NODES} points derived from its URL; a device belongs to
+ * the node of the first point at or after the hash of its id. Nodes that see the same members therefore agree
+ * on every owner without talking to each other, the devices spread evenly over the nodes, and adding or
+ * removing a node only moves the devices of the ring segments it gains or loses.
+ * </p>
+ * <p>
+ * A lookup is a binary search over a sorted {@code long[]} and does not allocate. The position of a device on
+ * the ring, {@link #positionOf(String)}, is stored with the data kept per device, so the data of the
+ * {@link Segment}s a node gains can be read by range instead of in full.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+public final class HashRing {
+
+    static final int VIRTUAL_NODES = 160;
+
+    private static final HashRing EMPTY = new HashRing(List.of());
+
+    private final List<String> nodes;
+    private final long[] points;
+    private final String[] owners;
+
+    /**
+     * Builds the ring of a set of nodes.
+     *
+     * @param nodes The URLs of the member nodes; duplicates are ignored.
+     */
+    public HashRing(Collection<String> nodes) {
+        this.nodes = nodes.stream().distinct().sorted().toList();
+        this.points = new long[this.nodes.size() * VIRTUAL_NODES];
+        this.owners = new String[points.length];
+
+        long[] unsorted = new long[points.length];
+        int i = 0;
+        for (String node : this.nodes) {
+            for (int replica = 0; replica < VIRTUAL_NODES; replica++) {
+                unsorted[i++] = hash(node + '#' + replica);
+            }
+        }
+        Integer[] order = new Integer[unsorted.length];
+        Arrays.setAll(order, index -> index);
+        // Ties between points of different nodes are broken by node, so every member builds the same ring
+        Arrays.sort(order, (a, b) -> unsorted[a] != unsorted[b]
+                ? Long.compare(unsorted[a], unsorted[b])
+                : Integer.compare(a, b));
+        for (int position = 0; position < order.length; position++) {
+            points[position] = unsorted[order[position]];
+            owners[position] = this.nodes.get(order[position] / VIRTUAL_NODES);
+        }
+    }
+
+    /**
+     * A contiguous range of ring positions, both ends inclusive.
+     *
+     * @param from The first position of the segment.
+     * @param to   The last position of the segment.
+     */
+    public record Segment(long from, long to) {
+
+        /**
+         * Checks whether a position lies in the segment.
+         *
+         * @param position The position on the ring.
+         * @return {@code true} if {@code from <= position <= to}.
+         */
+        public boolean contains(long position) {
+            return position >= from && position <= to;
+        }
+    }
+
+    /**
+     * Returns the ring without members.
+     *
+     * @return The empty ring.
+     */
+    public static HashRing empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the node owning a device.
+     *
+     * @param deviceId The unique identifier of the device.
+     * @return The URL of the owning node, or {@code null} if the ring has no members.
+     */
+    public String ownerOf(String deviceId) {
+        return ownerAt(hash(deviceId));
+    }
+
+    /**
+     * Returns the position of a device on the ring, which decides its owner in every ring.
+     *
+     * @param deviceId The unique identifier of the device.
+     * @return The position.
+     */
+    public static long positionOf(String deviceId) {
+        return hash(deviceId);
+    }
+
+    /**
+     * Returns the segments of the ring that a node owns in this ring but did not own in a previous one.
+     * <p>
+     * The boundaries of both rings cut the ring into intervals on which neither ring changes owner, so every
+     * interval is decided by the owners of its last position; adjacent intervals are merged. Against the empty
+     * ring these are all the segments the node owns.
+     * </p>
+     *
+     * @param node     The URL of the node.
+     * @param previous The ring the node followed before.
+     * @return The gained segments in ascending order; empty if the node is not a member of this ring.
+     */
+    public List<Segment> segmentsGainedBy(String node, HashRing previous) {
+        List<Segment> gained = new ArrayList<>();
+        if (!nodes.contains(node)) {
+            return gained;
+        }
+        long[] boundaries = LongStream.concat(Arrays.stream(points), Arrays.stream(previous.points)).sorted().distinct().toArray();
+        long from = Long.MIN_VALUE;
+        for (int i = 0; i <= boundaries.length; i++) {
+            long to = i < boundaries.length ? boundaries[i] : Long.MAX_VALUE;
+            if (from <= to && node.equals(ownerAt(to)) && !node.equals(previous.ownerAt(to))) {
+                if (!gained.isEmpty() && gained.getLast().to() == from - 1) {
+                    gained.set(gained.size() - 1, new Segment(gained.getLast().from(), to));
+                } else {
+                    gained.add(new Segment(from, to));
+                }
+            }
+            if (to == Long.MAX_VALUE) {
+                break;
+            }
+            from = to + 1;
+        }
+        return gained;
+    }
+
+    private String ownerAt(long position) {
+        if (points.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(points, position);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    /**
+     * Returns the members of the ring.
+     *
+     * @return The node URLs, sorted.
+     */
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Checks whether the ring has the given members.
+     *
+     * @param members The node URLs to compare with.
+     * @return {@code true} if the ring was built from exactly these nodes.
+     */
+    public boolean hasMembers(Collection<String> members) {
+        return nodes.equals(members.stream().distinct().sorted().toList());
+    }
+
+    // 64-bit FNV-1a over the UTF-16 code units, finished with the MurmurHash3 mix for an even spread
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.booking.cluster;
+
+import com.example.booking.entity.Booking;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Journal of a single instance, or of a cluster without a shared database, which records nothing.
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+@Profile("!cluster | inmemory")
+public class LocalBookingJournal implements BookingJournal {
+
+    @Override
+    public void booked(Booking booking) {
+    }
+
+    @Override
+    public void returned(Booking booking) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.booking.cluster;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Router of a single instance, which owns every device.
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+@Profile("!cluster")
+public class LocalBookingRouter implements BookingRouter {
+
+    @Override
+    public RemoteNode remoteOwnerOf(String deviceId) {
+        return null;
+    }
+
+    @Override
+    public boolean owns(String deviceId) {
+        return true;
+    }
+
+    @Override
+    public boolean ownsDevices() {
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.booking.cluster;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * The URL under which the other nodes reach this node, which is also its name on the {@link HashRing}.
+ * <p>
+ * It is configured with {@code booking.cluster.self-url}. Without it the node is addressed as
+ * {@code http://localhost:<port>} once its web server has started, which suits several nodes on one host.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+@Profile("cluster")
+public class LocalNode {
+
+    private volatile String url;
+
+    public LocalNode(@Value("${booking.cluster.self-url:}") String selfUrl) {
+        this.url = selfUrl.isBlank() ? null : stripTrailingSlash(selfUrl);
+    }
+
+    /**
+     * Takes the port of the started web server unless the URL is configured.
+     *
+     * @param event The event published when the web server has started.
+     */
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        if (url == null) {
+            url = STR."http://localhost:\{event.getWebServer().getPort()}";
+        }
+    }
+
+    /**
+     * Returns the URL of this node.
+     *
+     * @return The URL, or {@code null} until the web server has started if it is not configured.
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
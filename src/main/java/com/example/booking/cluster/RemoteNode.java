@@ -0,0 +1,94 @@
+package com.example.booking.cluster;
+
+import com.example.booking.entity.dto.BookingRequest;
+import com.example.booking.entity.dto.BookingResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.util.List;
+
+/**
+ * Another node of the cluster, to which the booking requests of the devices it owns are forwarded, as well
+ * as the monitoring of the phones it owns that were created on this node.
+ * <p>
+ * Handed out by {@link ClusterBookingRouter}, whose {@link RestClient} it shares. The owner's status and body
+ * are passed back unchanged; an owner that cannot be reached is reported as {@code 503 Service Unavailable}.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+public final class RemoteNode {
+
+    /**
+     * Path of the endpoint that starts monitoring phones forwarded by another node.
+     */
+    public static final String MONITORS_PATH = "/api/mobilephones/monitors";
+
+    private final String url;
+    private final RestClient restClient;
+
+    RemoteNode(String url, RestClient restClient) {
+        this.url = url;
+        this.restClient = restClient;
+    }
+
+    /**
+     * Returns the URL of the node.
+     *
+     * @return The URL, which is also the node's name on the {@link HashRing}.
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Forwards a booking request to this node, marked with {@link BookingRouter#FORWARDED_HEADER}.
+     *
+     * @param path    The path of the booking endpoint.
+     * @param request The booking request.
+     * @return The response of the node.
+     */
+    public ResponseEntity<BookingResponse> forward(String path, BookingRequest request) {
+        try {
+            return restClient.post()
+                    .uri(url + path)
+                    .header(BookingRouter.FORWARDED_HEADER, "true")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(request)
+                    .exchange((clientRequest, clientResponse) -> ResponseEntity.status(clientResponse.getStatusCode())
+                            .body(clientResponse.bodyTo(BookingResponse.class)));
+        } catch (RestClientException e) {
+            log.warn("Cannot forward {} for phone {} to {}", path, request.getPhoneId(), url, e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new BookingResponse(STR."The node owning the phone is unavailable: \{url}", false));
+        }
+    }
+
+    /**
+     * Hands the monitoring of new phones to this node, their owner, marked with {@link BookingRouter#FORWARDED_HEADER}.
+     * A phone the node does not learn about this way, because it cannot be reached, is monitored by the node
+     * that owns it after the next change of the members.
+     *
+     * @param phoneIds The identifiers of the phones.
+     */
+    public void registerMonitors(List<String> phoneIds) {
+        try {
+            restClient.post()
+                    .uri(url + MONITORS_PATH)
+                    .header(BookingRouter.FORWARDED_HEADER, "true")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(phoneIds)
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (RestClientException e) {
+            log.warn("Cannot forward the monitoring of {} phones to {}", phoneIds.size(), url, e);
+        }
+    }
+}
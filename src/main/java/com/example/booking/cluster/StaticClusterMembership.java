@@ -0,0 +1,46 @@
+package com.example.booking.cluster;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cluster membership fixed by the configuration.
+ * <p>
+ * The members are listed in {@code booking.cluster.nodes} as comma-separated URLs, e.g.
+ * {@code http://booking-1:8080,http://booking-2:8080}. Every node has to be started with the same list,
+ * which must include the node's own {@code booking.cluster.self-url}.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+@Profile("cluster")
+@ConditionalOnProperty(name = "booking.cluster.membership", havingValue = "static", matchIfMissing = true)
+public class StaticClusterMembership implements ClusterMembership {
+
+    private final HashRing ring;
+
+    public StaticClusterMembership(@Value("${booking.cluster.nodes:}") String nodes) {
+        List<String> members = Arrays.stream(nodes.split(","))
+                .map(String::trim)
+                .filter(node -> !node.isEmpty())
+                .map(LocalNode::stripTrailingSlash)
+                .toList();
+        if (members.isEmpty()) {
+            throw new IllegalStateException("booking.cluster.nodes must list the nodes of a static cluster");
+        }
+        this.ring = new HashRing(members);
+    }
+
+    @Override
+    public HashRing ring() {
+        return ring;
+    }
+}
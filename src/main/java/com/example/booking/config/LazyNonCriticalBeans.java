@@ -0,0 +1,61 @@
+package com.example.booking.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Marks the beans that are not needed to serve bookings as lazy in the {@code fast-startup} profile.
+ * <p>
+ * The OpenAPI documentation (springdoc) and the Spring Data REST repository resources are then created on
+ * their first use instead of during startup. A lazy bean that an eagerly created bean depends on is still
+ * created at startup. Unlike {@code spring.main.lazy-initialization}, the application's own beans stay
+ * eager, so their {@code @Scheduled} and {@code @EventListener} methods are registered as usual.
+ * </p>
+ * <p>
+ * In the AOT-processed build the lazy flags are recorded in the generated bean definitions, so the profile
+ * has to be active when the build runs {@code process-aot} as well.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+@Profile("fast-startup")
+public class LazyNonCriticalBeans implements BeanFactoryPostProcessor {
+
+    private static final List<String> LAZY_PACKAGES = List.of("org.springdoc.", "org.springframework.data.rest.");
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (isNonCritical(beanFactory, definition)) {
+                definition.setLazyInit(true);
+            }
+        }
+    }
+
+    // A bean declared by a @Bean method has no class name of its own; its configuration class decides
+    private static boolean isNonCritical(ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+        String className = definition.getBeanClassName();
+        String factoryBean = definition.getFactoryBeanName();
+        if (className == null && factoryBean != null && beanFactory.containsBeanDefinition(factoryBean)) {
+            className = beanFactory.getBeanDefinition(factoryBean).getBeanClassName();
+        }
+        if (className == null) {
+            return false;
+        }
+        for (String lazyPackage : LAZY_PACKAGES) {
+            if (className.startsWith(lazyPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
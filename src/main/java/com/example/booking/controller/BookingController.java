@@ -1,7 +1,11 @@
 package com.example.booking.controller;
 
+import com.example.booking.cluster.BookingRouter;
+import com.example.booking.cluster.RemoteNode;
 import com.example.booking.entity.dto.BookingRequest;
 import com.example.booking.entity.dto.BookingResponse;
+import com.example.booking.metrics.BookingMetrics;
+import com.example.booking.metrics.Outcome;
 import com.example.booking.service.BookingManager;
 import com.example.booking.service.BookingStrategy;
 import io.swagger.v3.oas.annotations.Operation;
@@ -32,9 +36,11 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class BookingController {
 
-    @Setter private BookingStrategy bookingStrategy;
+    @Setter private volatile BookingStrategy bookingStrategy;
     private final BookingManager bookingManager;
     private final ApplicationContext applicationContext; // Used to fetch strategies by their names
+    private final BookingMetrics bookingMetrics;
+    private final BookingRouter bookingRouter; // Sends requests for phones owned by other nodes there
 
 
     /**
@@ -43,8 +49,10 @@ public class BookingController {
      * This endpoint attempts to book a phone based on the provided phone and user identifiers.
      * If the booking is successful, it returns a confirmation response. If the phone cannot be booked
      * (e.g., already booked, unavailable), it returns an error response.
+     * In a cluster, the request is forwarded to the node owning the phone unless it was forwarded already.
      *
      * @param bookingRequest the request body containing the phone ID and user ID
+     * @param forwarded whether the request was forwarded by another node of the cluster
      * @return a {@link ResponseEntity} containing a {@link BookingResponse} with the outcome
      * @throws IllegalArgumentException if the request parameters are invalid
      */
@@ -62,18 +70,29 @@ public class BookingController {
     })
     @PostMapping("/bookPhone")
     public ResponseEntity<BookingResponse> bookPhone(
-            @RequestBody BookingRequest bookingRequest) {
+            @RequestBody BookingRequest bookingRequest,
+            @Parameter(hidden = true) @RequestHeader(name = BookingRouter.FORWARDED_HEADER, defaultValue = "false") boolean forwarded) {
         try {
             String phoneId = bookingRequest.getPhoneId();
             String userId = bookingRequest.getUserId();
 
-            if (this.bookingStrategy == null) {
-                this.bookingStrategy = applicationContext.getBean("simpleStrategy", BookingStrategy.class);
-            }
-
+            BookingStrategy bookingStrategy = currentStrategy();
             bookingStrategy.validateInput(bookingManager, phoneId, userId);
 
-            boolean bookingSuccess = bookingStrategy.bookPhone(bookingManager, phoneId, userId);
+            RemoteNode owner = forwarded ? null : bookingRouter.remoteOwnerOf(phoneId);
+            if (owner != null) {
+                return owner.forward("/api/bookings/bookPhone", bookingRequest);
+            }
+
+            long start = System.nanoTime();
+            Outcome outcome = Outcome.ERROR;
+            boolean bookingSuccess;
+            try {
+                bookingSuccess = bookingStrategy.bookPhone(bookingManager, phoneId, userId);
+                outcome = Outcome.of(bookingSuccess);
+            } finally {
+                bookingMetrics.recordStrategyBooking(bookingStrategy, start, outcome);
+            }
 
             if (bookingSuccess) {
                 BookingResponse response = new BookingResponse(STR."Phone booked successfully for user: \{userId}", true);
@@ -97,8 +116,10 @@ public class BookingController {
      * This endpoint processes the return of a phone that a user has booked. It confirms the current booking status of the phone
      * and processes the return if the user matches the booking. The method sends a confirmation response upon successful
      * return or an error response if the user did not book the phone or if another error occurs.
+     * In a cluster, the request is forwarded to the node owning the phone unless it was forwarded already.
      * </p>
      * @param bookingRequest the request body containing the phone ID and user ID
+     * @param forwarded whether the request was forwarded by another node of the cluster
      * @return a {@link ResponseEntity} containing a {@link BookingResponse} that indicates the outcome
      * @throws IllegalArgumentException if the request parameters are invalid
      */
@@ -112,16 +133,32 @@ public class BookingController {
                     content = @Content(schema = @Schema(implementation = BookingResponse.class)))
     })
     @PostMapping("/returnPhone")
-    public ResponseEntity<BookingResponse> returnPhone(@RequestBody BookingRequest bookingRequest) {
+    public ResponseEntity<BookingResponse> returnPhone(
+            @RequestBody BookingRequest bookingRequest,
+            @Parameter(hidden = true) @RequestHeader(name = BookingRouter.FORWARDED_HEADER, defaultValue = "false") boolean forwarded) {
         try {
             String phoneId = bookingRequest.getPhoneId();
             String userId = bookingRequest.getUserId();
 
             // Validate input; similar validation as in the bookPhone method
+            BookingStrategy bookingStrategy = currentStrategy();
             bookingStrategy.validateInput(bookingManager, phoneId, userId);
 
+            RemoteNode owner = forwarded ? null : bookingRouter.remoteOwnerOf(phoneId);
+            if (owner != null) {
+                return owner.forward("/api/bookings/returnPhone", bookingRequest);
+            }
+
             // Attempt to return the phone
-            boolean returnSuccess = bookingStrategy.returnPhone(bookingManager, phoneId, userId);
+            long start = System.nanoTime();
+            Outcome outcome = Outcome.ERROR;
+            boolean returnSuccess;
+            try {
+                returnSuccess = bookingStrategy.returnPhone(bookingManager, phoneId, userId);
+                outcome = Outcome.of(returnSuccess);
+            } finally {
+                bookingMetrics.recordStrategyReturn(bookingStrategy, start, outcome);
+            }
 
             if (returnSuccess) {
                 BookingResponse response = new BookingResponse(STR."Phone returned successfully for user: \{userId}", true);
@@ -174,4 +211,19 @@ public class BookingController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(STR."Error changing strategy: \{e.getMessage()}");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the strategy to use for one request, defaulting to {@code simpleStrategy}.
+     * The field is read once, so a strategy switched concurrently does not change within a request.
+     *
+     * @return The current booking strategy.
+     */
+    private BookingStrategy currentStrategy() {
+        BookingStrategy strategy = bookingStrategy;
+        if (strategy == null) {
+            strategy = applicationContext.getBean("simpleStrategy", BookingStrategy.class);
+            bookingStrategy = strategy;
+        }
+        return strategy;
+    }
+}
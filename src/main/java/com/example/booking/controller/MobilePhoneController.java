@@ -1,6 +1,10 @@
 package com.example.booking.controller;
 
 import com.example.booking.entity.MobilePhone;
+import com.example.booking.entity.dto.BulkProvisionRequest;
+import com.example.booking.entity.dto.BulkProvisionResponse;
+import com.example.booking.factory.catalog.PhoneModelCatalog;
+import com.example.booking.factory.catalog.PhoneModelSpec;
 import com.example.booking.service.DeviceMonitoringService;
 import com.example.booking.service.MobilePhoneService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,9 +13,18 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
 
 /**
  * REST Controller for managing mobile phones within the booking system.
@@ -39,7 +52,7 @@ public class MobilePhoneController {
      */
     @Operation(summary = "Create a new mobile phone instance",
             description = "Creates a new mobile phone instance based on the provided model. " +
-                    "The service currently supports a limited set of models. " +
+                    "The supported models are listed by GET /api/mobilephones/models. " +
                     "Providing an unsupported model results in a BAD REQUEST response.",
             responses = {
                     @ApiResponse(responseCode = "201", description = "Mobile phone created successfully",
@@ -51,13 +64,9 @@ public class MobilePhoneController {
             })
     @PostMapping("/")
     public ResponseEntity<?> createMobilePhone(
-            @Parameter(description = "Model of the phone to create. Supported models: 'Samsung Galaxy S9', 'Samsung Galaxy S8', 'Motorola Nexus 6', 'Oneplus 9', 'Apple iPhone 13', 'Apple iPhone 12', 'Apple iPhone 11', 'iPhone X', 'Nokia 3310'.",
+            @Parameter(description = "Model of the phone to create, one of the models listed by GET /api/mobilephones/models.",
                     required = true,
-                    example = "Samsung Galaxy S9",
-                    schema = @Schema(allowableValues = {
-                            "Samsung Galaxy S9", "Samsung Galaxy S8", "Motorola Nexus 6",
-                            "Oneplus 9", "Apple iPhone 13", "Apple iPhone 12", "Apple iPhone 11",
-                            "iPhone X", "Nokia 3310"}))
+                    example = "Samsung Galaxy S9")
             @RequestParam String model) {
         try {
             MobilePhone newPhone = mobilePhoneService.createMobilePhone(model);
@@ -71,29 +80,172 @@ public class MobilePhoneController {
         }
     }
 
+    /**
+     * Lists the phone models that can be created, as currently held by the {@link PhoneModelCatalog}.
+     *
+     * @return The catalog entries with their default metrics and thresholds.
+     */
+    @Operation(summary = "List the supported phone models",
+            description = "Lists the models of the phone model catalog, including models loaded from the external catalog file.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Models listed successfully")
+            })
+    @GetMapping("/models")
+    public Collection<PhoneModelSpec> getPhoneModels() {
+        return PhoneModelCatalog.models();
+    }
+
+    /**
+     * Endpoint to create many mobile phones at once from a list of models and counts.
+     * The phones are inserted in JDBC batches and their monitoring is registered in a single pass.
+     * Unsupported models or non-positive counts result in a BAD REQUEST response and nothing is created.
+     *
+     * @param requests The models and the number of phones of each model to create.
+     * @return ResponseEntity containing the number and ids of the created phones.
+     */
+    @Operation(summary = "Create mobile phones in bulk",
+            description = "Creates the requested number of phones for every listed model in one transaction.",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Mobile phones created successfully",
+                            content = @Content(schema = @Schema(implementation = BulkProvisionResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Unsupported phone model or invalid count provided",
+                            content = @Content)
+            })
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkProvisionResponse> createMobilePhones(@RequestBody List<BulkProvisionRequest> requests) {
+        return created(mobilePhoneService.createMobilePhones(requests));
+    }
+
+    /**
+     * Endpoint to create many mobile phones at once from streamed CSV lines of {@code model,count}.
+     *
+     * @param csv The request body.
+     * @return ResponseEntity containing the number and ids of the created phones.
+     * @throws IOException if reading the request body fails.
+     * @see #createMobilePhones(List)
+     */
+    @Operation(summary = "Create mobile phones in bulk from CSV",
+            description = "Creates phones from CSV lines of 'model,count'; lines of the same model are merged and a missing count means one phone.",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Mobile phones created successfully",
+                            content = @Content(schema = @Schema(implementation = BulkProvisionResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Malformed line, unsupported phone model or invalid count provided",
+                            content = @Content)
+            })
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkProvisionResponse> createMobilePhonesFromCsv(InputStream csv) throws IOException {
+        return created(mobilePhoneService.createMobilePhones(MobilePhoneService.readBulkRequests(csv)));
+    }
+
+    private ResponseEntity<BulkProvisionResponse> created(List<MobilePhone> phones) {
+        List<String> ids = phones.stream().map(MobilePhone::getId).toList();
+        return ResponseEntity.status(HttpStatus.CREATED).body(new BulkProvisionResponse(ids.size(), ids));
+    }
+
+    /**
+     * Endpoint through which another node of a cluster hands over the monitoring of phones it created that
+     * this node owns. Phones this node does not own or already monitors are ignored.
+     *
+     * @param phoneIds The identifiers of the phones.
+     * @return ResponseEntity without content once the monitoring of the phones started.
+     */
+    @Operation(summary = "Monitor phones created on another cluster node",
+            description = "Used by the nodes of a cluster: starts monitoring the listed phones that this node owns.",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Monitoring of the owned phones started",
+                            content = @Content)
+            })
+    @PostMapping(value = "/monitors", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Void> registerMonitors(@RequestBody List<String> phoneIds) {
+        deviceMonitoringService.registerForwardedMonitors(phoneIds);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Retrieves the status of all mobile phones in the system.
      * This endpoint provides a summary of the status for each mobile phone.
+     * <p>
+     * The response carries the current fleet status version as its {@code ETag}. A request whose
+     * {@code If-None-Match} header matches it is answered with {@code 304 Not Modified}, and passing the
+     * version as {@code sinceVersion} returns only the phones whose status changed after it.
+     * </p>
+     * <p>
+     * In a cluster each node returns the phones it owns, so the fleet is the union of the responses of all nodes.
+     * </p>
      *
-     * @return ResponseEntity with the status of all mobile phones.
+     * @param sinceVersion Optional version; only phones that changed after it are returned.
+     * @param ifNoneMatch  Optional ETag of a previously received response.
+     * @return ResponseEntity with the status of all (or all changed) mobile phones.
      */
     @Operation(summary = "Retrieve status of all mobile phones",
             description = "Retrieves the current status of all mobile phones within the system. " +
-                    "This can include availability, condition, and any other relevant status indicators.",
+                    "This can include availability, condition, and any other relevant status indicators. " +
+                    "Supports conditional requests via ETag/If-None-Match and delta queries via sinceVersion.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Status retrieved successfully",
-                            content = @Content(schema = @Schema(implementation = String.class))),
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE)),
+                    @ApiResponse(responseCode = "304", description = "Status unchanged since the given ETag",
+                            content = @Content),
                     @ApiResponse(responseCode = "500", description = "Internal server error",
                             content = @Content)
             })
     @GetMapping("/status")
-    public ResponseEntity<String> getAllPhoneStatuses() {
+    public ResponseEntity<?> getAllPhoneStatuses(
+            @Parameter(description = "Return only phones whose status version is greater than this value.")
+            @RequestParam(required = false) Long sinceVersion,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            String statuses = deviceMonitoringService.getAllPhoneStatuses();
-            return ResponseEntity.ok(statuses);
+            // Read before building the body, so the body is never older than its ETag
+            String eTag = STR."\"\{deviceMonitoringService.getStatusVersion()}\"";
+            if (eTag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+
+            byte[] statuses = deviceMonitoringService.getPhoneStatuses(sinceVersion == null ? 0 : sinceVersion);
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(statuses);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(STR."An error occurred while retrieving phone statuses: \{e.getMessage()}");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Streams the status of all mobile phones in the system.
+     * <p>
+     * Unlike {@link #getAllPhoneStatuses(Long, String)}, the statuses are written device by device straight to the
+     * response stream, so memory use does not grow with the size of the fleet.
+     * </p>
+     *
+     * @param format The output format, either {@code ndjson} (one JSON object per line) or {@code json} (a JSON array).
+     * @return ResponseEntity streaming the status of all mobile phones.
+     */
+    @Operation(summary = "Stream status of all mobile phones",
+            description = "Streams the current status of all mobile phones as newline-delimited JSON or as a chunked JSON array.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Status streamed successfully",
+                            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE)),
+                    @ApiResponse(responseCode = "400", description = "Unsupported format",
+                            content = @Content)
+            })
+    @GetMapping("/status/stream")
+    public ResponseEntity<?> streamAllPhoneStatuses(
+            @Parameter(description = "Output format of the stream.",
+                    schema = @Schema(allowableValues = { "ndjson", "json" }))
+            @RequestParam(defaultValue = "ndjson") String format) {
+        DeviceMonitoringService.StatusStreamFormat streamFormat;
+        try {
+            streamFormat = DeviceMonitoringService.StatusStreamFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(STR."Unsupported format: \{format}");
+        }
+
+        StreamingResponseBody body = out -> deviceMonitoringService.writeAllPhoneStatuses(out, streamFormat);
+        MediaType contentType = streamFormat == DeviceMonitoringService.StatusStreamFormat.NDJSON
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.booking.entity;
+
+import com.example.booking.cluster.HashRing;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * An active {@link Booking} as recorded in the shared database of a cluster.
+ * <p>
+ * The row is inserted in the transaction that marks the phone unavailable and deleted in the one that
+ * releases it, so every node can see who holds a phone, whichever node booked it.
+ * </p>
+ * <p>
+ * A row is only ever inserted or deleted, so the entity reports itself as new until it was persisted or
+ * loaded; {@code save} then inserts it directly instead of selecting it first.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "active_booking", indexes = @Index(name = "idx_active_booking_ring_position", columnList = "ring_position"))
+public class ActiveBooking implements Persistable<String> {
+
+    /**
+     * The identifier of the booked phone, which is also the identifier of the booking.
+     */
+    @Id
+    @Column(name = "phone_id", length = 64)
+    private String phoneId;
+
+    /**
+     * The name of the person who booked the phone.
+     */
+    @Column(name = "booked_by", nullable = false)
+    private String bookedBy;
+
+    /**
+     * The date and time when the booking was made.
+     */
+    @Column(name = "booked_at", nullable = false)
+    private LocalDateTime bookedAt;
+
+    /**
+     * The position of the phone on the {@link HashRing}, which decides the node owning the booking.
+     */
+    @Column(name = "ring_position", nullable = false)
+    private long ringPosition;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private boolean fresh;
+
+    public ActiveBooking(Booking booking) {
+        this.phoneId = booking.getMobilePhone().getId();
+        this.bookedBy = booking.getBookedBy();
+        this.bookedAt = booking.getBookedAt();
+        this.ringPosition = HashRing.positionOf(phoneId);
+        this.fresh = true;
+    }
+
+    @Override
+    public String getId() {
+        return phoneId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.fresh = false;
+    }
+}
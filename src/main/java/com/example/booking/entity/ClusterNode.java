@@ -0,0 +1,46 @@
+package com.example.booking.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A node of the cluster as registered in the shared database by its heartbeats.
+ * <p>
+ * Every node of a cluster with database membership refreshes its row periodically; the nodes whose last
+ * heartbeat is recent enough are the members of the hash ring.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "cluster_node")
+public class ClusterNode {
+
+    /**
+     * The URL under which the other nodes reach the node.
+     */
+    @Id
+    @Column(name = "url")
+    private String url;
+
+    /**
+     * The time of the node's last heartbeat.
+     */
+    @Column(name = "last_heartbeat", nullable = false)
+    private Instant lastHeartbeat;
+
+    public ClusterNode(String url, Instant lastHeartbeat) {
+        this.url = url;
+        this.lastHeartbeat = lastHeartbeat;
+    }
+}
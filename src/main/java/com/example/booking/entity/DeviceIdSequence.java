@@ -0,0 +1,87 @@
+package com.example.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * The next unallocated device id number of a phone model.
+ * <p>
+ * Ids are handed out in blocks (hi/lo): a node locks the row, takes the next {@code size} numbers and moves
+ * {@code next_value} past them, then assigns the ids of the block from memory. Since the row outlives the
+ * application, ids stay unique across restarts and across nodes sharing the database.
+ * </p>
+ * <p>
+ * The id is assigned, so the entity reports itself as new until it was persisted or loaded; this lets
+ * {@code save} insert the first row of a model directly instead of selecting it first.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "device_id_sequence")
+public class DeviceIdSequence implements Persistable<String> {
+
+    /**
+     * The phone model the ids are numbered for.
+     */
+    @Id
+    @Column(name = "model", length = 64)
+    private String model;
+
+    /**
+     * The first number that has not been allocated yet.
+     */
+    @Column(name = "next_value", nullable = false)
+    private long nextValue;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private boolean fresh;
+
+    /**
+     * Creates the sequence of a model whose first block has just been allocated.
+     *
+     * @param model     The phone model.
+     * @param nextValue The first number after the allocated block.
+     */
+    public DeviceIdSequence(String model, long nextValue) {
+        this.model = model;
+        this.nextValue = nextValue;
+        this.fresh = true;
+    }
+
+    @Override
+    public String getId() {
+        return model;
+    }
+
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.fresh = false;
+    }
+
+    /**
+     * Allocates the next block of numbers.
+     *
+     * @param size The number of ids in the block.
+     * @return The first number of the block.
+     */
+    public long allocate(int size) {
+        long first = nextValue;
+        nextValue += size;
+        return first;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.booking.entity;
+
+import com.example.booking.monitoring.entity.DeviceMetrics;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Points to the most recent {@link DeviceMetricsSample} of a device.
+ * <p>
+ * One narrow row per device, kept apart from {@link MobilePhone} so metrics ingestion never
+ * touches the phone row. The metrics of the latest sample are copied here so the fleet sweep can
+ * filter on them without reading the sample table.
+ * </p>
+ * <p>
+ * The id is assigned, so the entity reports itself as new until it was persisted or loaded; this lets
+ * {@code save} insert a new pointer directly instead of selecting it first.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "device_metrics_latest",
+        indexes = @Index(name = "idx_device_metrics_latest_free_memory", columnList = "free_memory"))
+public class DeviceMetricsLatest implements Persistable<String> {
+
+    /**
+     * The identifier of the device.
+     */
+    @Id
+    @Column(name = "device_id", length = 64)
+    private String deviceId;
+
+    /**
+     * The identifier of the device's most recent sample.
+     */
+    @Column(name = "sample_id", nullable = false)
+    private Long sampleId;
+
+    /**
+     * The time at which the most recent sample was taken.
+     */
+    @Column(name = "sampled_at", nullable = false)
+    private Instant sampledAt;
+
+    /**
+     * The metrics of the most recent sample.
+     */
+    @Embedded
+    private DeviceMetrics metrics;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    private boolean fresh;
+
+    public DeviceMetricsLatest(String deviceId) {
+        this.deviceId = deviceId;
+        this.fresh = true;
+    }
+
+    @Override
+    public String getId() {
+        return deviceId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.fresh = false;
+    }
+
+    /**
+     * Moves the pointer to a newer sample.
+     *
+     * @param sample The sample that is now the latest one of the device.
+     */
+    public void pointTo(DeviceMetricsSample sample) {
+        this.sampleId = sample.getId();
+        this.sampledAt = sample.getSampledAt();
+        this.metrics = sample.getMetrics();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.booking.entity;
+
+import com.example.booking.monitoring.entity.DeviceMetrics;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A single, immutable sample of a device's metrics.
+ * <p>
+ * Samples are only ever inserted, never updated, so recording metrics takes no row locks on
+ * {@link MobilePhone}, whose availability flag the booking path contends on. The id comes from a
+ * pooled sequence, which lets Hibernate batch the inserts. The device is referenced by id only;
+ * a foreign key would make every insert lock the phone row it points to.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "device_metrics_sample",
+        indexes = @Index(name = "idx_device_metrics_sample_device_time", columnList = "device_id, sampled_at"))
+public class DeviceMetricsSample {
+
+    /**
+     * The generated identifier of the sample, increasing in insertion order.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "device_metrics_sample_seq")
+    @SequenceGenerator(name = "device_metrics_sample_seq", sequenceName = "device_metrics_sample_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * The identifier of the sampled device.
+     */
+    @Column(name = "device_id", nullable = false, updatable = false, length = 64)
+    private String deviceId;
+
+    /**
+     * The time at which the sample was taken.
+     */
+    @Column(name = "sampled_at", nullable = false, updatable = false)
+    private Instant sampledAt;
+
+    /**
+     * The sampled metrics.
+     */
+    @Embedded
+    private DeviceMetrics metrics;
+
+    public DeviceMetricsSample(String deviceId, Instant sampledAt, DeviceMetrics metrics) {
+        this.deviceId = deviceId;
+        this.sampledAt = sampledAt;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Assigns the id of a sample kept by a store that does not generate ids through JPA.
+     *
+     * @param id The id of the sample.
+     */
+    public void assignId(long id) {
+        this.id = id;
+    }
+}
@@ -1,12 +1,20 @@
 package com.example.booking.entity;
 
 import com.example.booking.monitoring.entity.DeviceMetrics;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * The {@code MobilePhone} class represents a mobile phone entity within a booking system.
@@ -17,6 +25,17 @@ import java.util.Random;
  * The associated device metrics provide insights into the health and performance of the mobile phone,
  * which can be used for monitoring and managing the device effectively in the booking system.
  * </p>
+ * <p>
+ * The metrics are not stored in the phone row: they are appended to {@link DeviceMetricsSample} and the
+ * latest sample of every device is referenced by {@link DeviceMetricsLatest}. The row only holds the
+ * identity and availability of the phone, so booking never contends with metrics ingestion. The index
+ * on availability serves the scheduled sweep over booked phones.
+ * </p>
+ * <p>
+ * The id is assigned by the {@link com.example.booking.factory.MobilePhoneFactory}, so the entity tracks
+ * whether it was persisted or loaded already; saving a new phone is then a single insert instead of a
+ * select followed by an insert.
+ * </p>
  *
  * @author Milos Holclajtner
  * @version 1.0
@@ -26,7 +45,8 @@ import java.util.Random;
 @NoArgsConstructor
 @RequiredArgsConstructor
 @Entity
-public class MobilePhone {
+@Table(indexes = @Index(name = "idx_mobile_phone_available", columnList = "is_available"))
+public class MobilePhone implements Persistable<String> {
 
     /**
      * The unique identifier for the mobile phone. This ID is used to uniquely identify each mobile phone
@@ -45,19 +65,47 @@ public class MobilePhone {
      * the booking status of the mobile phone. When {@code true}, the mobile phone is available for new bookings;
      * when {@code false}, it is currently booked or otherwise unavailable for booking.
      */
+    @Column(name = "is_available")
     private boolean isAvailable = true;
 
     /**
      * The device metrics associated with the mobile phone. This {@link DeviceMetrics} object encapsulates
      * various performance and health metrics for the mobile phone, such as battery level, memory usage, and system load.
      * These metrics are useful for monitoring the condition and performance of the mobile phone within the booking system.
+     * They are not persisted with the phone; a phone loaded from the database carries no metrics.
      */
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     @Getter @NonNull private DeviceMetrics deviceMetrics;
 
+    /**
+     * Whether this instance was persisted or loaded from the database; drives {@link #isNew()}.
+     */
     @Transient
-    private Random random = new Random();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean persisted;
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        this.persisted = true;
+    }
+
     public void updateDeviceMetrics() {
+        if (this.deviceMetrics == null) {
+            return; // nothing to simulate for a phone loaded without metrics
+        }
         // Adjust these values as necessary for your simulation
+        ThreadLocalRandom random = ThreadLocalRandom.current();
         double batteryChange = (random.nextDouble() - 0.5) * 10; // Random change between -5 and +5
         long memoryChange = (long) ((random.nextDouble() - 0.5) * 512); // Random change between -256 and +256 MB
         double loadChange = (random.nextDouble() - 0.5) * 0.2; // Random change between -0.1 and +0.1
@@ -76,18 +124,22 @@ public class MobilePhone {
     }
 
     // Getters for the device metrics which simply return the current value of each metric
+    @JsonIgnore
     public double getBatteryLevel() {
         return this.deviceMetrics.batteryLevel();
     }
 
+    @JsonIgnore
     public long getTotalMemory() {
         return this.deviceMetrics.totalMemory();
     }
 
+    @JsonIgnore
     public long getFreeMemory() {
         return this.deviceMetrics.freeMemory();
     }
 
+    @JsonIgnore
     public double getSystemLoad() {
         return this.deviceMetrics.systemLoad();
     }
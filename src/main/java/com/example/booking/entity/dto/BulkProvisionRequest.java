@@ -0,0 +1,33 @@
+package com.example.booking.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * <p>
+ * Represents one line of a bulk provisioning request: a phone model and the number of phones of that model to create.
+ * A bulk request consists of a list of these, either as a JSON array or as CSV lines of {@code model,count}.
+ * </p>
+ * <p>
+ * Example usage:
+ * {@code [{"model": "Apple iPhone 13", "count": 500}, {"model": "Nokia 3310", "count": 20}]}
+ * </p>
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkProvisionRequest {
+    /**
+     * The model of the phones to create.
+     */
+    private String model;
+
+    /**
+     * The number of phones of this model to create.
+     */
+    private int count;
+}
@@ -0,0 +1,30 @@
+package com.example.booking.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Represents the result of a bulk provisioning request.
+ * The {@code created} field holds the number of phones created and {@code phoneIds} their identifiers,
+ * in the order of the request lines.
+ * </p>
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@AllArgsConstructor
+public class BulkProvisionResponse {
+    /**
+     * The number of phones created.
+     */
+    private int created;
+
+    /**
+     * The unique identifiers of the created phones.
+     */
+    private List<String> phoneIds;
+}
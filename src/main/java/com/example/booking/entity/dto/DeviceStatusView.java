@@ -0,0 +1,52 @@
+package com.example.booking.entity.dto;
+
+import com.example.booking.entity.Booking;
+import com.example.booking.monitoring.entity.DeviceMetrics;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat, read-only projection of the status of a single device, as returned by the status endpoints.
+ * <p>
+ * It is assembled from the in-memory monitoring state and the active bookings, so reading the status
+ * of the fleet hydrates no entity, and it carries only scalar values instead of the nested booking
+ * and phone graph. The textual results of the monitoring tasks are left out, as they only repeat the
+ * device id and the metrics columns.
+ * </p>
+ *
+ * @param deviceId     The unique identifier of the device.
+ * @param version      The status version of the device.
+ * @param model        The model of the device.
+ * @param available    Whether the device can be booked.
+ * @param batteryLevel The current battery level of the device.
+ * @param totalMemory  The total amount of memory of the device.
+ * @param freeMemory   The amount of free memory of the device.
+ * @param systemLoad   The current system load of the device.
+ * @param bookedBy     The person who booked the device, or {@code null} if it is available.
+ * @param bookedAt     When the device was booked, or {@code null} if it is available.
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+public record DeviceStatusView(String deviceId, long version, String model, boolean available,
+                               double batteryLevel, long totalMemory, long freeMemory, double systemLoad,
+                               String bookedBy, LocalDateTime bookedAt) {
+
+    /**
+     * Builds the projection of a device from its metrics and its active booking.
+     *
+     * @param deviceId The unique identifier of the device.
+     * @param version  The status version of the device.
+     * @param model    The model of the device.
+     * @param metrics  The current metrics of the device.
+     * @param booking  The active booking of the device, or {@code null} if it is not booked.
+     * @return The projection.
+     */
+    public static DeviceStatusView of(String deviceId, long version, String model, DeviceMetrics metrics, Booking booking) {
+        return new DeviceStatusView(deviceId, version, model, booking == null,
+                metrics.batteryLevel(), metrics.totalMemory(), metrics.freeMemory(), metrics.systemLoad(),
+                booking == null ? null : booking.getBookedBy(),
+                booking == null ? null : booking.getBookedAt());
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.booking.entity.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * A custom application event that signifies a mobile phone has been booked or returned.
+ * It is published by the {@link com.example.booking.service.BookingManager} after the booking state of a device
+ * changed, enabling other components to react to it, such as adjusting how often the device is monitored.
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Getter
+public class BookingChangedEvent extends ApplicationEvent {
+
+    /**
+     * The unique identifier of the device whose booking state changed.
+     */
+    private final String deviceId;
+
+    /**
+     * {@code true} if the device has just been booked, {@code false} if it has been returned.
+     */
+    private final boolean booked;
+
+    /**
+     * Creates a new {@code BookingChangedEvent}.
+     *
+     * @param source   the object on which the event initially occurred (never {@code null})
+     * @param deviceId the unique identifier of the device whose booking state changed
+     * @param booked   {@code true} if the device has been booked, {@code false} if it has been returned
+     */
+    public BookingChangedEvent(Object source, String deviceId, boolean booked) {
+        super(source);
+        this.deviceId = deviceId;
+        this.booked = booked;
+    }
+
+}
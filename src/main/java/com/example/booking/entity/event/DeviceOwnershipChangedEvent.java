@@ -0,0 +1,26 @@
+package com.example.booking.entity.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * A custom application event that signifies the devices owned by this node of a cluster have changed.
+ * It is published by the {@link com.example.booking.cluster.DatabaseBookingJournal} once the booking store holds
+ * the bookings of the devices the node took over and no longer holds those of the devices it gave up, enabling
+ * other components to follow the new owners, such as monitoring only the devices this node owns.
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+public class DeviceOwnershipChangedEvent extends ApplicationEvent {
+
+    /**
+     * Creates a new {@code DeviceOwnershipChangedEvent}.
+     *
+     * @param source the object on which the event initially occurred (never {@code null})
+     */
+    public DeviceOwnershipChangedEvent(Object source) {
+        super(source);
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.example.booking.entity.event;
+
+import com.example.booking.entity.MobilePhone;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * An application event that signifies a batch of mobile phones has been added to the application at once,
+ * e.g. by bulk provisioning. It is the aggregated counterpart of {@link MobilePhoneAddedEvent}: listeners
+ * handle the whole batch in one pass instead of reacting to one event per phone.
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Getter
+public class MobilePhonesAddedEvent extends ApplicationEvent {
+
+    /**
+     * The MobilePhone instances added to the system.
+     */
+    private final List<MobilePhone> mobilePhones;
+
+    /**
+     * Creates a new {@code MobilePhonesAddedEvent}.
+     *
+     * @param source the object on which the event initially occurred (never {@code null})
+     * @param mobilePhones the {@code MobilePhone}s that have been added to the system
+     */
+    public MobilePhonesAddedEvent(Object source, List<MobilePhone> mobilePhones) {
+        super(source);
+        this.mobilePhones = List.copyOf(mobilePhones);
+    }
+
+}
@@ -1,24 +1,28 @@
 package com.example.booking.factory;
 
-import com.example.booking.factory.annotation.PhoneModel;
-import com.example.booking.factory.configuration.PhoneModelConfig;
+import com.example.booking.factory.catalog.PhoneModelCatalog;
+import com.example.booking.factory.catalog.PhoneModelSpec;
+import com.example.booking.factory.configuration.PhoneModelConfigRegistry;
 import com.example.booking.entity.MobilePhone;
 import lombok.extern.slf4j.Slf4j;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Factory class for creating instances of MobilePhone.
- * Utilizes reflection to dynamically find and invoke methods in PhoneModelConfig
- * annotated with @PhoneModel, based on the requested model identifier.
+ * Looks the requested model up in the {@link PhoneModelCatalog}. Built-in models are created by their
+ * @PhoneModel creator through the generated {@link PhoneModelConfigRegistry}; models of the external
+ * catalog file, including entries that replace a built-in model, are created with the default metrics of
+ * their catalog entry, so new models need neither a code change nor a redeploy.
  * Ensures that each phone instance created has a unique identifier.
  *
- * Thread safety is guaranteed by using ConcurrentHashMap for storing phone counts.
+ * The application creates phones from id numbers allocated by the
+ * {@link com.example.booking.service.DeviceIdAllocator}, which are unique across restarts and nodes.
+ * The overloads without a number keep a per-model count in a ConcurrentHashMap, which starts over
+ * with every JVM; they are meant for tests and tools only.
  *
  * The factory design pattern is used to encapsulate the instantiation logic and keep it separate
  * from the main business logic. It allows for flexibility and scalability when new phone models are added.
@@ -36,49 +40,120 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 public class MobilePhoneFactory {
     private static final Map<String, Integer> phoneCount = new ConcurrentHashMap<>();
-    private static final Map<String, Method> phoneModels;
-
-    static {
-        var configPhoneModels = new HashMap<String, Method>();
-
-        // Reflection-based setup to map model identifiers to creator methods
-        Arrays.stream(PhoneModelConfig.class.getDeclaredMethods())
-                .filter(method -> method.isAnnotationPresent(PhoneModel.class))
-                .forEach(method -> {
-                    var annotation = method.getAnnotation(PhoneModel.class);
-                    configPhoneModels.put(annotation.value(), method);
-                });
-        phoneModels = Map.copyOf(configPhoneModels);
-    }
 
     /**
      * Creates a new instance of MobilePhone based on the specified model identifier.
-     * If the model is recognized, invokes the corresponding method annotated with @PhoneModel.
-     * Handles and logs any reflection-related exceptions during method invocation.
+     * Built-in models are created by their @PhoneModel creator, external models with the default metrics of their catalog entry.
      *
      * @param model The model identifier for which to create the phone.
      * @return A new instance of MobilePhone for the specified model, or null if the model is not supported.
      */
     public static MobilePhone createPhone(String model) {
-        var creatorModel = phoneModels.get(model);
-        if (creatorModel == null) {
+        PhoneModelSpec spec = PhoneModelCatalog.find(model);
+        if (spec == null) {
+            log.warn("Model not recognized or supported: {}", model);
+            return null;
+        }
+
+        MobilePhone phone = newPhone(spec, generateId(model));
+        log.info("Created new mobile phone instance: {}", phone);
+        return phone;
+    }
+
+    /**
+     * Creates a new instance of MobilePhone with an id number allocated by the caller.
+     *
+     * @param model    The model identifier for which to create the phone.
+     * @param sequence The id number of the phone, unique for the model.
+     * @return A new instance of MobilePhone with the id "{model}-{sequence}", or null if the model is not supported.
+     */
+    public static MobilePhone createPhone(String model, long sequence) {
+        PhoneModelSpec spec = PhoneModelCatalog.find(model);
+        if (spec == null) {
             log.warn("Model not recognized or supported: {}", model);
             return null;
         }
 
-        var id = generateId(model);
-        try {
-            MobilePhone phone = (MobilePhone) creatorModel.invoke(null, id);
-            log.info("Created new mobile phone instance: {}", phone);
-            return phone;
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            log.error("Error invoking creator method for model {}: {}", model, e.getMessage(), e);
-            Throwable cause = e.getCause();
-            if (cause != null) {
-                log.error("Underlying cause: ", cause);
-            }
+        MobilePhone phone = newPhone(spec, STR."\{model}-\{sequence}");
+        log.info("Created new mobile phone instance: {}", phone);
+        return phone;
+    }
+
+    /**
+     * Creates the given number of phones of one model.
+     * <p>
+     * The identifiers are reserved as one contiguous block with a single update of the phone count.
+     * </p>
+     *
+     * @param model The model identifier for which to create the phones.
+     * @param count The number of phones to create.
+     * @return The new phones, or an empty list if the model is not supported.
+     */
+    public static List<MobilePhone> createPhones(String model, int count) {
+        if (!isSupported(model)) {
+            log.warn("Model not recognized or supported: {}", model);
+            return List.of();
+        }
+        return createPhones(model, reserveIds(model, count), count);
+    }
+
+    /**
+     * Creates the given number of phones of one model from a range of id numbers allocated by the caller.
+     *
+     * @param model         The model identifier for which to create the phones.
+     * @param firstSequence The first id number of the range.
+     * @param count         The number of phones to create.
+     * @return The new phones, numbered {@code firstSequence} upwards, or an empty list if the model is not supported.
+     */
+    public static List<MobilePhone> createPhones(String model, long firstSequence, int count) {
+        PhoneModelSpec spec = PhoneModelCatalog.find(model);
+        if (spec == null) {
+            log.warn("Model not recognized or supported: {}", model);
+            return List.of();
+        }
+
+        List<MobilePhone> phones = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            phones.add(newPhone(spec, STR."\{model}-\{firstSequence + i}"));
+        }
+        log.info("Created {} new mobile phone instances of model {}", count, model);
+        return phones;
+    }
+
+    /**
+     * Checks whether phones of the given model can be created.
+     *
+     * @param model The model identifier.
+     * @return {@code true} if the model is supported.
+     */
+    public static boolean isSupported(String model) {
+        return PhoneModelCatalog.find(model) != null;
+    }
+
+    /**
+     * Creates one phone of a catalog entry.
+     *
+     * @param spec The catalog entry of the model.
+     * @param id   The identifier of the phone.
+     * @return The phone, created by the generated creator of a built-in model or from the catalog entry otherwise.
+     */
+    private static MobilePhone newPhone(PhoneModelSpec spec, String id) {
+        if (PhoneModelCatalog.isBuiltIn(spec)) {
+            return PhoneModelConfigRegistry.create(spec.name(), id);
         }
-        return null;
+        return new MobilePhone(id, spec.name(), spec.defaultMetrics());
+    }
+
+    /**
+     * Reserves a contiguous block of counts for a phone model.
+     *
+     * @param model The base model identifier.
+     * @param count The number of identifiers to reserve.
+     * @return The first count of the reserved block.
+     */
+    private static int reserveIds(String model, int count) {
+        int last = phoneCount.compute(model, (k, v) -> (v == null) ? count : v + count);
+        return last - count + 1;
     }
 
     /**
@@ -24,6 +24,11 @@ import java.lang.annotation.Target;
  * com.example.booking.factory.MobilePhoneFactory} to create instances of the
  * corresponding mobile phone model.
  * </p>
+ * <p>
+ * Annotated methods are collected at compile time by the
+ * {@link com.example.booking.factory.processor.PhoneModelProcessor}, which generates the creator registry
+ * used by the factory and rejects annotated methods that cannot create a phone.
+ * </p>
  *
  * @see com.example.booking.entity.MobilePhone
  * @see com.example.booking.factory.MobilePhoneFactory
@@ -0,0 +1,87 @@
+package com.example.booking.factory.catalog;
+
+import com.example.booking.factory.configuration.PhoneModelConfigRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The catalog of phone models that can be created, held as an immutable snapshot.
+ * <p>
+ * The built-in models are the {@code @PhoneModel} creators of {@link com.example.booking.factory.configuration.PhoneModelConfig},
+ * taken from the generated {@link PhoneModelConfigRegistry}. Models loaded from an external catalog file
+ * (see {@link PhoneModelCatalogLoader}) are added to them and replace built-in models of the same name.
+ * </p>
+ * <p>
+ * Every change builds a complete new snapshot and publishes it with a single volatile write, so lookups
+ * never lock, always see one consistent catalog and stay O(1) regardless of the number of models.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+public final class PhoneModelCatalog {
+
+    private static final Map<String, PhoneModelSpec> BUILT_IN = builtInModels();
+
+    private static volatile Map<String, PhoneModelSpec> snapshot = BUILT_IN;
+
+    private PhoneModelCatalog() {
+    }
+
+    /**
+     * Finds a model in the current snapshot.
+     *
+     * @param model The model name.
+     * @return The catalog entry, or {@code null} if the model is not in the catalog.
+     */
+    public static PhoneModelSpec find(String model) {
+        return model == null ? null : snapshot.get(model);
+    }
+
+    /**
+     * Checks whether a catalog entry is a built-in model that no external entry replaced.
+     * Phones of such models are created by their generated {@code @PhoneModel} creator.
+     *
+     * @param spec The catalog entry.
+     * @return {@code true} if the entry is the built-in entry of its model.
+     */
+    public static boolean isBuiltIn(PhoneModelSpec spec) {
+        return BUILT_IN.get(spec.name()) == spec;
+    }
+
+    /**
+     * Returns all models of the current snapshot.
+     *
+     * @return The catalog entries; built-in models first, in declaration order.
+     */
+    public static Collection<PhoneModelSpec> models() {
+        return snapshot.values();
+    }
+
+    /**
+     * Replaces the externally loaded models. The built-in models are kept unless an entry of the same name replaces them.
+     *
+     * @param specs The models loaded from the external catalog.
+     */
+    public static void install(List<PhoneModelSpec> specs) {
+        Map<String, PhoneModelSpec> models = new LinkedHashMap<>(BUILT_IN);
+        specs.forEach(spec -> models.put(spec.name(), spec));
+        snapshot = Collections.unmodifiableMap(models);
+        log.info("Phone model catalog now holds {} models, {} of them loaded externally", models.size(), specs.size());
+    }
+
+    private static Map<String, PhoneModelSpec> builtInModels() {
+        Map<String, PhoneModelSpec> models = new LinkedHashMap<>();
+        // The creators define the default metrics of their model; a sample phone carries them
+        PhoneModelConfigRegistry.MODELS.forEach(model -> models.put(model,
+                new PhoneModelSpec(model, PhoneModelConfigRegistry.create(model, model).getDeviceMetrics())));
+        return Collections.unmodifiableMap(models);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.booking.factory.catalog;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+
+/**
+ * Loads the external phone model catalog file into the {@link PhoneModelCatalog} and reloads it on change.
+ * <p>
+ * The file is configured with {@code booking.catalog.path}; without it only the built-in models are available.
+ * It holds a JSON array of {@link PhoneModelSpec} entries, the thresholds being optional:
+ * </p>
+ * <pre>{@code
+ * [
+ *   {"name": "Pixel 8", "defaultMetrics": {"batteryLevel": 100, "totalMemory": 8192, "freeMemory": 8192, "systemLoad": 0.01}},
+ *   {"name": "Nokia 3310", "defaultMetrics": {...}, "lowBatteryLevel": 10, "lowFreeMemoryMb": 64}
+ * ]
+ * }</pre>
+ * <p>
+ * The directory of the file is watched by a virtual thread. Every change of the file is parsed into a
+ * complete new catalog, which is then installed at once; a file that cannot be read or parsed (e.g. while
+ * it is being written) leaves the current catalog in place until the next change.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Component
+public class PhoneModelCatalogLoader {
+
+    private final Path catalogFile;
+
+    private final ObjectMapper objectMapper;
+
+    private WatchService watchService;
+
+    public PhoneModelCatalogLoader(@Value("${booking.catalog.path:}") String catalogPath, ObjectMapper objectMapper) {
+        this.catalogFile = catalogPath.isBlank() ? null : Path.of(catalogPath).toAbsolutePath();
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Loads the catalog file and starts watching it.
+     *
+     * @throws IOException if the directory of the catalog file cannot be watched.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (catalogFile == null) {
+            return;
+        }
+        reload();
+        watchService = catalogFile.getFileSystem().newWatchService();
+        catalogFile.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread.ofVirtual().name("catalog-watcher").start(this::watch);
+    }
+
+    /**
+     * Stops watching the catalog file.
+     *
+     * @throws IOException if the watch service cannot be closed.
+     */
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * Reads the catalog file and installs its models.
+     *
+     * @return {@code true} if the catalog was replaced, {@code false} if the file could not be loaded.
+     */
+    public boolean reload() {
+        try (InputStream in = Files.newInputStream(catalogFile)) {
+            List<PhoneModelSpec> specs = objectMapper.readValue(in, new TypeReference<>() {});
+            PhoneModelCatalog.install(specs);
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Cannot load phone model catalog {}, keeping the current one", catalogFile, e);
+            return false;
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= catalogFile.getFileName().equals(event.context());
+                }
+                key.reset();
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            log.debug("Stopped watching phone model catalog {}", catalogFile);
+        }
+    }
+}
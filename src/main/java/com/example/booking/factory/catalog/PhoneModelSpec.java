@@ -0,0 +1,43 @@
+package com.example.booking.factory.catalog;
+
+import com.example.booking.monitoring.SamplingCadence;
+import com.example.booking.monitoring.entity.DeviceMetrics;
+
+/**
+ * An entry of the {@link PhoneModelCatalog}: a phone model that can be created, the metrics a new
+ * phone of the model starts with, and the thresholds below which the device is watched closely.
+ *
+ * @param name            The model name, as used when creating phones.
+ * @param defaultMetrics  The metrics a new phone of this model starts with.
+ * @param lowBatteryLevel Battery level (in percent) below which a device of this model is low on battery;
+ *                        defaults to {@link SamplingCadence#LOW_BATTERY_LEVEL}.
+ * @param lowFreeMemoryMb Free memory (in MB) below which a device of this model is low on memory;
+ *                        defaults to {@link SamplingCadence#LOW_FREE_MEMORY_MB}.
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+public record PhoneModelSpec(String name, DeviceMetrics defaultMetrics, Double lowBatteryLevel, Long lowFreeMemoryMb) {
+
+    public PhoneModelSpec {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("A phone model needs a name");
+        }
+        if (defaultMetrics == null) {
+            throw new IllegalArgumentException(STR."Phone model \{name} needs default metrics");
+        }
+        lowBatteryLevel = lowBatteryLevel != null ? lowBatteryLevel : SamplingCadence.LOW_BATTERY_LEVEL;
+        lowFreeMemoryMb = lowFreeMemoryMb != null ? lowFreeMemoryMb : SamplingCadence.LOW_FREE_MEMORY_MB;
+    }
+
+    /**
+     * Creates an entry with the default thresholds.
+     *
+     * @param name           The model name.
+     * @param defaultMetrics The metrics a new phone of this model starts with.
+     */
+    public PhoneModelSpec(String name, DeviceMetrics defaultMetrics) {
+        this(name, defaultMetrics, null, null);
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.booking.factory.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Annotation processor generating the phone-model creator registry at compile time.
+ * <p>
+ * For every class declaring {@link com.example.booking.factory.annotation.PhoneModel} methods, a
+ * {@code <ClassName>Registry} is generated next to it. The registry lists the supported models, maps every
+ * model to a {@code Function<String, MobilePhone>} and creates phones through a {@code switch} of direct
+ * static calls, so the {@link com.example.booking.factory.MobilePhoneFactory} neither scans nor invokes
+ * methods reflectively.
+ * </p>
+ * <p>
+ * A misplaced annotation fails the build: annotated methods must be {@code public static}, take the phone
+ * id as their only {@code String} parameter and return a {@code MobilePhone}, and a model may be declared
+ * only once per class.
+ * </p>
+ * <p>
+ * The processor is compiled by its own execution of the compiler plugin before the rest of the sources,
+ * and it must not use preview language features, since it runs inside the compiler.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@SupportedAnnotationTypes(PhoneModelProcessor.PHONE_MODEL)
+public class PhoneModelProcessor extends AbstractProcessor {
+
+    static final String PHONE_MODEL = "com.example.booking.factory.annotation.PhoneModel";
+    private static final String MOBILE_PHONE = "com.example.booking.entity.MobilePhone";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Elements elements = processingEnv.getElementUtils();
+        TypeElement phoneModel = elements.getTypeElement(PHONE_MODEL);
+        if (phoneModel == null || annotations.isEmpty()) {
+            return false;
+        }
+
+        Map<TypeElement, Map<String, ExecutableElement>> creatorsByClass = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(phoneModel)) {
+            if (element.getKind() != ElementKind.METHOD) {
+                messager().printMessage(Diagnostic.Kind.WARNING,
+                        "@PhoneModel is only processed on creator methods; this type is not registered", element);
+                continue;
+            }
+            ExecutableElement method = (ExecutableElement) element;
+            String model = modelOf(method, phoneModel);
+            if (!isValidCreator(method, model)) {
+                continue;
+            }
+
+            Map<String, ExecutableElement> creators =
+                    creatorsByClass.computeIfAbsent((TypeElement) method.getEnclosingElement(), type -> new LinkedHashMap<>());
+            ExecutableElement previous = creators.putIfAbsent(model, method);
+            if (previous != null) {
+                messager().printMessage(Diagnostic.Kind.ERROR,
+                        "Phone model \"" + model + "\" is already created by " + previous.getSimpleName() + "()", method);
+            }
+        }
+
+        creatorsByClass.forEach(this::writeRegistry);
+        return false;
+    }
+
+    private boolean isValidCreator(ExecutableElement method, String model) {
+        Types types = processingEnv.getTypeUtils();
+        Elements elements = processingEnv.getElementUtils();
+        TypeMirror string = elements.getTypeElement(String.class.getName()).asType();
+        TypeMirror mobilePhone = elements.getTypeElement(MOBILE_PHONE).asType();
+
+        boolean valid = true;
+        if (model == null || model.isBlank()) {
+            messager().printMessage(Diagnostic.Kind.ERROR, "@PhoneModel requires a non-blank model name", method);
+            valid = false;
+        }
+        if (!method.getModifiers().containsAll(Set.of(Modifier.PUBLIC, Modifier.STATIC))) {
+            messager().printMessage(Diagnostic.Kind.ERROR, "@PhoneModel methods must be public static", method);
+            valid = false;
+        }
+        if (method.getParameters().size() != 1 || !types.isSameType(method.getParameters().get(0).asType(), string)) {
+            messager().printMessage(Diagnostic.Kind.ERROR, "@PhoneModel methods must take the phone id as their only String parameter", method);
+            valid = false;
+        }
+        if (!types.isAssignable(method.getReturnType(), mobilePhone)) {
+            messager().printMessage(Diagnostic.Kind.ERROR, "@PhoneModel methods must return a MobilePhone", method);
+            valid = false;
+        }
+        return valid;
+    }
+
+    private static String modelOf(ExecutableElement method, TypeElement phoneModel) {
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            if (!mirror.getAnnotationType().asElement().equals(phoneModel)) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("value")) {
+                    return (String) entry.getValue().getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private void writeRegistry(TypeElement declaringClass, Map<String, ExecutableElement> creators) {
+        Elements elements = processingEnv.getElementUtils();
+        PackageElement pkg = elements.getPackageOf(declaringClass);
+        String packageName = pkg.getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(declaringClass).toString();
+        String registryName = (pkg.isUnnamed() ? binaryName : binaryName.substring(packageName.length() + 1)).replace('$', '_') + "Registry";
+        String owner = declaringClass.getQualifiedName().toString();
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(
+                    pkg.isUnnamed() ? registryName : packageName + "." + registryName, declaringClass);
+            try (Writer writer = file.openWriter(); PrintWriter out = new PrintWriter(writer)) {
+                if (!pkg.isUnnamed()) {
+                    out.println("package " + packageName + ";");
+                    out.println();
+                }
+                out.println("/**");
+                out.println(" * Phone-model creators declared by {@link " + owner + "}; generated at compile time.");
+                out.println(" */");
+                out.println("@javax.annotation.processing.Generated(\"" + PhoneModelProcessor.class.getName() + "\")");
+                out.println("public final class " + registryName + " {");
+                out.println();
+                out.println("    /** The supported models, in declaration order. */");
+                out.println("    public static final java.util.List<String> MODELS = java.util.List.of(");
+                out.println(String.join(",\n", creators.keySet().stream().map(model -> "            " + literal(model)).toList()) + ");");
+                out.println();
+                out.println("    private static final java.util.Map<String, java.util.function.Function<String, " + MOBILE_PHONE + ">> CREATORS = java.util.Map.ofEntries(");
+                out.println(String.join(",\n", creators.entrySet().stream()
+                        .map(entry -> "            java.util.Map.entry(" + literal(entry.getKey()) + ", " + owner + "::" + entry.getValue().getSimpleName() + ")")
+                        .toList()) + ");");
+                out.println();
+                out.println("    private " + registryName + "() {");
+                out.println("    }");
+                out.println();
+                out.println("    /** Returns the creator function of every supported model. */");
+                out.println("    public static java.util.Map<String, java.util.function.Function<String, " + MOBILE_PHONE + ">> creators() {");
+                out.println("        return CREATORS;");
+                out.println("    }");
+                out.println();
+                out.println("    /** Returns whether phones of the given model can be created. */");
+                out.println("    public static boolean isSupported(String model) {");
+                out.println("        return CREATORS.containsKey(model);");
+                out.println("    }");
+                out.println();
+                out.println("    /** Creates a phone of the given model with a direct call of its creator, or returns null for an unsupported model. */");
+                out.println("    public static " + MOBILE_PHONE + " create(String model, String id) {");
+                out.println("        return switch (model) {");
+                creators.forEach((model, method) ->
+                        out.println("            case " + literal(model) + " -> " + owner + "." + method.getSimpleName() + "(id);"));
+                out.println("            default -> null;");
+                out.println("        };");
+                out.println("    }");
+                out.println("}");
+            }
+        } catch (IOException e) {
+            messager().printMessage(Diagnostic.Kind.ERROR, "Cannot write " + registryName + ": " + e.getMessage(), declaringClass);
+        }
+    }
+
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> literal.append("\\\"");
+                case '\\' -> literal.append("\\\\");
+                case '\n' -> literal.append("\\n");
+                case '\r' -> literal.append("\\r");
+                case '\t' -> literal.append("\\t");
+                default -> literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private Messager messager() {
+        return processingEnv.getMessager();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.booking.metrics;
+
+import com.example.booking.service.BookingStrategy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation of the booking hot paths.
+ * <p>
+ * All timers are registered once and looked up without building meter ids, so recording an operation
+ * costs one {@code System.nanoTime()} pair and a histogram increment. The timers publish percentile
+ * histograms (aggregated on the Prometheus side) instead of client-side percentiles.
+ * </p>
+ *
+ * <ul>
+ *     <li>{@code booking.book} and {@code booking.return}, tagged by {@code outcome}.</li>
+ *     <li>{@code booking.strategy}, tagged by {@code strategy}, {@code operation} and {@code outcome}.</li>
+ * </ul>
+ * <p>
+ * The {@code outcome} tag keeps its established values for completed calls ({@code booked}, {@code returned}
+ * or {@code success}, and {@code rejected} or {@code failure}); calls that threw are tagged {@code error}.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class BookingMetrics {
+
+    private final MeterRegistry registry;
+
+    private final Timer[] book;
+    private final Timer[] returned;
+
+    private final ConcurrentHashMap<Class<?>, StrategyTimers> strategyTimers = new ConcurrentHashMap<>();
+
+    public BookingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.book = timers("booking.book", "booked", "rejected");
+        this.returned = timers("booking.return", "returned", "rejected");
+    }
+
+    /**
+     * Records a {@code bookPhone} call of the booking manager.
+     *
+     * @param startNanos The {@link System#nanoTime()} taken when the call started.
+     * @param outcome    Whether the phone was booked, refused, or the call threw.
+     */
+    public void recordBooking(long startNanos, Outcome outcome) {
+        record(book, startNanos, outcome);
+    }
+
+    /**
+     * Records a {@code returnPhone} call of the booking manager.
+     *
+     * @param startNanos The {@link System#nanoTime()} taken when the call started.
+     * @param outcome    Whether the phone was returned, refused, or the call threw.
+     */
+    public void recordReturn(long startNanos, Outcome outcome) {
+        record(returned, startNanos, outcome);
+    }
+
+    /**
+     * Records a {@code bookPhone} call of a booking strategy.
+     *
+     * @param strategy   The strategy that handled the call.
+     * @param startNanos The {@link System#nanoTime()} taken when the call started.
+     * @param outcome    Whether the strategy booked the phone, refused, or threw.
+     */
+    public void recordStrategyBooking(BookingStrategy strategy, long startNanos, Outcome outcome) {
+        record(strategyTimers(strategy).book(), startNanos, outcome);
+    }
+
+    /**
+     * Records a {@code returnPhone} call of a booking strategy.
+     *
+     * @param strategy   The strategy that handled the call.
+     * @param startNanos The {@link System#nanoTime()} taken when the call started.
+     * @param outcome    Whether the strategy returned the phone, refused, or threw.
+     */
+    public void recordStrategyReturn(BookingStrategy strategy, long startNanos, Outcome outcome) {
+        record(strategyTimers(strategy).returned(), startNanos, outcome);
+    }
+
+    private static void record(Timer[] timers, long startNanos, Outcome outcome) {
+        timers[outcome.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private StrategyTimers strategyTimers(BookingStrategy strategy) {
+        return strategyTimers.computeIfAbsent(strategy.getClass(), type -> {
+            String name = type.getSimpleName();
+            return new StrategyTimers(
+                    timers("booking.strategy", "success", "failure", "strategy", name, "operation", "book"),
+                    timers("booking.strategy", "success", "failure", "strategy", name, "operation", "return"));
+        });
+    }
+
+    // One timer per Outcome, indexed by its ordinal
+    private Timer[] timers(String name, String success, String rejected, String... tags) {
+        Timer[] timers = new Timer[Outcome.values().length];
+        timers[Outcome.SUCCESS.ordinal()] = timer(name, success, tags);
+        timers[Outcome.REJECTED.ordinal()] = timer(name, rejected, tags);
+        timers[Outcome.ERROR.ordinal()] = timer(name, "error", tags);
+        return timers;
+    }
+
+    private Timer timer(String name, String outcome, String... tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(10_000))
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(registry);
+    }
+
+    private record StrategyTimers(Timer[] book, Timer[] returned) {}
+}
@@ -0,0 +1,56 @@
+package com.example.booking.metrics;
+
+import com.example.booking.monitoring.DeviceSamplingQueue;
+import com.example.booking.service.BookingManager;
+import com.example.booking.service.DeviceMonitoringService;
+import com.example.booking.service.MonitorRegistrationQueue;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers gauges describing the size of the fleet and the depth of its queues.
+ *
+ * <ul>
+ *     <li>{@code fleet.devices} - the number of monitored devices.</li>
+ *     <li>{@code fleet.bookings.active} - the number of active bookings.</li>
+ *     <li>{@code monitoring.queue.depth} - entries waiting in a monitoring queue, tagged by {@code queue}.</li>
+ * </ul>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class FleetMetricsBinder implements MeterBinder {
+
+    private final DeviceMonitoringService deviceMonitoringService;
+    private final BookingManager bookingManager;
+    private final DeviceSamplingQueue samplingQueue;
+    private final MonitorRegistrationQueue registrationQueue;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("fleet.devices", deviceMonitoringService, DeviceMonitoringService::getMonitoredDeviceCount)
+                .description("Number of monitored devices")
+                .strongReference(true)
+                .register(registry);
+        Gauge.builder("fleet.bookings.active", bookingManager, manager -> manager.getBookings().size())
+                .description("Number of active bookings")
+                .strongReference(true)
+                .register(registry);
+        Gauge.builder("monitoring.queue.depth", samplingQueue, DeviceSamplingQueue::size)
+                .tag("queue", "sampling")
+                .description("Entries waiting in a monitoring queue")
+                .strongReference(true)
+                .register(registry);
+        Gauge.builder("monitoring.queue.depth", registrationQueue, MonitorRegistrationQueue::size)
+                .tag("queue", "registration")
+                .description("Entries waiting in a monitoring queue")
+                .strongReference(true)
+                .register(registry);
+    }
+}
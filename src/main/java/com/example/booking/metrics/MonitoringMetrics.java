@@ -0,0 +1,74 @@
+package com.example.booking.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation of the scheduled monitoring sweeps.
+ * <p>
+ * Every sweep records its duration in {@code monitoring.sweep}, tagged by {@code sweep} and {@code outcome}
+ * ({@code success} or {@code error}), and counts an overrun in {@code monitoring.sweep.overrun}, tagged by
+ * {@code sweep}, when it took longer than its scheduling period.
+ * The monitoring of single devices is timed by {@link com.example.booking.monitoring.DeviceMonitor} itself.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class MonitoringMetrics {
+
+    private final MeterRegistry registry;
+
+    private final ConcurrentHashMap<String, SweepMeters> sweepMeters = new ConcurrentHashMap<>();
+
+    public MonitoringMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Records one run of a scheduled sweep.
+     *
+     * @param sweep        The name of the sweep.
+     * @param startNanos   The {@link System#nanoTime()} taken when the sweep started.
+     * @param periodMillis The scheduling period of the sweep in milliseconds.
+     * @param failed       Whether the sweep ended with an exception.
+     */
+    public void recordSweep(String sweep, long startNanos, long periodMillis, boolean failed) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        SweepMeters meters = sweepMeters.computeIfAbsent(sweep, this::createSweepMeters);
+        (failed ? meters.errors() : meters.duration()).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (elapsedNanos > TimeUnit.MILLISECONDS.toNanos(periodMillis)) {
+            meters.overruns().increment();
+        }
+    }
+
+    private SweepMeters createSweepMeters(String sweep) {
+        return new SweepMeters(
+                sweepTimer(sweep, "success"),
+                sweepTimer(sweep, "error"),
+                Counter.builder("monitoring.sweep.overrun")
+                        .tag("sweep", sweep)
+                        .description("Sweeps that took longer than their scheduling period")
+                        .register(registry));
+    }
+
+    private Timer sweepTimer(String sweep, String outcome) {
+        return Timer.builder("monitoring.sweep")
+                .tag("sweep", sweep)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(10_000))
+                .maximumExpectedValue(Duration.ofSeconds(60))
+                .register(registry);
+    }
+
+    private record SweepMeters(Timer duration, Timer errors, Counter overruns) {}
+}
@@ -0,0 +1,40 @@
+package com.example.booking.metrics;
+
+/**
+ * The outcome of a timed operation, recorded as the {@code outcome} tag of its timer.
+ * <p>
+ * Timed operations start as {@link #ERROR} and record their outcome in a {@code finally} block, so a call
+ * that throws is timed as well instead of disappearing from the timer.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+public enum Outcome {
+
+    /**
+     * The operation did what was asked.
+     */
+    SUCCESS,
+
+    /**
+     * The operation completed but was refused, e.g. a booking of a phone that is not available.
+     */
+    REJECTED,
+
+    /**
+     * The operation threw an exception.
+     */
+    ERROR;
+
+    /**
+     * Returns the outcome of an operation that completed.
+     *
+     * @param success Whether the operation succeeded.
+     * @return {@link #SUCCESS} or {@link #REJECTED}.
+     */
+    public static Outcome of(boolean success) {
+        return success ? SUCCESS : REJECTED;
+    }
+}
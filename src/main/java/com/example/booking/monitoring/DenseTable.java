@@ -0,0 +1,152 @@
+package com.example.booking.monitoring;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Thread-safe table of values indexed by a dense, non-negative {@code int}, such as a device handle.
+ * <p>
+ * The values live in fixed-size chunks of {@link AtomicReferenceArray}s, so a lookup is two array reads,
+ * with neither hashing nor boxing, and no entry object is allocated per value. Chunks are added when an
+ * index beyond the current capacity is first written; existing chunks are never copied, so readers are
+ * never blocked. Iteration visits the values in index order.
+ * </p>
+ *
+ * @param <T> The type of the values.
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+public final class DenseTable<T> {
+
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final ReentrantLock growLock = new ReentrantLock();
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile AtomicReferenceArray<T>[] chunks = newChunks(1);
+
+    /**
+     * Returns the value at an index.
+     *
+     * @param index The index.
+     * @return The value, or {@code null} if there is none.
+     */
+    public T get(int index) {
+        AtomicReferenceArray<T>[] current = chunks;
+        int chunk = index >>> CHUNK_BITS;
+        return chunk < current.length ? current[chunk].get(index & CHUNK_MASK) : null;
+    }
+
+    /**
+     * Stores a value at an index.
+     *
+     * @param index The index.
+     * @param value The value, or {@code null} to remove the current one.
+     * @return The previous value, or {@code null} if there was none.
+     */
+    public T set(int index, T value) {
+        T previous = chunkFor(index).getAndSet(index & CHUNK_MASK, value);
+        countChange(previous, value);
+        return previous;
+    }
+
+    /**
+     * Replaces the value at an index if it is the expected one.
+     *
+     * @param index    The index.
+     * @param expected The expected current value, {@code null} for none.
+     * @param value    The new value, or {@code null} to remove the current one.
+     * @return {@code true} if the value was replaced.
+     */
+    public boolean compareAndSet(int index, T expected, T value) {
+        if (!chunkFor(index).compareAndSet(index & CHUNK_MASK, expected, value)) {
+            return false;
+        }
+        countChange(expected, value);
+        return true;
+    }
+
+    /**
+     * Returns the number of indexes holding a value.
+     *
+     * @return The number of values.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Returns the number of indexes the table has room for without growing; every index holding a value is below it.
+     *
+     * @return The current capacity.
+     */
+    public int capacity() {
+        return chunks.length << CHUNK_BITS;
+    }
+
+    /**
+     * Performs an action for every value, in index order.
+     * Values stored or removed during the iteration may or may not be visited.
+     *
+     * @param action The action to perform.
+     */
+    public void forEach(Consumer<? super T> action) {
+        for (AtomicReferenceArray<T> chunk : chunks) {
+            for (int slot = 0; slot < CHUNK_SIZE; slot++) {
+                T value = chunk.get(slot);
+                if (value != null) {
+                    action.accept(value);
+                }
+            }
+        }
+    }
+
+    private void countChange(T previous, T value) {
+        if (previous == null && value != null) {
+            size.incrementAndGet();
+        } else if (previous != null && value == null) {
+            size.decrementAndGet();
+        }
+    }
+
+    private AtomicReferenceArray<T> chunkFor(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int chunk = index >>> CHUNK_BITS;
+        AtomicReferenceArray<T>[] current = chunks;
+        if (chunk < current.length) {
+            return current[chunk];
+        }
+
+        growLock.lock();
+        try {
+            current = chunks;
+            if (chunk >= current.length) {
+                AtomicReferenceArray<T>[] grown = Arrays.copyOf(current, Math.max(chunk + 1, current.length * 2));
+                for (int i = current.length; i < grown.length; i++) {
+                    grown[i] = new AtomicReferenceArray<>(CHUNK_SIZE);
+                }
+                chunks = grown;
+                current = grown;
+            }
+            return current[chunk];
+        } finally {
+            growLock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> AtomicReferenceArray<T>[] newChunks(int count) {
+        AtomicReferenceArray<T>[] chunks = (AtomicReferenceArray<T>[]) new AtomicReferenceArray[count];
+        for (int i = 0; i < count; i++) {
+            chunks[i] = new AtomicReferenceArray<>(CHUNK_SIZE);
+        }
+        return chunks;
+    }
+}
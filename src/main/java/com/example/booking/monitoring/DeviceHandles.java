@@ -0,0 +1,63 @@
+package com.example.booking.monitoring;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapping between the string ids of devices and dense {@code int} handles, one per application context.
+ * <p>
+ * String ids such as {@code "Samsung Galaxy S9-1234"} are what the API and the database use. Inside the
+ * process, a device is registered once and then addressed by its handle: the monitor registry, the status
+ * cache, the sampling queue, the task results, the booking store and the pending metrics are {@link DenseTable}s
+ * indexed by handle, so the per-device state needs no hash map entry and no string hashing or comparison. Only requests and events arriving with a string id
+ * are translated, once, at the edge.
+ * </p>
+ * <p>
+ * Handles are never reused, as devices are only ever added to the fleet. The mapping is a bean rather than
+ * global state, so it lives and dies with the monitoring service, and every test or benchmark that builds its
+ * own service starts from handle 0.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class DeviceHandles {
+
+    /**
+     * The handle {@link #handleOf(String)} returns for a device that was never registered.
+     */
+    public static final int UNKNOWN = StringDictionary.ABSENT;
+
+    private final StringDictionary ids = new StringDictionary();
+
+    /**
+     * Returns the handle of a device, registering the device if it has none yet.
+     *
+     * @param deviceId The string id of the device.
+     * @return The handle of the device.
+     */
+    public int register(String deviceId) {
+        return ids.encode(deviceId);
+    }
+
+    /**
+     * Returns the handle of a registered device.
+     *
+     * @param deviceId The string id of the device.
+     * @return The handle, or {@link #UNKNOWN} if the device was never registered.
+     */
+    public int handleOf(String deviceId) {
+        return ids.lookup(deviceId);
+    }
+
+    /**
+     * Returns the string id of a device.
+     *
+     * @param handle The handle of the device.
+     * @return The string id, or {@code null} if the handle was never assigned.
+     */
+    public String idOf(int handle) {
+        return ids.decode(handle);
+    }
+}
@@ -3,19 +3,35 @@ package com.example.booking.monitoring;
 import com.example.booking.monitoring.entity.DeviceContext;
 import com.example.booking.monitoring.entity.DeviceMetrics;
 import com.example.booking.monitoring.tasks.MonitoringTask;
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manages and executes monitoring tasks for a single device.
  * <p>
  * This class is responsible for orchestrating the execution of a collection of monitoring tasks,
  * each of which performs checks on various aspects of a device's state, such as battery level or memory usage.
+ * The tasks are shared, stateless singletons; their results live in the
+ * {@link MonitoringResultTable}, so a monitor only owns its current {@link DeviceContext}.
+ * </p>
+ * <p>
+ * Monitors are not Spring beans, so their timers ({@code monitoring.device} for a whole run and
+ * {@code monitoring.task}, tagged by {@code task}, for single checks) are registered once in the
+ * global registry, which Spring Boot backs with the application's registries.
+ * </p>
+ * <p>
+ * The monitor also keeps the model of its device, so the status of the fleet can be projected
+ * from the monitors alone without loading any phone entity. The model is held as its
+ * {@link ModelDictionary} code, and the device is addressed by its {@link DeviceHandles} handle;
+ * the creator of the monitor obtains both beforehand.
  * </p>
  *
  * @author Milos Holclajtner
@@ -24,10 +40,26 @@ import java.util.concurrent.StructuredTaskScope;
  */
 @Slf4j
 @Getter
-@AllArgsConstructor
 public class DeviceMonitor {
-    private DeviceContext context;
+    private static final Timer MONITORING_TIMER = monitoringTimer("success");
+    private static final Timer MONITORING_ERROR_TIMER = monitoringTimer("error");
+    private static final ConcurrentHashMap<String, TaskTimers> TASK_TIMERS = new ConcurrentHashMap<>();
+
+    private volatile DeviceContext context;
     private final List<MonitoringTask> tasks;
+    private final int handle;
+    private final int modelCode;
+
+    public DeviceMonitor(DeviceContext context, List<MonitoringTask> tasks, int modelCode, int handle) {
+        this.context = context;
+        this.tasks = tasks;
+        this.handle = handle;
+        this.modelCode = modelCode;
+    }
+
+    public DeviceMonitor(DeviceContext context, List<MonitoringTask> tasks, int handle) {
+        this(context, tasks, ModelDictionary.NO_MODEL, handle);
+    }
 
     /**
      * Starts the execution of monitoring tasks for the device in parallel.
@@ -38,37 +70,74 @@ public class DeviceMonitor {
      * </p>
      */
     public void startMonitoring() {
+        DeviceContext snapshot = context; // all tasks check the same snapshot even if the context is swapped meanwhile
+        long start = System.nanoTime();
+        boolean failed = true;
         try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
             tasks.forEach(task -> scope.fork(() -> {
-                task.performCheck(context);
+                TaskTimers taskTimers = TASK_TIMERS.computeIfAbsent(task.getName(), DeviceMonitor::taskTimers);
+                long taskStart = System.nanoTime();
+                boolean taskFailed = true;
+                try {
+                    task.performCheck(handle, snapshot);
+                    taskFailed = false;
+                } finally {
+                    (taskFailed ? taskTimers.error() : taskTimers.success())
+                            .record(System.nanoTime() - taskStart, TimeUnit.NANOSECONDS);
+                }
                 return null;
             }));
             scope.join(); // Waits for all tasks to complete
             scope.throwIfFailed(); // Throws an exception if any tasks failed
+            failed = false;
         } catch (InterruptedException | ExecutionException e) {
             // Handle exceptions, possibly log them, or rethrow if needed
             Thread.currentThread().interrupt();
-            log.error(STR."Monitoring tasks for device \{context.deviceId()} were interrupted or failed: \{e.getMessage()}");
-            throw new RuntimeException(STR."Monitoring tasks for device \{context.deviceId()} were interrupted or failed", e);
+            log.error(STR."Monitoring tasks for device \{snapshot.deviceId()} were interrupted or failed: \{e.getMessage()}");
+            throw new RuntimeException(STR."Monitoring tasks for device \{snapshot.deviceId()} were interrupted or failed", e);
+        } finally {
+            (failed ? MONITORING_ERROR_TIMER : MONITORING_TIMER).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
 
+    private static Timer monitoringTimer(String outcome) {
+        return Timer.builder("monitoring.device")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry);
+    }
+
+    private static TaskTimers taskTimers(String taskName) {
+        return new TaskTimers(taskTimer(taskName, "success"), taskTimer(taskName, "error"));
+    }
+
+    private static Timer taskTimer(String taskName, String outcome) {
+        return Timer.builder("monitoring.task")
+                .tag("task", taskName)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry);
+    }
+
+    private record TaskTimers(Timer success, Timer error) {}
+
     public String getStatus() {
+        String deviceId = context.deviceId();
         StringBuilder statusBuilder = new StringBuilder();
-        statusBuilder.append("Device ID: ").append(context.deviceId()).append("\n");
+        statusBuilder.append("Device ID: ").append(deviceId).append("\n");
 
         for (MonitoringTask task : tasks) {
             try {
-                String taskStatus = task.getStatus();
+                String taskStatus = task.getStatus(handle);
                 if (taskStatus == null || taskStatus.isEmpty()) {
-                    log.warn(STR."Task returned null or empty status for device: \{context.deviceId()}");
+                    log.warn(STR."Task returned null or empty status for device: \{deviceId}");
                 } else {
                     // Appending the task status and new line character in one go for efficiency
                     statusBuilder.append(taskStatus).append("\n");
                 }
             } catch (Exception e) {
                 // Log the error with more contextual information, such as device ID and task name
-                log.error(STR."Exception while getting status from task: \{task.getName()} for device: \{context.deviceId()}", e);
+                log.error(STR."Exception while getting status from task: \{task.getName()} for device: \{deviceId}", e);
             }
         }
 
@@ -76,8 +145,20 @@ public class DeviceMonitor {
     }
 
     public void updateMetrics(DeviceMetrics newMetrics) {
-        // Assuming DeviceContext is mutable. If it's a record, you'll need to replace it entirely.
+        // DeviceContext is an immutable record, so it has to be replaced entirely.
         this.context = new DeviceContext(this.context.deviceId(), newMetrics);
-        // If you have tasks that depend on the latest metrics, you might need to update them as well.
+    }
+
+    /**
+     * Replaces the context of this monitor with an already built one.
+     * <p>
+     * The tasks are stateless, so swapping the context is all that is needed for the next
+     * {@link #startMonitoring()} call to check the new metrics.
+     * </p>
+     *
+     * @param newContext The new context; it must describe the same device.
+     */
+    public void updateContext(DeviceContext newContext) {
+        this.context = newContext;
     }
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.example.booking.monitoring;
+
+import com.example.booking.entity.event.BookingChangedEvent;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single due-time priority queue that schedules the sampling of every monitored device.
+ * <p>
+ * Each registered device has exactly one current {@link ScheduledSample} entry ordered by its next due time.
+ * The scheduler polls only the entries that are due and reschedules them with the interval chosen by
+ * {@link SamplingCadence}; a steady-state reschedule reuses the polled entry and allocates nothing.
+ * </p>
+ * <p>
+ * When a device is booked or returned its entry is superseded by a new one that is due immediately,
+ * so the device switches to its new cadence without waiting for the old, possibly long, interval.
+ * A superseded entry stays in the queue until it becomes due and is then silently dropped.
+ * </p>
+ * <p>
+ * Devices are addressed by their {@link DeviceHandles} handle, and the current entries are kept in a
+ * {@link DenseTable}, so checking whether a polled entry is still current is a plain array read.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class DeviceSamplingQueue {
+
+    private final DeviceHandles deviceHandles;
+
+    private final DelayQueue<ScheduledSample> queue = new DelayQueue<>();
+
+    // The current entry for every registered device; entries not in this table are stale
+    private final DenseTable<ScheduledSample> current = new DenseTable<>();
+
+    /**
+     * Registers a device for sampling. The first sample is due immediately.
+     * Registering an already registered device has no effect.
+     *
+     * @param handle The handle of the device.
+     */
+    public void register(int handle) {
+        ScheduledSample sample = new ScheduledSample(handle, System.nanoTime());
+        if (current.compareAndSet(handle, null, sample)) {
+            queue.offer(sample);
+        }
+    }
+
+    /**
+     * Stops sampling a device. Its queued entry becomes stale and is dropped when due.
+     *
+     * @param handle The handle of the device.
+     */
+    public void unregister(int handle) {
+        current.set(handle, null);
+    }
+
+    /**
+     * Makes a registered device due immediately, superseding its current entry.
+     *
+     * @param handle The handle of the device.
+     */
+    public void expedite(int handle) {
+        ScheduledSample previous;
+        while ((previous = current.get(handle)) != null) {
+            ScheduledSample sample = new ScheduledSample(handle, System.nanoTime());
+            if (current.compareAndSet(handle, previous, sample)) {
+                queue.offer(sample);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Retrieves and removes the next entry that is due, skipping stale entries.
+     *
+     * @return The next due entry, or {@code null} if no device is due yet.
+     */
+    public ScheduledSample pollDue() {
+        ScheduledSample sample;
+        while ((sample = queue.poll()) != null) {
+            if (current.get(sample.getHandle()) == sample) {
+                return sample;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Puts a polled entry back into the queue, due after the given interval.
+     * Entries that were superseded or unregistered in the meantime are dropped.
+     *
+     * @param sample         The entry previously returned by {@link #pollDue()}.
+     * @param intervalMillis The delay in milliseconds until the device is due again.
+     */
+    public void reschedule(ScheduledSample sample, long intervalMillis) {
+        if (current.get(sample.getHandle()) != sample) {
+            return;
+        }
+        sample.dueAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        queue.offer(sample);
+    }
+
+    /**
+     * Returns the number of entries currently queued, including stale ones.
+     *
+     * @return The queue depth.
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * Moves a device to its new cadence as soon as it is booked or returned.
+     *
+     * @param event The event published when the booking state of a device changes.
+     */
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        int handle = deviceHandles.handleOf(event.getDeviceId());
+        if (handle != DeviceHandles.UNKNOWN) {
+            expedite(handle);
+        }
+    }
+
+    /**
+     * A queued sampling slot of a single device.
+     * Only the queue mutates the due time, and only while the entry is not queued.
+     */
+    public static final class ScheduledSample implements Delayed {
+
+        @Getter private final int handle;
+        private volatile long dueAtNanos;
+
+        private ScheduledSample(int handle, long dueAtNanos) {
+            this.handle = handle;
+            this.dueAtNanos = dueAtNanos;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof ScheduledSample sample) {
+                return Long.signum(dueAtNanos - sample.dueAtNanos); // nanoTime values must be compared by difference
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.booking.monitoring;
+
+import com.example.booking.entity.event.BookingChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Versioned cache of the serialized status of every monitored device.
+ * <p>
+ * Every change of a device's metrics or booking state assigns the device the next value of a single,
+ * fleet-wide version counter. The serialized JSON of a device is cached together with the version it was
+ * produced for and is only rebuilt once the device's version moved on. Because versions are taken from one
+ * monotonic counter, the current fleet version identifies the state of the whole fleet (usable as an ETag),
+ * and clients can ask for just the devices whose version is greater than the one they saw last.
+ * </p>
+ * <p>
+ * A new version is assigned to the device before it is published as the fleet version, so a reader that
+ * observed fleet version {@code V} can rely on every change up to {@code V} being visible on its device.
+ * </p>
+ * <p>
+ * Devices are addressed by their {@link DeviceHandles} handle; the entries live in a {@link DenseTable}.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class DeviceStatusCache {
+
+    private final DeviceHandles deviceHandles;
+
+    private volatile long fleetVersion;
+
+    private final DenseTable<Entry> entries = new DenseTable<>();
+
+    /**
+     * Produces the serialized status of a device for a given version.
+     */
+    @FunctionalInterface
+    public interface StatusSerializer {
+
+        /**
+         * Serializes the current status of the device.
+         *
+         * @param version The version the serialized status will be cached for.
+         * @return The serialized status.
+         * @throws IOException if serialization fails.
+         */
+        byte[] serialize(long version) throws IOException;
+    }
+
+    /**
+     * Records that the status of a device changed, assigning it a new version.
+     *
+     * @param handle The handle of the device.
+     * @return The new version of the device.
+     */
+    public long markChanged(int handle) {
+        Entry entry = entryOf(handle);
+        synchronized (this) {
+            long version = fleetVersion + 1;
+            entry.version = version;
+            fleetVersion = version; // published last, see the class documentation
+            return version;
+        }
+    }
+
+    /**
+     * Returns the current fleet version, i.e. the version of the most recent change of any device.
+     *
+     * @return The current fleet version.
+     */
+    public long getFleetVersion() {
+        return fleetVersion;
+    }
+
+    /**
+     * Returns the serialized status of a device if it changed after the given version.
+     * <p>
+     * The cached bytes are returned when they were produced for the device's current version;
+     * otherwise the serializer is invoked and its result cached. The version is read before
+     * serializing, so a change that races with serialization only causes one more rebuild later.
+     * </p>
+     * <p>
+     * A device that has no version yet is being added and is skipped; reading never changes a version,
+     * so the fleet version a client received stays current until a device actually changes.
+     * </p>
+     *
+     * @param handle       The handle of the device.
+     * @param sinceVersion Devices whose version is not greater than this are skipped.
+     * @param serializer   Builds the serialized status when the cached one is outdated.
+     * @return The serialized status, or {@code null} if the device did not change after {@code sinceVersion}.
+     * @throws IOException if serialization fails.
+     */
+    public byte[] serializedSince(int handle, long sinceVersion, StatusSerializer serializer) throws IOException {
+        Entry entry = entries.get(handle);
+        if (entry == null) {
+            return null;
+        }
+
+        long version = entry.version;
+        if (version <= sinceVersion) {
+            return null;
+        }
+
+        Snapshot snapshot = entry.snapshot;
+        if (snapshot != null && snapshot.version() == version) {
+            return snapshot.json();
+        }
+
+        byte[] json = serializer.serialize(version);
+        entry.snapshot = new Snapshot(version, json);
+        return json;
+    }
+
+    /**
+     * Removes a device from the cache. The fleet version is bumped so cached fleet responses become stale.
+     *
+     * @param handle The handle of the device.
+     */
+    public void remove(int handle) {
+        entries.set(handle, null);
+        synchronized (this) {
+            fleetVersion++;
+        }
+    }
+
+    /**
+     * Bumps the version of a device as soon as it is booked or returned.
+     *
+     * @param event The event published when the booking state of a device changes.
+     */
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        int handle = deviceHandles.handleOf(event.getDeviceId());
+        if (handle != DeviceHandles.UNKNOWN) {
+            markChanged(handle);
+        }
+    }
+
+    private Entry entryOf(int handle) {
+        Entry entry;
+        while ((entry = entries.get(handle)) == null) {
+            entries.compareAndSet(handle, null, new Entry());
+        }
+        return entry;
+    }
+
+    private static final class Entry {
+        private volatile long version;
+        private volatile Snapshot snapshot;
+    }
+
+    private record Snapshot(long version, byte[] json) {}
+}
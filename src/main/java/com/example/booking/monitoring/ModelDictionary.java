@@ -0,0 +1,56 @@
+package com.example.booking.monitoring;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Dictionary of the phone model names of the fleet.
+ * <p>
+ * A fleet has hundreds of thousands of phones but only a handful of models, so monitors keep a small
+ * {@code int} code instead of a reference to their own copy of the name, and the phones held by the
+ * {@link com.example.booking.service.MobilePhoneCache} share the canonical name instance.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class ModelDictionary {
+
+    /**
+     * The code of an unknown model.
+     */
+    public static final int NO_MODEL = StringDictionary.ABSENT;
+
+    private final StringDictionary models = new StringDictionary();
+
+    /**
+     * Returns the code of a model name, assigning one to a new model.
+     *
+     * @param model The model name, may be {@code null}.
+     * @return The code of the model, or {@link #NO_MODEL} for {@code null}.
+     */
+    public int codeOf(String model) {
+        return model == null ? NO_MODEL : models.encode(model);
+    }
+
+    /**
+     * Returns the model name of a code.
+     *
+     * @param code The code of the model.
+     * @return The canonical model name, or {@code null} for {@link #NO_MODEL}.
+     */
+    public String nameOf(int code) {
+        return models.decode(code);
+    }
+
+    /**
+     * Returns the canonical instance of a model name.
+     *
+     * @param model The model name, may be {@code null}.
+     * @return The equal, shared instance of the name, or {@code null}.
+     */
+    public String canonical(String model) {
+        return nameOf(codeOf(model));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.booking.monitoring;
+
+import com.example.booking.monitoring.entity.DeviceMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shared, thread-safe table holding the results of the monitoring tasks for every device.
+ * <p>
+ * Monitoring tasks are stateless singletons, so they record what they observed here instead of in
+ * instance fields. Every task registers once, when it is created, and gets a slot: a {@link DenseTable}
+ * indexed by the {@link DeviceHandles} handle of the device. A result therefore costs one array element
+ * per device and task, with no hash map entry and no string key. Each element holds the
+ * {@link DeviceMetrics} snapshot the task last checked; because the snapshot is an immutable record that
+ * already exists in the device context, recording a result does not allocate.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class MonitoringResultTable {
+
+    private final StringDictionary taskNames = new StringDictionary();
+    private final DenseTable<DenseTable<DeviceMetrics>> results = new DenseTable<>();
+
+    /**
+     * Registers a task, returning the slot it records its results in.
+     * Registering the same name again returns the same slot.
+     *
+     * @param taskName The name of the task.
+     * @return The slot of the task.
+     */
+    public int register(String taskName) {
+        int slot = taskNames.encode(taskName);
+        results.compareAndSet(slot, null, new DenseTable<>());
+        return slot;
+    }
+
+    /**
+     * Records the metrics a task observed during its last check of a device.
+     *
+     * @param slot     The slot of the task that performed the check.
+     * @param handle   The handle of the checked device.
+     * @param observed The metrics snapshot the task checked.
+     */
+    public void record(int slot, int handle, DeviceMetrics observed) {
+        results.get(slot).set(handle, observed);
+    }
+
+    /**
+     * Returns the metrics a task observed during its last check of a device.
+     *
+     * @param slot   The slot of the task.
+     * @param handle The handle of the device.
+     * @return The last observed metrics, or {@code null} if the task has not checked the device yet.
+     */
+    public DeviceMetrics lastObserved(int slot, int handle) {
+        return results.get(slot).get(handle);
+    }
+
+    /**
+     * Removes all results recorded for a device.
+     *
+     * @param handle The handle of the device.
+     */
+    public void remove(int handle) {
+        results.forEach(taskResults -> taskResults.set(handle, null));
+    }
+}
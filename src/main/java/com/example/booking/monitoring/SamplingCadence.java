@@ -0,0 +1,92 @@
+package com.example.booking.monitoring;
+
+import com.example.booking.monitoring.entity.DeviceMetrics;
+
+/**
+ * Decides how often a device is sampled by the monitoring scheduler.
+ * <p>
+ * Devices that are close to a battery or memory threshold are sampled fastest, booked devices
+ * are sampled often, and idle, available devices only occasionally. The total sampling work per
+ * second therefore follows the activity in the fleet instead of its size.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+public final class SamplingCadence {
+
+    /**
+     * Free memory (in MB) below which a device is considered low on memory, unless its catalog model defines another threshold.
+     */
+    public static final long LOW_FREE_MEMORY_MB = 500;
+
+    /**
+     * Battery level (in percent) below which a device is considered low on battery, unless its catalog model defines another threshold.
+     */
+    public static final double LOW_BATTERY_LEVEL = 20.0;
+
+    static final long NEAR_THRESHOLD_INTERVAL_MS = 1_000;
+    static final long BOOKED_INTERVAL_MS = 5_000;
+    static final long IDLE_INTERVAL_MS = 60_000;
+
+    // Distance above the memory threshold that already counts as "near"
+    private static final long FREE_MEMORY_MARGIN_MB = 100;
+
+    private SamplingCadence() {
+    }
+
+    /**
+     * Computes the delay until the next sample of a device, using the default thresholds.
+     *
+     * @param metrics The latest metrics of the device.
+     * @param booked  Whether the device is currently booked.
+     * @return The delay in milliseconds until the device should be sampled again.
+     */
+    public static long nextIntervalMillis(DeviceMetrics metrics, boolean booked) {
+        return nextIntervalMillis(metrics, booked, LOW_BATTERY_LEVEL, LOW_FREE_MEMORY_MB);
+    }
+
+    /**
+     * Computes the delay until the next sample of a device.
+     *
+     * @param metrics         The latest metrics of the device.
+     * @param booked          Whether the device is currently booked.
+     * @param lowBatteryLevel The battery threshold of the device's model, in percent.
+     * @param lowFreeMemoryMb The free memory threshold of the device's model, in MB.
+     * @return The delay in milliseconds until the device should be sampled again.
+     */
+    public static long nextIntervalMillis(DeviceMetrics metrics, boolean booked, double lowBatteryLevel, long lowFreeMemoryMb) {
+        if (isNearThreshold(metrics, lowBatteryLevel, lowFreeMemoryMb)) {
+            return NEAR_THRESHOLD_INTERVAL_MS;
+        }
+        return booked ? BOOKED_INTERVAL_MS : IDLE_INTERVAL_MS;
+    }
+
+    /**
+     * Checks whether a device is close to the default battery or memory threshold.
+     *
+     * @param metrics The latest metrics of the device.
+     * @return {@code true} if the device should be watched closely.
+     */
+    public static boolean isNearThreshold(DeviceMetrics metrics) {
+        return isNearThreshold(metrics, LOW_BATTERY_LEVEL, LOW_FREE_MEMORY_MB);
+    }
+
+    /**
+     * Checks whether a device is close to its battery or memory threshold.
+     * <p>
+     * The memory margin is capped at a fifth of the total memory, so that small devices whose whole
+     * memory sits close to the absolute threshold are not permanently treated as critical.
+     * </p>
+     *
+     * @param metrics         The latest metrics of the device.
+     * @param lowBatteryLevel The battery threshold of the device's model, in percent.
+     * @param lowFreeMemoryMb The free memory threshold of the device's model, in MB.
+     * @return {@code true} if the device should be watched closely.
+     */
+    public static boolean isNearThreshold(DeviceMetrics metrics, double lowBatteryLevel, long lowFreeMemoryMb) {
+        long memoryWatermark = Math.min(lowFreeMemoryMb + FREE_MEMORY_MARGIN_MB, metrics.totalMemory() / 5);
+        return metrics.batteryLevel() < lowBatteryLevel || metrics.freeMemory() < memoryWatermark;
+    }
+}
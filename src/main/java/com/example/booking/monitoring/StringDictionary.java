@@ -0,0 +1,134 @@
+package com.example.booking.monitoring;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe, append-only dictionary assigning every distinct string a dense {@code int} code.
+ * <p>
+ * Codes are handed out from 0 upwards in the order the strings are first encoded and are never reused,
+ * so they can index a {@link DenseTable}. Decoding returns the one canonical instance of the string, so
+ * equal strings coming from different sources (e.g. JPA rows) can share a single copy.
+ * </p>
+ * <p>
+ * The strings are held in a {@link DenseTable} by code, and the reverse direction is an open-addressing
+ * table of {@code int}s, kept at most half full, that stores the code of the string hashed to each slot.
+ * An entry therefore costs one reference and about two {@code int}s, instead of a hash map node and a boxed
+ * code, which matters for the device handles with one entry per device. Lookups read the table without
+ * locking; new strings are added under a lock, and a table that needs to grow is copied and then published.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+public final class StringDictionary {
+
+    /**
+     * The code {@link #lookup(String)} returns for a string that was never encoded.
+     */
+    public static final int ABSENT = -1;
+
+    private static final int INITIAL_SLOTS = 16;
+
+    private final DenseTable<String> values = new DenseTable<>();
+    private final ReentrantLock encodeLock = new ReentrantLock();
+    // Slot -> code + 1 of the string hashed there, 0 for a free slot; the length is a power of two
+    private volatile AtomicIntegerArray slots = new AtomicIntegerArray(INITIAL_SLOTS);
+    private volatile int size;
+
+    /**
+     * Returns the code of a string, assigning the next free code if it has none yet.
+     *
+     * @param value The string.
+     * @return The code of the string.
+     */
+    public int encode(String value) {
+        int code = lookup(value);
+        if (code != ABSENT) {
+            return code;
+        }
+        encodeLock.lock();
+        try {
+            code = lookup(value);
+            if (code != ABSENT) {
+                return code;
+            }
+            code = size;
+            values.set(code, value); // before the slot, so a reader finding the slot finds the string
+            AtomicIntegerArray current = slots;
+            if (2 * (code + 1) > current.length()) {
+                current = grow(current.length() * 2, code);
+                place(current, value, code);
+                slots = current;
+            } else {
+                place(current, value, code);
+            }
+            size = code + 1;
+            return code;
+        } finally {
+            encodeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the code of a string without assigning one.
+     *
+     * @param value The string.
+     * @return The code of the string, or {@link #ABSENT} if it was never encoded.
+     */
+    public int lookup(String value) {
+        AtomicIntegerArray current = slots;
+        int mask = current.length() - 1;
+        for (int slot = spread(value.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int entry = current.get(slot);
+            if (entry == 0) {
+                return ABSENT;
+            }
+            if (value.equals(values.get(entry - 1))) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * Returns the canonical string of a code.
+     *
+     * @param code The code.
+     * @return The string, or {@code null} for {@link #ABSENT} or an unassigned code.
+     */
+    public String decode(int code) {
+        return code < 0 ? null : values.get(code);
+    }
+
+    /**
+     * Returns the number of strings encoded so far.
+     *
+     * @return The number of codes assigned.
+     */
+    public int size() {
+        return size;
+    }
+
+    // Called under the encode lock: a new table holding the codes below the given one
+    private AtomicIntegerArray grow(int length, int codes) {
+        AtomicIntegerArray grown = new AtomicIntegerArray(length);
+        for (int code = 0; code < codes; code++) {
+            place(grown, values.get(code), code);
+        }
+        return grown;
+    }
+
+    private static void place(AtomicIntegerArray table, String value, int code) {
+        int mask = table.length() - 1;
+        int slot = spread(value.hashCode()) & mask;
+        while (table.get(slot) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table.set(slot, code + 1);
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
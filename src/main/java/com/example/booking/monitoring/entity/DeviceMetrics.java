@@ -1,5 +1,6 @@
 package com.example.booking.monitoring.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Embeddable;
 
 /**
@@ -8,6 +9,7 @@ import jakarta.persistence.Embeddable;
  * This record holds information about a device's battery level, available free memory,
  * and the system load. These metrics are crucial for monitoring the health and performance
  * of a device, facilitating decisions regarding resource management and potential maintenance needs.
+ * The free memory column is named explicitly because it is part of an index on {@code device_metrics_latest}.
  * </p>
  *
  * @param batteryLevel The current battery level of the device, represented as a percentage (0.0 to 100.0).
@@ -20,4 +22,4 @@ import jakarta.persistence.Embeddable;
  * @since 1.0
  */
 @Embeddable
-public record DeviceMetrics(double batteryLevel, long totalMemory, long freeMemory, double systemLoad) {}
\ No newline at end of file
+public record DeviceMetrics(double batteryLevel, long totalMemory, @Column(name = "free_memory") long freeMemory, double systemLoad) {}
\ No newline at end of file
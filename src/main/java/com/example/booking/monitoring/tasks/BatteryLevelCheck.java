@@ -1,16 +1,18 @@
 package com.example.booking.monitoring.tasks;
 
+import com.example.booking.monitoring.MonitoringResultTable;
 import com.example.booking.monitoring.entity.DeviceContext;
 import com.example.booking.monitoring.entity.DeviceMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
 
 /**
  * A monitoring task that checks the battery level of a device.
  * <p>
  * This class implements the {@link MonitoringTask} interface and provides functionality
- * for checking the battery level of a device. Upon execution, the task logs the current
- * battery level, which simulates an actual monitoring check. This could be extended to
- * include updating device metrics or triggering alerts if the battery level is below
+ * for checking the battery level of a device. Upon execution, the task records the current
+ * battery level in the shared {@link MonitoringResultTable}, which simulates an actual monitoring
+ * check. This could be extended to include triggering alerts if the battery level is below
  * a specified threshold.
  * </p>
  *
@@ -19,46 +21,56 @@ import lombok.extern.slf4j.Slf4j;
  * @since 1.0
  */
 @Slf4j
+@Component
 public class BatteryLevelCheck implements MonitoringTask {
 
-    private double lastKnownBatteryLevel = -1; // Initialized to an invalid value to indicate "unknown"
+    private static final String NAME = "BatteryLevelCheck";
+
+    private final MonitoringResultTable resultTable;
+    private final int slot;
+
+    public BatteryLevelCheck(MonitoringResultTable resultTable) {
+        this.resultTable = resultTable;
+        this.slot = resultTable.register(NAME);
+    }
 
     /**
      * Performs a battery level check on the given device context.
      * <p>
-     * This method logs the device's current battery level as a percentage. In a practical scenario,
-     * this could involve more complex logic such as updating the device's metrics in a monitoring
-     * system or triggering alerts if the battery level is critically low.
+     * This method records the device's current battery level in the shared result table. In a practical scenario,
+     * this could involve more complex logic such as triggering alerts if the battery level is critically low.
      * </p>
      * <p>
-     * The simulated check currently logs the battery level for demonstration purposes.
+     * The simulated check currently records the metrics snapshot for demonstration purposes.
      * The actual implementation would likely interact with device hardware or a monitoring service.
      * </p>
      *
+     * @param handle  The handle of the device.
      * @param context The {@link DeviceContext} representing the device to be checked.
      *                It contains the device's metrics, including its current battery level.
      */
     @Override
-    public void performCheck(DeviceContext context) {
+    public void performCheck(int handle, DeviceContext context) {
         DeviceMetrics metrics = context.metrics();
-        lastKnownBatteryLevel = metrics.batteryLevel();
-        log.info("Checking battery level for device: {}. Current level: {}%", context.deviceId(), lastKnownBatteryLevel);
-        // Add actual check logic and update metrics accordingly
+        resultTable.record(slot, handle, metrics);
+        log.debug("Checking battery level for device: {}. Current level: {}%", context.deviceId(), metrics.batteryLevel());
     }
 
     /**
      * Retrieves the last known battery level of the device.
      * <p>
-     * This method returns a string describing the battery level status. If the last known battery
-     * level has been set, it formats this value into a human-readable string. Otherwise, it
+     * This method returns a string describing the battery level status. If the device has been
+     * checked, it formats the recorded value into a human-readable string. Otherwise, it
      * indicates that the battery level is unknown.
      * </p>
      *
+     * @param handle The handle of the device.
      * @return A string describing the battery level status.
      */
     @Override
-    public String getStatus() {
-        return lastKnownBatteryLevel >= 0 ? String.format("Battery Level: %.2f%%", lastKnownBatteryLevel) : "Battery Level: Unknown";
+    public String getStatus(int handle) {
+        DeviceMetrics observed = resultTable.lastObserved(slot, handle);
+        return observed != null ? String.format("Battery Level: %.2f%%", observed.batteryLevel()) : "Battery Level: Unknown";
     }
 
     /**
@@ -72,6 +84,6 @@ public class BatteryLevelCheck implements MonitoringTask {
      */
     @Override
     public String getName() {
-        return "BatteryLevelCheck";
+        return NAME;
     }
-}
\ No newline at end of file
+}
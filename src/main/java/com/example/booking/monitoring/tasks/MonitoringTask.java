@@ -9,6 +9,11 @@ import com.example.booking.monitoring.entity.DeviceContext;
  * Implementing classes are expected to define specific monitoring actions, such as checking battery level,
  * memory usage, or system load, by overriding the {@code performCheck} method.
  * </p>
+ * <p>
+ * Implementations are stateless singleton beans shared by every {@link com.example.booking.monitoring.DeviceMonitor}.
+ * They must not keep per-device state in fields; results are recorded in the shared
+ * {@link com.example.booking.monitoring.MonitoringResultTable} and read back from there.
+ * </p>
  *
  * @author Milos Holclajtner
  * @version 1.0
@@ -24,18 +29,21 @@ public interface MonitoringTask {
      * to be monitored, allowing the implementation to access device metrics and other relevant data.
      * </p>
      *
+     * @param handle  The {@link com.example.booking.monitoring.DeviceHandles} handle of the device, under which the
+     *                result is recorded.
      * @param context The device context on which the monitoring check is to be performed, encapsulating
      *                details about the device and its current state.
      */
-    void performCheck(DeviceContext context);
+    void performCheck(int handle, DeviceContext context);
 
     /**
-     * Returns the status of the last check performed by this task.
+     * Returns the status of the last check performed by this task on the given device.
      * Implementing classes should return a String representation of the status.
      *
-     * @return A string representing the status of the task.
+     * @param handle The handle of the device whose status is requested.
+     * @return A string representing the status of the task for the device.
      */
-    String getStatus();
+    String getStatus(int handle);
 
     /**
      * Returns the name of the monitoring task.
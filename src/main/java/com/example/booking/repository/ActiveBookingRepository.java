@@ -0,0 +1,43 @@
+package com.example.booking.repository;
+
+import com.example.booking.entity.ActiveBooking;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository of the active bookings recorded in the shared database of a cluster.
+ * It is not exported by Spring Data REST.
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Repository
+@RepositoryRestResource(exported = false)
+public interface ActiveBookingRepository extends JpaRepository<ActiveBooking, String> {
+
+    /**
+     * Finds the active bookings of the phones in a segment of the hash ring.
+     *
+     * @param from The first ring position of the segment.
+     * @param to   The last ring position of the segment.
+     * @return The active bookings whose ring position lies between both, inclusive.
+     */
+    List<ActiveBooking> findByRingPositionBetween(long from, long to);
+
+    /**
+     * Deletes the active booking of a phone with a single statement, without loading it first.
+     *
+     * @param phoneId The identifier of the phone.
+     * @return The number of deleted rows, {@code 0} if the phone had no recorded booking.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from ActiveBooking b where b.phoneId = :phoneId")
+    int deleteByPhoneId(@Param("phoneId") String phoneId);
+}
@@ -0,0 +1,45 @@
+package com.example.booking.repository;
+
+import com.example.booking.entity.ClusterNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository of the cluster nodes registered by their heartbeats, used by the database cluster membership.
+ * It is not exported by Spring Data REST.
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Repository
+@RepositoryRestResource(exported = false)
+public interface ClusterNodeRepository extends JpaRepository<ClusterNode, String> {
+
+    /**
+     * Records a heartbeat of a registered node.
+     *
+     * @param url The URL of the node.
+     * @param now The time of the heartbeat.
+     * @return The number of updated rows, {@code 0} if the node is not registered.
+     */
+    @Modifying
+    @Query("update ClusterNode n set n.lastHeartbeat = :now where n.url = :url")
+    int touch(@Param("url") String url, @Param("now") Instant now);
+
+    /**
+     * Lists the nodes that sent a heartbeat after the given time.
+     *
+     * @param since The oldest heartbeat time of a live node.
+     * @return The URLs of the live nodes.
+     */
+    @Query("select n.url from ClusterNode n where n.lastHeartbeat > :since")
+    List<String> findUrlsAliveSince(@Param("since") Instant since);
+}
@@ -0,0 +1,27 @@
+package com.example.booking.repository;
+
+/**
+ * Allocates blocks of device id numbers per phone model.
+ * <p>
+ * Implemented on top of {@link DeviceIdSequenceRepository} by {@link JpaDeviceIdBlockStore} and in memory
+ * for the {@code inmemory} profile.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+public interface DeviceIdBlockStore {
+
+    /**
+     * Allocates the next block of id numbers of a model. Numbers start at 1, and no number is ever
+     * allocated twice, even if the caller does not use its block.
+     *
+     * @param model The phone model.
+     * @param size  The number of ids in the block.
+     * @return The first number of the block; the block is {@code [first, first + size)}.
+     * @throws org.springframework.dao.DataIntegrityViolationException if another node allocated the very first
+     *                                                                 block of the model at the same time; retrying succeeds.
+     */
+    long allocateBlock(String model, int size);
+}
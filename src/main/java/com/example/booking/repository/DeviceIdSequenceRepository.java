@@ -0,0 +1,34 @@
+package com.example.booking.repository;
+
+import com.example.booking.entity.DeviceIdSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for the device id sequences of the phone models.
+ * Services use it through {@link DeviceIdBlockStore}, which is implemented by {@link JpaDeviceIdBlockStore}.
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Repository
+public interface DeviceIdSequenceRepository extends JpaRepository<DeviceIdSequence, String> {
+
+    /**
+     * Finds the sequence of a model and locks its row until the end of the transaction, so concurrent
+     * allocations of the same model, also from other nodes, are serialized.
+     *
+     * @param model The phone model.
+     * @return The locked sequence, or empty if no id of the model was allocated yet.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from DeviceIdSequence s where s.model = :model")
+    Optional<DeviceIdSequence> findForUpdate(@Param("model") String model);
+}
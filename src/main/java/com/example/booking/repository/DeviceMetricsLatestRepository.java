@@ -0,0 +1,48 @@
+package com.example.booking.repository;
+
+import com.example.booking.entity.DeviceMetricsLatest;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for the pointers to the latest metrics sample of every device.
+ * Services use it through {@link DeviceMetricsLatestStore}, which is implemented by {@link JpaDeviceMetricsLatestStore}.
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Repository
+public interface DeviceMetricsLatestRepository extends JpaRepository<DeviceMetricsLatest, String> {
+
+    /**
+     * Finds the next page of latest metrics of booked phones whose free memory is below a threshold.
+     * <p>
+     * Both predicates are evaluated by the database, using the indexes on free memory and on phone
+     * availability. Pages are read by keyset: the caller passes the device id of the last row of the
+     * previous page ({@code ""} for the first page), so every page is an index range scan regardless of how deep it is.
+     * </p>
+     *
+     * @param threshold The free memory threshold in MB.
+     * @param afterId   Only devices with an id greater than this are returned.
+     * @param limit     The maximum number of rows to return.
+     * @return The latest metrics ordered by device id.
+     */
+    @Query("""
+            select l from DeviceMetricsLatest l, MobilePhone p
+            where p.id = l.deviceId and p.isAvailable = false
+              and l.metrics.freeMemory < :threshold and l.deviceId > :afterId
+            order by l.deviceId""")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    List<DeviceMetricsLatest> findBookedWithFreeMemoryBelow(@Param("threshold") long threshold,
+                                                            @Param("afterId") String afterId,
+                                                            Limit limit);
+}
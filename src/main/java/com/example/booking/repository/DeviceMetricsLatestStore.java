@@ -0,0 +1,75 @@
+package com.example.booking.repository;
+
+import com.example.booking.entity.DeviceMetricsLatest;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The persistence operations the application needs for {@link DeviceMetricsLatest} pointers.
+ * <p>
+ * Implemented on top of {@link DeviceMetricsLatestRepository} by {@link JpaDeviceMetricsLatestStore} and in memory
+ * for the {@code inmemory} profile.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+public interface DeviceMetricsLatestStore {
+
+    /**
+     * Finds the pointer of a device.
+     *
+     * @param deviceId The identifier of the device.
+     * @return The pointer, or an empty {@code Optional} if the device has no samples.
+     */
+    Optional<DeviceMetricsLatest> findById(String deviceId);
+
+    /**
+     * Returns the pointers of all devices.
+     *
+     * @return All pointers.
+     */
+    List<DeviceMetricsLatest> findAll();
+
+    /**
+     * Returns the pointers of the given devices; devices without samples are skipped.
+     *
+     * @param deviceIds The identifiers of the devices.
+     * @return The pointers found.
+     */
+    List<DeviceMetricsLatest> findAllById(Iterable<String> deviceIds);
+
+    /**
+     * Saves several pointers.
+     *
+     * @param pointers The pointers to save.
+     * @param <S>      The type of the pointers.
+     * @return The saved pointers.
+     */
+    <S extends DeviceMetricsLatest> List<S> saveAll(Iterable<S> pointers);
+
+    /**
+     * Finds the next keyset page of latest metrics of booked phones whose free memory is below a threshold.
+     *
+     * @param threshold The free memory threshold in MB.
+     * @param afterId   Only devices with an id greater than this are returned; {@code ""} for the first page.
+     * @param limit     The maximum number of rows to return.
+     * @return The latest metrics ordered by device id.
+     */
+    List<DeviceMetricsLatest> findBookedWithFreeMemoryBelow(long threshold, String afterId, Limit limit);
+
+    /**
+     * Returns the number of pointers.
+     *
+     * @return The number of pointers.
+     */
+    long count();
+
+    /**
+     * Deletes all pointers.
+     */
+    void deleteAll();
+}
@@ -0,0 +1,45 @@
+package com.example.booking.repository;
+
+import com.example.booking.entity.DeviceMetricsSample;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository for the append-only history of device metrics samples.
+ * Services use it through {@link DeviceMetricsSampleStore}, which is implemented by {@link JpaDeviceMetricsSampleStore}.
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Repository
+public interface DeviceMetricsSampleRepository extends JpaRepository<DeviceMetricsSample, Long> {
+
+    /**
+     * Finds the samples of a device, oldest first.
+     *
+     * @param deviceId The identifier of the device.
+     * @return The samples of the device.
+     */
+    List<DeviceMetricsSample> findByDeviceIdOrderBySampledAtAsc(String deviceId);
+
+    /**
+     * Deletes the samples taken before a point in time in one statement, keeping every sample a
+     * {@link com.example.booking.entity.DeviceMetricsLatest} pointer refers to.
+     *
+     * @param cutoff Samples taken before this instant are deleted.
+     * @return The number of deleted samples.
+     */
+    @Modifying
+    @Query("""
+            delete from DeviceMetricsSample s
+            where s.sampledAt < :cutoff
+              and s.id not in (select l.sampleId from DeviceMetricsLatest l)""")
+    int deleteSampledBefore(@Param("cutoff") Instant cutoff);
+}
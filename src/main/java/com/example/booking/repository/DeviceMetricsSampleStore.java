@@ -0,0 +1,57 @@
+package com.example.booking.repository;
+
+import com.example.booking.entity.DeviceMetricsSample;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The persistence operations the application needs for {@link DeviceMetricsSample} entities.
+ * <p>
+ * Implemented on top of {@link DeviceMetricsSampleRepository} by {@link JpaDeviceMetricsSampleStore} and in memory
+ * for the {@code inmemory} profile.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+public interface DeviceMetricsSampleStore {
+
+    /**
+     * Appends several samples, assigning their ids.
+     *
+     * @param samples The samples to append.
+     * @param <S>     The type of the samples.
+     * @return The appended samples.
+     */
+    <S extends DeviceMetricsSample> List<S> saveAll(Iterable<S> samples);
+
+    /**
+     * Finds the samples of a device, oldest first.
+     *
+     * @param deviceId The identifier of the device.
+     * @return The samples of the device.
+     */
+    List<DeviceMetricsSample> findByDeviceIdOrderBySampledAtAsc(String deviceId);
+
+    /**
+     * Deletes the samples taken before a point in time, except the latest sample of every device.
+     *
+     * @param cutoff Samples taken before this instant are deleted.
+     * @return The number of deleted samples.
+     */
+    int deleteSampledBefore(Instant cutoff);
+
+    /**
+     * Returns the number of samples.
+     *
+     * @return The number of samples.
+     */
+    long count();
+
+    /**
+     * Deletes all samples.
+     */
+    void deleteAll();
+}
@@ -0,0 +1,44 @@
+package com.example.booking.repository;
+
+import com.example.booking.entity.DeviceIdSequence;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * {@link DeviceIdBlockStore} backed by the JPA {@link DeviceIdSequenceRepository}; active unless the
+ * {@code inmemory} profile is.
+ * <p>
+ * Every allocation commits in its own transaction: the row lock is held only for the one update, and a block
+ * stays allocated even if the transaction creating the phones rolls back, so no other node can receive the
+ * ids this node still holds in memory. Callers allocate outside of their own transactions: a caller holding a
+ * connection would need a second one here, and enough such callers exhaust the pool and wait on each other.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Repository
+@Profile("!inmemory")
+@RequiredArgsConstructor
+public class JpaDeviceIdBlockStore implements DeviceIdBlockStore {
+
+    private final DeviceIdSequenceRepository sequenceRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long allocateBlock(String model, int size) {
+        Optional<DeviceIdSequence> sequence = sequenceRepository.findForUpdate(model);
+        if (sequence.isPresent()) {
+            // The new next value is written by dirty checking when the transaction commits
+            return sequence.get().allocate(size);
+        }
+        sequenceRepository.saveAndFlush(new DeviceIdSequence(model, 1L + size));
+        return 1;
+    }
+}
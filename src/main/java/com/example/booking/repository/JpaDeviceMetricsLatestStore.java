@@ -0,0 +1,68 @@
+package com.example.booking.repository;
+
+import com.example.booking.entity.DeviceMetricsLatest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link DeviceMetricsLatestStore} backed by the JPA {@link DeviceMetricsLatestRepository}; active unless the
+ * {@code inmemory} profile is.
+ * <p>
+ * Reads run in read-only transactions unless they join the transaction of the calling use case.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Repository
+@Profile("!inmemory")
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class JpaDeviceMetricsLatestStore implements DeviceMetricsLatestStore {
+
+    private final DeviceMetricsLatestRepository latestRepository;
+
+    @Override
+    public Optional<DeviceMetricsLatest> findById(String deviceId) {
+        return latestRepository.findById(deviceId);
+    }
+
+    @Override
+    public List<DeviceMetricsLatest> findAll() {
+        return latestRepository.findAll();
+    }
+
+    @Override
+    public List<DeviceMetricsLatest> findAllById(Iterable<String> deviceIds) {
+        return latestRepository.findAllById(deviceIds);
+    }
+
+    @Override
+    @Transactional
+    public <S extends DeviceMetricsLatest> List<S> saveAll(Iterable<S> pointers) {
+        return latestRepository.saveAll(pointers);
+    }
+
+    @Override
+    public List<DeviceMetricsLatest> findBookedWithFreeMemoryBelow(long threshold, String afterId, Limit limit) {
+        return latestRepository.findBookedWithFreeMemoryBelow(threshold, afterId, limit);
+    }
+
+    @Override
+    public long count() {
+        return latestRepository.count();
+    }
+
+    @Override
+    @Transactional
+    public void deleteAll() {
+        latestRepository.deleteAll();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.booking.repository;
+
+import com.example.booking.entity.DeviceMetricsSample;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * {@link DeviceMetricsSampleStore} backed by the JPA {@link DeviceMetricsSampleRepository}; active unless the
+ * {@code inmemory} profile is.
+ * <p>
+ * Reads run in read-only transactions unless they join the transaction of the calling use case.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Repository
+@Profile("!inmemory")
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class JpaDeviceMetricsSampleStore implements DeviceMetricsSampleStore {
+
+    private final DeviceMetricsSampleRepository sampleRepository;
+
+    @Override
+    @Transactional
+    public <S extends DeviceMetricsSample> List<S> saveAll(Iterable<S> samples) {
+        return sampleRepository.saveAll(samples);
+    }
+
+    @Override
+    public List<DeviceMetricsSample> findByDeviceIdOrderBySampledAtAsc(String deviceId) {
+        return sampleRepository.findByDeviceIdOrderBySampledAtAsc(deviceId);
+    }
+
+    @Override
+    @Transactional
+    public int deleteSampledBefore(Instant cutoff) {
+        return sampleRepository.deleteSampledBefore(cutoff);
+    }
+
+    @Override
+    public long count() {
+        return sampleRepository.count();
+    }
+
+    @Override
+    @Transactional
+    public void deleteAll() {
+        sampleRepository.deleteAll();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.booking.repository;
+
+import com.example.booking.entity.MobilePhone;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link MobilePhoneStore} backed by the JPA {@link MobilePhoneRepository}; active unless the {@code inmemory} profile is.
+ * <p>
+ * Reads run in read-only transactions unless they join the transaction of the calling use case.
+ * </p>
+ * <p>
+ * {@link #saveAll(Iterable)} flushes and clears the persistence context after every {@code hibernate.jdbc.batch_size}
+ * phones, so bulk provisioning keeps memory flat instead of holding every new entity until commit. Phones returned
+ * by it are therefore detached.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Repository
+@Profile("!inmemory")
+@Transactional(readOnly = true)
+public class JpaMobilePhoneStore implements MobilePhoneStore {
+
+    private final MobilePhoneRepository mobilePhoneRepository;
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    public JpaMobilePhoneStore(MobilePhoneRepository mobilePhoneRepository, EntityManager entityManager,
+                               @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.mobilePhoneRepository = mobilePhoneRepository;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Optional<MobilePhone> findById(String id) {
+        return mobilePhoneRepository.findById(id);
+    }
+
+    @Override
+    public List<MobilePhone> findAllById(Iterable<String> ids) {
+        return mobilePhoneRepository.findAllById(ids);
+    }
+
+    @Override
+    public List<MobilePhone> findAll() {
+        return mobilePhoneRepository.findAll();
+    }
+
+    @Override
+    public List<MobilePhone> findPageAfter(String afterId, Limit limit) {
+        return mobilePhoneRepository.findByIdGreaterThanOrderByIdAsc(afterId, limit);
+    }
+
+    @Override
+    @Transactional
+    public <S extends MobilePhone> S save(S phone) {
+        return mobilePhoneRepository.save(phone);
+    }
+
+    @Override
+    @Transactional
+    public <S extends MobilePhone> List<S> saveAll(Iterable<S> phones) {
+        List<S> saved = new ArrayList<>();
+        for (S phone : phones) {
+            saved.add(mobilePhoneRepository.save(phone));
+            if (saved.size() % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public int updateAvailability(String id, boolean available) {
+        return mobilePhoneRepository.updateAvailability(id, available);
+    }
+
+    @Override
+    public long count() {
+        return mobilePhoneRepository.count();
+    }
+
+    @Override
+    @Transactional
+    public void deleteAll() {
+        mobilePhoneRepository.deleteAll();
+    }
+}
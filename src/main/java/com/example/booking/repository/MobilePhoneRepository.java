@@ -1,16 +1,50 @@
 package com.example.booking.repository;
 
 import com.example.booking.entity.MobilePhone;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 /**
  * Repository for managing a collection of MobilePhones.
  * Mobile phones can be added, updated, and queried by ID.
+ * Services use it through {@link MobilePhoneStore}, which is implemented by {@link JpaMobilePhoneStore}.
  *
  * @author Milos Holclajtner
  * @version 1.0
  * @since 1.0
  */
 @Repository
-public interface MobilePhoneRepository extends JpaRepository<MobilePhone, String> { }
\ No newline at end of file
+public interface MobilePhoneRepository extends JpaRepository<MobilePhone, String> {
+
+    /**
+     * Finds the next keyset page of phones, served by a range scan of the primary key.
+     *
+     * @param afterId Only phones with an id greater than this are returned.
+     * @param limit   The maximum number of phones to return.
+     * @return The phones ordered by id.
+     */
+    List<MobilePhone> findByIdGreaterThanOrderByIdAsc(String afterId, Limit limit);
+
+    /**
+     * Sets the availability of a phone unless it already has that availability.
+     * <p>
+     * A single conditional update without reading the phone first; the returned row count tells
+     * whether this call changed the availability.
+     * </p>
+     *
+     * @param id        The unique identifier of the phone.
+     * @param available The new availability.
+     * @return {@code 1} if the availability was changed, {@code 0} if the phone does not exist or already had it.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update MobilePhone p set p.isAvailable = :available where p.id = :id and p.isAvailable <> :available")
+    int updateAvailability(@Param("id") String id, @Param("available") boolean available);
+}
\ No newline at end of file
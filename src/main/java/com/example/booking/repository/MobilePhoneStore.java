@@ -0,0 +1,93 @@
+package com.example.booking.repository;
+
+import com.example.booking.entity.MobilePhone;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The persistence operations the application needs for {@link MobilePhone} entities.
+ * <p>
+ * Services depend on this narrow interface rather than on {@link MobilePhoneRepository}, so the JPA
+ * repository (wrapped by {@link JpaMobilePhoneStore}) can be swapped for the in-memory implementation of the
+ * {@code inmemory} profile.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+public interface MobilePhoneStore {
+
+    /**
+     * Finds a phone by its id.
+     *
+     * @param id The unique identifier of the phone.
+     * @return The phone, or an empty {@code Optional} if there is none.
+     */
+    Optional<MobilePhone> findById(String id);
+
+    /**
+     * Returns the given phones; ids without a phone are skipped.
+     *
+     * @param ids The unique identifiers of the phones.
+     * @return The phones found.
+     */
+    List<MobilePhone> findAllById(Iterable<String> ids);
+
+    /**
+     * Returns all phones.
+     *
+     * @return All phones.
+     */
+    List<MobilePhone> findAll();
+
+    /**
+     * Returns the next keyset page of phones ordered by id.
+     *
+     * @param afterId Only phones with an id greater than this are returned; {@code ""} for the first page.
+     * @param limit   The maximum number of phones to return.
+     * @return The phones ordered by id.
+     */
+    List<MobilePhone> findPageAfter(String afterId, Limit limit);
+
+    /**
+     * Saves a phone.
+     *
+     * @param phone The phone to save.
+     * @param <S>   The type of the phone.
+     * @return The saved phone.
+     */
+    <S extends MobilePhone> S save(S phone);
+
+    /**
+     * Saves several phones.
+     *
+     * @param phones The phones to save.
+     * @param <S>    The type of the phones.
+     * @return The saved phones.
+     */
+    <S extends MobilePhone> List<S> saveAll(Iterable<S> phones);
+
+    /**
+     * Sets the availability of a phone unless it already has that availability.
+     *
+     * @param id        The unique identifier of the phone.
+     * @param available The new availability.
+     * @return {@code 1} if the availability was changed, {@code 0} if the phone does not exist or already had it.
+     */
+    int updateAvailability(String id, boolean available);
+
+    /**
+     * Returns the number of phones.
+     *
+     * @return The number of phones.
+     */
+    long count();
+
+    /**
+     * Deletes all phones.
+     */
+    void deleteAll();
+}
@@ -0,0 +1,28 @@
+package com.example.booking.repository.inmemory;
+
+import com.example.booking.repository.DeviceIdBlockStore;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link DeviceIdBlockStore} keeping one {@link AtomicLong} sequence per model in memory; active with the
+ * {@code inmemory} profile. Ids are unique within the process only, like the rest of the in-memory data.
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryDeviceIdBlockStore implements DeviceIdBlockStore {
+
+    private final ConcurrentHashMap<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+
+    @Override
+    public long allocateBlock(String model, int size) {
+        return sequences.computeIfAbsent(model, m -> new AtomicLong(1)).getAndAdd(size);
+    }
+}
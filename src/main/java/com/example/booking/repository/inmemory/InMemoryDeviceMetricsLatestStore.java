@@ -0,0 +1,96 @@
+package com.example.booking.repository.inmemory;
+
+import com.example.booking.entity.DeviceMetricsLatest;
+import com.example.booking.repository.DeviceMetricsLatestStore;
+import com.example.booking.repository.MobilePhoneStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * {@link DeviceMetricsLatestStore} keeping the pointers in memory; active with the {@code inmemory} profile.
+ * <p>
+ * The pointers are kept sorted by device id, so a keyset page of the fleet sweep is a walk over the tail
+ * of the map after the previous page, like the index range scan of the JPA store.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Repository
+@Profile("inmemory")
+@RequiredArgsConstructor
+public class InMemoryDeviceMetricsLatestStore implements DeviceMetricsLatestStore {
+
+    private final MobilePhoneStore mobilePhoneStore;
+
+    private final ConcurrentSkipListMap<String, DeviceMetricsLatest> pointers = new ConcurrentSkipListMap<>();
+
+    @Override
+    public Optional<DeviceMetricsLatest> findById(String deviceId) {
+        return Optional.ofNullable(pointers.get(deviceId));
+    }
+
+    @Override
+    public List<DeviceMetricsLatest> findAll() {
+        return new ArrayList<>(pointers.values());
+    }
+
+    @Override
+    public List<DeviceMetricsLatest> findAllById(Iterable<String> deviceIds) {
+        List<DeviceMetricsLatest> found = new ArrayList<>();
+        deviceIds.forEach(deviceId -> {
+            DeviceMetricsLatest latest = pointers.get(deviceId);
+            if (latest != null) {
+                found.add(latest);
+            }
+        });
+        return found;
+    }
+
+    @Override
+    public <S extends DeviceMetricsLatest> List<S> saveAll(Iterable<S> latestPointers) {
+        List<S> saved = new ArrayList<>();
+        latestPointers.forEach(pointer -> {
+            pointers.put(pointer.getDeviceId(), pointer);
+            saved.add(pointer);
+        });
+        return saved;
+    }
+
+    @Override
+    public List<DeviceMetricsLatest> findBookedWithFreeMemoryBelow(long threshold, String afterId, Limit limit) {
+        int max = limit.isLimited() ? limit.max() : Integer.MAX_VALUE;
+        List<DeviceMetricsLatest> page = new ArrayList<>();
+        for (DeviceMetricsLatest latest : pointers.tailMap(afterId, false).values()) {
+            if (page.size() == max) {
+                break;
+            }
+            if (latest.getMetrics().freeMemory() < threshold && isBooked(latest.getDeviceId())) {
+                page.add(latest);
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public long count() {
+        return pointers.size();
+    }
+
+    @Override
+    public void deleteAll() {
+        pointers.clear();
+    }
+
+    private boolean isBooked(String deviceId) {
+        return mobilePhoneStore.findById(deviceId).filter(phone -> !phone.isAvailable()).isPresent();
+    }
+}
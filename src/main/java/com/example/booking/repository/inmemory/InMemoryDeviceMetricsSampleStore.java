@@ -0,0 +1,92 @@
+package com.example.booking.repository.inmemory;
+
+import com.example.booking.entity.DeviceMetricsSample;
+import com.example.booking.repository.DeviceMetricsSampleStore;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link DeviceMetricsSampleStore} keeping the samples in memory; active with the {@code inmemory} profile.
+ * <p>
+ * Ids come from an {@link AtomicLong} sequence. Only the newest {@code MAX_SAMPLES_PER_DEVICE} samples of
+ * every device are kept, so long benchmark runs do not grow the heap without bound.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryDeviceMetricsSampleStore implements DeviceMetricsSampleStore {
+
+    static final int MAX_SAMPLES_PER_DEVICE = 100;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong count = new AtomicLong();
+    private final ConcurrentHashMap<String, ArrayDeque<DeviceMetricsSample>> samplesByDevice = new ConcurrentHashMap<>();
+
+    @Override
+    public <S extends DeviceMetricsSample> List<S> saveAll(Iterable<S> samples) {
+        List<S> saved = new ArrayList<>();
+        for (S sample : samples) {
+            sample.assignId(sequence.incrementAndGet());
+            ArrayDeque<DeviceMetricsSample> history = samplesByDevice.computeIfAbsent(sample.getDeviceId(), id -> new ArrayDeque<>());
+            synchronized (history) {
+                history.addLast(sample);
+                if (history.size() > MAX_SAMPLES_PER_DEVICE) {
+                    history.removeFirst();
+                } else {
+                    count.incrementAndGet();
+                }
+            }
+            saved.add(sample);
+        }
+        return saved;
+    }
+
+    @Override
+    public List<DeviceMetricsSample> findByDeviceIdOrderBySampledAtAsc(String deviceId) {
+        ArrayDeque<DeviceMetricsSample> history = samplesByDevice.get(deviceId);
+        if (history == null) {
+            return List.of();
+        }
+        synchronized (history) {
+            return new ArrayList<>(history);
+        }
+    }
+
+    @Override
+    public int deleteSampledBefore(Instant cutoff) {
+        int deleted = 0;
+        for (ArrayDeque<DeviceMetricsSample> history : samplesByDevice.values()) {
+            synchronized (history) {
+                // The newest sample is the one the latest pointer of the device refers to
+                while (history.size() > 1 && history.peekFirst().getSampledAt().isBefore(cutoff)) {
+                    history.removeFirst();
+                    deleted++;
+                }
+            }
+        }
+        count.addAndGet(-deleted);
+        return deleted;
+    }
+
+    @Override
+    public long count() {
+        return count.get();
+    }
+
+    @Override
+    public void deleteAll() {
+        samplesByDevice.clear();
+        count.set(0);
+    }
+}
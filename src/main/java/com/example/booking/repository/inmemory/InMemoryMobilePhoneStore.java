@@ -0,0 +1,102 @@
+package com.example.booking.repository.inmemory;
+
+import com.example.booking.entity.MobilePhone;
+import com.example.booking.repository.MobilePhoneStore;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * {@link MobilePhoneStore} keeping the phones in a {@link ConcurrentSkipListMap}; active with the {@code inmemory} profile.
+ * <p>
+ * Phones are stored by reference, so a saved phone is the instance handed out by {@link #findById(String)}.
+ * Availability changes are applied atomically per phone, matching the conditional update of the JPA store.
+ * The phones are kept sorted by id, so keyset pages are walks over the tail of the map.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Repository
+@Profile("inmemory")
+public class InMemoryMobilePhoneStore implements MobilePhoneStore {
+
+    private final ConcurrentSkipListMap<String, MobilePhone> phones = new ConcurrentSkipListMap<>();
+
+    @Override
+    public Optional<MobilePhone> findById(String id) {
+        return Optional.ofNullable(phones.get(id));
+    }
+
+    @Override
+    public List<MobilePhone> findAllById(Iterable<String> ids) {
+        List<MobilePhone> found = new ArrayList<>();
+        for (String id : ids) {
+            MobilePhone phone = phones.get(id);
+            if (phone != null) {
+                found.add(phone);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<MobilePhone> findAll() {
+        return new ArrayList<>(phones.values());
+    }
+
+    @Override
+    public List<MobilePhone> findPageAfter(String afterId, Limit limit) {
+        int max = limit.isLimited() ? limit.max() : Integer.MAX_VALUE;
+        List<MobilePhone> page = new ArrayList<>();
+        for (MobilePhone phone : phones.tailMap(afterId, false).values()) {
+            if (page.size() == max) {
+                break;
+            }
+            page.add(phone);
+        }
+        return page;
+    }
+
+    @Override
+    public <S extends MobilePhone> S save(S phone) {
+        phones.put(phone.getId(), phone);
+        return phone;
+    }
+
+    @Override
+    public <S extends MobilePhone> List<S> saveAll(Iterable<S> phones) {
+        List<S> saved = new ArrayList<>();
+        phones.forEach(phone -> saved.add(save(phone)));
+        return saved;
+    }
+
+    @Override
+    public int updateAvailability(String id, boolean available) {
+        boolean[] changed = new boolean[1];
+        phones.computeIfPresent(id, (key, phone) -> {
+            if (phone.isAvailable() != available) {
+                phone.setAvailable(available);
+                changed[0] = true;
+            }
+            return phone;
+        });
+        return changed[0] ? 1 : 0;
+    }
+
+    @Override
+    public long count() {
+        return phones.size();
+    }
+
+    @Override
+    public void deleteAll() {
+        phones.clear();
+    }
+}
@@ -1,22 +1,29 @@
 package com.example.booking.service;
 
+import com.example.booking.cluster.BookingJournal;
 import com.example.booking.entity.Booking;
 import com.example.booking.entity.MobilePhone;
-import com.example.booking.repository.MobilePhoneRepository;
+import com.example.booking.entity.event.BookingChangedEvent;
+import com.example.booking.metrics.BookingMetrics;
+import com.example.booking.metrics.Outcome;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 
 /**
  * The {@code com.example.booking.service.BookingManager} class is responsible for managing the bookings of mobile phones.
  * Implements a singleton pattern to ensure a single instance manages all bookings.
- * Relies on {@link MobilePhoneRepository} to handle the persistence of {@code com.example.booking.model.MobilePhone} objects.
+ * Relies on {@link MobilePhoneCache} to look up {@code com.example.booking.model.MobilePhone} objects and persist
+ * their availability, so steady-state booking of cached phones does not read from the database.
  *
  * @author Milos Holclajtner
  * @version 1.0
@@ -26,66 +33,127 @@ import java.util.Optional;
 @AllArgsConstructor
 public class BookingManager {
 
-    private final MobilePhoneRepository phoneRepository;
+    private final MobilePhoneCache phoneCache;
 
-    @Getter private List<Booking> bookings;
+    @Getter private final BookingStore bookings;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final BookingMetrics bookingMetrics;
+
+    private final BookingJournal bookingJournal;
 
     /**
      * Attempts to book a mobile phone for a specified user.
      * If the phone is available, it creates a new booking, marks the phone as unavailable,
-     * and stores the updated phone status.
+     * stores the updated phone status and publishes a {@link BookingChangedEvent}.
+     * The call is timed in the {@code booking.book} timer, also when it throws.
+     * It is one transaction of at most two statements: the lookup of an uncached phone and the conditional update.
+     * In a cluster the {@link BookingJournal} adds the insert of the booking into the shared database.
+     * The booking is stored right away, so a concurrent return finds it, and is dropped again if the
+     * transaction rolls back or fails to commit.
      *
      * @param phoneId The unique identifier of the phone to book.
      * @param user    The name of the user booking the phone.
      * @return An {@link Optional} containing the created {@link Booking} if successful, or an empty {@code Optional} if the phone is unavailable.
      */
+    @Transactional
     public Optional<Booking>  bookPhone(String phoneId, String user) {
-        return phoneRepository.findById(phoneId)
-                .filter(MobilePhone::isAvailable)
-                .map(phone -> {
-                    phone.setAvailable(false);
-                    var booking = new Booking(phoneId, phone, LocalDateTime.now(), user);
-                    bookings.add(booking);
-                    phoneRepository.save(phone);
-                    return booking;
-                });
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            MobilePhone phone = phoneCache.findById(phoneId).orElse(null);
+            if (phone == null || !phone.isAvailable() || !phoneCache.changeAvailability(phone, false)) {
+                outcome = Outcome.REJECTED;
+                return Optional.empty();
+            }
+
+            var booking = new Booking(phoneId, phone, LocalDateTime.now(), user);
+            bookingJournal.booked(booking);
+            bookings.add(booking);
+            undoOnRollback(() -> {
+                if (bookings.remove(booking)) {
+                    eventPublisher.publishEvent(new BookingChangedEvent(this, phoneId, false));
+                }
+            });
+            eventPublisher.publishEvent(new BookingChangedEvent(this, phoneId, true));
+            outcome = Outcome.SUCCESS;
+            return Optional.of(booking);
+        } finally {
+            bookingMetrics.recordBooking(start, outcome);
+        }
     }
 
     /**
      * Returns a booked phone, marking it as available again if the booking exists and the user matches.
+     * The booking is removed before the phone is released, so of concurrent returns of the same booking only
+     * one succeeds, and the phone cannot be booked again while the booking is still stored.
+     * A {@link BookingChangedEvent} is published when the phone has been returned.
+     * The call is timed in the {@code booking.return} timer, also when it throws.
+     * It is one transaction of a single statement, the conditional update of the phone's availability.
+     * In a cluster the {@link BookingJournal} adds the deletion of the booking from the shared database.
+     * If the transaction rolls back or fails to commit, the booking is stored again and its phone marked unavailable.
      *
      * @param bookingId The unique identifier of the booking to return.
      * @param user The name of the user returning the phone.
      * @return An {@link Optional} containing the {@link Booking} if return was successful, empty otherwise.
      */
+    @Transactional
     public Optional<Booking> returnPhone(String bookingId, String user) {
-        Optional<Booking> bookingOptional = findBookingById(bookingId);
-
-        if (bookingOptional.isPresent()) {
-            Booking booking = bookingOptional.get();
-            if (booking.getBookedBy().equals(user)) {
-                MobilePhone phone = booking.getMobilePhone();
-                phone.setAvailable(true);
-                bookings.remove(booking);
-                phoneRepository.save(phone);
-                return Optional.of(booking);
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            Optional<Booking> bookingOptional = findBookingById(bookingId);
+
+            if (bookingOptional.isPresent()) {
+                Booking booking = bookingOptional.get();
+                if (booking.getBookedBy().equals(user) && bookings.remove(booking)) {
+                    MobilePhone phone = booking.getMobilePhone();
+                    undoOnRollback(() -> {
+                        phone.setAvailable(false);
+                        bookings.add(booking);
+                        eventPublisher.publishEvent(new BookingChangedEvent(this, phone.getId(), true));
+                    });
+                    if (!phoneCache.changeAvailability(phone, true)) {
+                        phone.setAvailable(true); // the phone was already released in the database
+                    }
+                    bookingJournal.returned(booking);
+                    eventPublisher.publishEvent(new BookingChangedEvent(this, phone.getId(), false));
+                    outcome = Outcome.SUCCESS;
+                    return Optional.of(booking);
+                }
             }
+
+            outcome = Outcome.REJECTED;
+            return Optional.empty();
+        } finally {
+            bookingMetrics.recordReturn(start, outcome);
         }
+    }
 
-        return Optional.empty();
+    // Without a transaction (e.g. the inmemory profile) the change is final as soon as it is made
+    private static void undoOnRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    undo.run();
+                }
+            }
+        });
     }
 
     /**
-     * Finds a booking by its unique identifier using a functional approach.
-     * Searches the list of current bookings and returns the first match.
+     * Finds a booking by its unique identifier in the {@link BookingStore}.
      *
      * @param bookingId The unique identifier of the booking to find.
      * @return An {@link Optional} containing the found {@link Booking} if present, or an empty {@code Optional} if not found.
      */
     private Optional<Booking> findBookingById(String bookingId) {
-        return bookings.stream()
-                .filter(booking -> booking.getId().equals(bookingId))
-                .findFirst();
+        return bookings.findById(bookingId);
     }
 
     /**
@@ -95,20 +163,23 @@ public class BookingManager {
      * @return an {@link Optional} containing the booking if found, otherwise an empty {@link Optional}
      */
     public Optional<Booking> findBookingByDeviceId(String deviceId) {
-        return bookings.stream()
-                .filter(booking -> booking.getMobilePhone().getId().equals(deviceId) && !booking.getMobilePhone().isAvailable())
-                .findFirst();
+        return Optional.ofNullable(activeBookingOf(deviceId));
     }
 
     /**
      * Checks if a device is currently booked.
+     * Called for every sampled device, so it does not allocate.
      *
      * @param deviceId the unique identifier of the device
      * @return {@code true} if the device is booked, otherwise {@code false}
      */
     public boolean isDeviceBooked(String deviceId) {
-        return bookings.stream()
-                .anyMatch(booking -> booking.getMobilePhone().getId().equals(deviceId) && !booking.getMobilePhone().isAvailable());
+        return activeBookingOf(deviceId) != null;
+    }
+
+    private Booking activeBookingOf(String deviceId) {
+        Booking booking = bookings.getByDeviceId(deviceId);
+        return booking != null && !booking.getMobilePhone().isAvailable() ? booking : null;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.example.booking.service;
+
+import com.example.booking.entity.Booking;
+import com.example.booking.monitoring.DenseTable;
+import com.example.booking.monitoring.DeviceHandles;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * In-memory store of the active bookings.
+ * <p>
+ * A device has at most one active booking, and a booking has the id of its device, so the bookings are
+ * held in one {@link DenseTable} indexed by the {@link DeviceHandles} handle of the booked device. Every lookup
+ * of the booking and monitoring paths is one translation of the id to its handle and two array reads, and a
+ * booking costs one array element instead of an entry in each of two hash maps.
+ * The store itself is never persisted; in a cluster with a shared database the
+ * {@link com.example.booking.cluster.DatabaseBookingJournal} records the bookings there, and the store of each
+ * node holds only the bookings of the devices that node owns.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingStore {
+
+    private final DeviceHandles deviceHandles;
+
+    private final DenseTable<Booking> bookingsByHandle = new DenseTable<>();
+
+    /**
+     * Adds a booking, replacing any other booking of its device.
+     *
+     * @param booking The booking to add; its id must be the id of its phone.
+     * @throws IllegalArgumentException if the id of the booking is not the id of its phone.
+     */
+    public void add(Booking booking) {
+        String deviceId = booking.getMobilePhone().getId();
+        if (!booking.getId().equals(deviceId)) {
+            throw new IllegalArgumentException(STR."Booking \{booking.getId()} does not have the id of its phone \{deviceId}");
+        }
+        bookingsByHandle.set(deviceHandles.register(deviceId), booking);
+    }
+
+    /**
+     * Removes a booking.
+     * The removal is conditional, so of several threads removing the same booking exactly one sees {@code true}.
+     *
+     * @param booking The booking to remove.
+     * @return {@code true} if the booking was present and removed by this call.
+     */
+    public boolean remove(Booking booking) {
+        int handle = deviceHandles.handleOf(booking.getMobilePhone().getId());
+        return handle != DeviceHandles.UNKNOWN && bookingsByHandle.compareAndSet(handle, booking, null);
+    }
+
+    /**
+     * Finds a booking by its id.
+     *
+     * @param bookingId The unique identifier of the booking.
+     * @return The booking, or an empty {@code Optional} if there is none.
+     */
+    public Optional<Booking> findById(String bookingId) {
+        return Optional.ofNullable(getByDeviceId(bookingId)); // a booking has the id of its device
+    }
+
+    /**
+     * Finds the booking of a device.
+     *
+     * @param deviceId The unique identifier of the device.
+     * @return The booking, or an empty {@code Optional} if the device is not booked.
+     */
+    public Optional<Booking> findByDeviceId(String deviceId) {
+        return Optional.ofNullable(getByDeviceId(deviceId));
+    }
+
+    /**
+     * Returns the booking of a device without wrapping it, for lookups on allocation-sensitive paths.
+     *
+     * @param deviceId The unique identifier of the device.
+     * @return The booking, or {@code null} if the device is not booked.
+     */
+    public Booking getByDeviceId(String deviceId) {
+        int handle = deviceHandles.handleOf(deviceId);
+        return handle == DeviceHandles.UNKNOWN ? null : bookingsByHandle.get(handle);
+    }
+
+    /**
+     * Checks whether a booking is stored.
+     *
+     * @param booking The booking to look for.
+     * @return {@code true} if the booking is stored.
+     */
+    public boolean contains(Booking booking) {
+        return getByDeviceId(booking.getMobilePhone().getId()) == booking;
+    }
+
+    /**
+     * Performs an action for every booking.
+     * Bookings added or removed during the iteration may or may not be visited.
+     *
+     * @param action The action to perform.
+     */
+    public void forEach(Consumer<? super Booking> action) {
+        bookingsByHandle.forEach(action);
+    }
+
+    /**
+     * Returns the number of active bookings.
+     *
+     * @return The number of bookings.
+     */
+    public int size() {
+        return bookingsByHandle.size();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.booking.service;
+
+import com.example.booking.repository.DeviceIdBlockStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out device id numbers per phone model from blocks allocated by the {@link DeviceIdBlockStore}.
+ * <p>
+ * Each model has a current block of {@code BLOCK_SIZE} numbers; ids are taken from it with a single
+ * {@link AtomicLong} increment, so the store is reached only once per block. When a block runs out, one
+ * thread allocates the next one under a per-model lock while the others wait for it. A
+ * {@link ReentrantLock} is used rather than {@code synchronized}, so virtual threads waiting for the
+ * allocation do not pin their carrier threads.
+ * </p>
+ * <p>
+ * Numbers left in the current block at shutdown are never handed out; ids are unique, not gapless.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeviceIdAllocator {
+
+    static final int BLOCK_SIZE = 100;
+
+    private final DeviceIdBlockStore blockStore;
+
+    private final ConcurrentHashMap<String, IdBlock> blocks = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, ReentrantLock> refillLocks = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the next id number of a model.
+     *
+     * @param model The phone model.
+     * @return A number never returned before for this model, by any node.
+     */
+    public long nextId(String model) {
+        while (true) {
+            IdBlock block = blocks.get(model);
+            if (block != null) {
+                long id = block.next().getAndIncrement();
+                if (id < block.limit()) {
+                    return id;
+                }
+            }
+            refill(model, block);
+        }
+    }
+
+    /**
+     * Reserves a contiguous range of id numbers of a model, e.g. for bulk provisioning.
+     * The range is allocated directly from the store and leaves the current block untouched.
+     *
+     * @param model The phone model.
+     * @param count The number of ids to reserve.
+     * @return The first number of the range {@code [first, first + count)}.
+     */
+    public long reserveRange(String model, int count) {
+        return allocate(model, count);
+    }
+
+    private void refill(String model, IdBlock exhausted) {
+        ReentrantLock lock = refillLocks.computeIfAbsent(model, m -> new ReentrantLock());
+        lock.lock();
+        try {
+            // Another thread may have installed a new block while this one waited for the lock
+            if (blocks.get(model) == exhausted) {
+                long first = allocate(model, BLOCK_SIZE);
+                blocks.put(model, new IdBlock(new AtomicLong(first), first + BLOCK_SIZE));
+                log.debug("Allocated device ids {}..{} of model {}", first, first + BLOCK_SIZE - 1, model);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long allocate(String model, int size) {
+        try {
+            return blockStore.allocateBlock(model, size);
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the sequence of this model at the same time; it exists now
+            return blockStore.allocateBlock(model, size);
+        }
+    }
+
+    // Forgets the current blocks, so the next id of every model allocates a new block; for tests
+    void clear() {
+        blocks.clear();
+    }
+
+    private record IdBlock(AtomicLong next, long limit) {
+    }
+}
@@ -1,6 +1,12 @@
 package com.example.booking.service;
 
+import com.example.booking.factory.catalog.PhoneModelCatalog;
+import com.example.booking.factory.catalog.PhoneModelSpec;
+import com.example.booking.metrics.MonitoringMetrics;
 import com.example.booking.monitoring.DeviceMonitor;
+import com.example.booking.monitoring.DeviceSamplingQueue;
+import com.example.booking.monitoring.ModelDictionary;
+import com.example.booking.monitoring.SamplingCadence;
 import com.example.booking.monitoring.entity.DeviceContext;
 import com.example.booking.monitoring.entity.DeviceMetrics;
 import lombok.AllArgsConstructor;
@@ -8,12 +14,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.Collection;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Service responsible for simulating changes in device metrics.
- * This service is scheduled to run periodically to simulate metrics changes for devices being monitored.
+ * Devices are sampled when they become due in the {@link DeviceSamplingQueue}; the delay until the next
+ * sample of a device is chosen by {@link SamplingCadence}, so busy or troubled devices are sampled often
+ * and idle ones rarely.
  *
  * @author Milos Holclajtner
  * @version 1.0
@@ -26,18 +33,72 @@ public class DeviceMetricsSimulationService {
 
     private final DeviceMonitoringService deviceMonitoringService;
     private final BookingManager bookingManager;
+    private final DeviceSamplingQueue samplingQueue;
+    private final MonitoringMetrics monitoringMetrics;
+    private final ModelDictionary modelDictionary;
 
     /**
      * Scheduled task to simulate changes in device metrics.
-     * This method runs periodically to simulate changes in device metrics for devices that are currently booked.
-     * It randomly updates the battery level and memory usage for each device being monitored.
+     * This method polls only the devices whose sample is due. Booked devices get randomly updated
+     * battery level and memory usage; the other devices just have their monitoring tasks re-run.
+     * Every sampled device is then rescheduled according to its current metrics and booking state.
      */
-    @Scheduled(fixedRate = 10000) // Simulate metrics change every 10 seconds
+    @Scheduled(fixedDelay = 250) // Dispatch due samples every 250 ms
     public void simulateMetricsChange() {
-        Collection<DeviceMonitor> monitors = deviceMonitoringService.getDeviceMonitorsMap().values();
-        monitors.stream()
-                .filter(device -> bookingManager.isDeviceBooked(device.getContext().deviceId()))
-                .forEach(this::randomlyUpdateDeviceMetrics);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            DeviceSamplingQueue.ScheduledSample due;
+            while ((due = samplingQueue.pollDue()) != null) {
+                sampleDevice(due);
+            }
+            failed = false;
+        } finally {
+            monitoringMetrics.recordSweep("sampling", start, 250, failed);
+        }
+    }
+
+    /**
+     * Samples a single due device and puts it back into the queue.
+     *
+     * @param due The due entry polled from the sampling queue.
+     */
+    private void sampleDevice(DeviceSamplingQueue.ScheduledSample due) {
+        DeviceMonitor monitor = deviceMonitoringService.getDeviceMonitor(due.getHandle());
+        if (monitor == null) {
+            samplingQueue.unregister(due.getHandle());
+            return;
+        }
+
+        String deviceId = monitor.getContext().deviceId();
+        boolean booked = bookingManager.isDeviceBooked(deviceId);
+        try {
+            if (booked) {
+                randomlyUpdateDeviceMetrics(monitor);
+            } else {
+                monitor.startMonitoring();
+            }
+        } catch (RuntimeException e) {
+            log.error("Sampling failed for device: {}", deviceId, e);
+        } finally {
+            samplingQueue.reschedule(due, nextIntervalMillis(monitor, booked));
+        }
+    }
+
+    /**
+     * Computes the sampling interval of a device with the thresholds of its catalog model.
+     *
+     * @param monitor The monitor of the device.
+     * @param booked  Whether the device is currently booked.
+     * @return The delay in milliseconds until the device should be sampled again.
+     */
+    private long nextIntervalMillis(DeviceMonitor monitor, boolean booked) {
+        DeviceMetrics metrics = monitor.getContext().metrics();
+        PhoneModelSpec spec = PhoneModelCatalog.find(modelDictionary.nameOf(monitor.getModelCode()));
+        if (spec == null) {
+            return SamplingCadence.nextIntervalMillis(metrics, booked);
+        }
+        return SamplingCadence.nextIntervalMillis(metrics, booked, spec.lowBatteryLevel(), spec.lowFreeMemoryMb());
     }
 
     /**
@@ -49,7 +110,7 @@ public class DeviceMetricsSimulationService {
     private void randomlyUpdateDeviceMetrics(DeviceMonitor monitor) {
 
         DeviceMetrics currentMetrics = monitor.getContext().metrics();
-        Random random = new Random();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
 
         long maxMemoryDecrease = (long) (currentMetrics.totalMemory() * 0.05); // 5% of total memory
         long memoryDecrease = (maxMemoryDecrease > 0) ? (random.nextLong(maxMemoryDecrease) + 1) : 0;
@@ -78,7 +139,8 @@ public class DeviceMetricsSimulationService {
 
         deviceMonitoringService.updateDeviceMonitorContext(monitor, newContext);
 
-        log.info(STR."Updated metrics for device: \{newContext.deviceId()}. New Free Memory: \{newFreeMemory} MB, New Battery Level: \{newBatteryLevel}%");
+        log.debug("Updated metrics for device: {}. New Free Memory: {} MB, New Battery Level: {}%",
+                newContext.deviceId(), newFreeMemory, newBatteryLevel);
 
     }
 }
\ No newline at end of file
@@ -1,36 +1,67 @@
 package com.example.booking.service;
 
+import com.example.booking.cluster.BookingRouter;
 import com.example.booking.entity.Booking;
+import com.example.booking.entity.DeviceMetricsLatest;
 import com.example.booking.entity.MobilePhone;
-import com.example.booking.entity.event.MobilePhoneAddedEvent;
-import com.example.booking.repository.MobilePhoneRepository;
+import com.example.booking.entity.dto.DeviceStatusView;
+import com.example.booking.entity.event.DeviceOwnershipChangedEvent;
+import com.example.booking.factory.catalog.PhoneModelCatalog;
+import com.example.booking.factory.catalog.PhoneModelSpec;
+import com.example.booking.metrics.MonitoringMetrics;
+import com.example.booking.repository.DeviceMetricsLatestStore;
+import com.example.booking.repository.MobilePhoneStore;
+import com.example.booking.monitoring.DenseTable;
+import com.example.booking.monitoring.DeviceHandles;
 import com.example.booking.monitoring.DeviceMonitor;
+import com.example.booking.monitoring.DeviceSamplingQueue;
+import com.example.booking.monitoring.DeviceStatusCache;
+import com.example.booking.monitoring.ModelDictionary;
+import com.example.booking.monitoring.MonitoringResultTable;
+import com.example.booking.monitoring.SamplingCadence;
 import com.example.booking.monitoring.entity.DeviceContext;
 import com.example.booking.monitoring.entity.DeviceMetrics;
-import com.example.booking.monitoring.tasks.BatteryLevelCheck;
-import com.example.booking.monitoring.tasks.MemoryUsageCheck;
 import com.example.booking.monitoring.tasks.MonitoringTask;
-import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * Service for monitoring device metrics such as battery level and memory usage.
  * <p>This service initializes monitoring tasks for mobile devices upon application startup,
  * handling device contexts and invoking monitoring tasks to periodically check and update
  * device metrics.</p>
+ * <p>The monitoring tasks are stateless singleton beans discovered from the Spring context and shared
+ * by every {@link DeviceMonitor}; their per-device results live in the
+ * {@link com.example.booking.monitoring.MonitoringResultTable}.</p>
+ * <p>The monitors are indexed by their {@link DeviceHandles} handle; string device ids are translated
+ * only by the lookups used at the API edge.</p>
+ * <p>Only the devices this node owns according to the {@link BookingRouter} are monitored, which in a single
+ * instance are all of them. In a cluster each node monitors and samples its share of the fleet, its status
+ * endpoints cover that share, and the monitors follow the owners when a {@link DeviceOwnershipChangedEvent}
+ * reports that the members changed.</p>
  *
  * @author Milos Holclajtner
  * @version 1.0
@@ -41,15 +72,69 @@ import java.util.concurrent.ConcurrentHashMap;
 @RequiredArgsConstructor
 public class DeviceMonitoringService {
 
-    private final List<MonitoringTask> monitoringTasks = new ArrayList<>();
+    // A thread-safe table to hold the DeviceMonitors indexed by device handle
+    private final DenseTable<DeviceMonitor> deviceMonitors = new DenseTable<>();
 
-    // A thread-safe map to hold the DeviceMonitors keyed by deviceId
-    @Getter private final ConcurrentHashMap<String, DeviceMonitor> deviceMonitorsMap = new ConcurrentHashMap<>();
+    private final MobilePhoneStore mobilePhoneStore;
 
-    private final MobilePhoneRepository mobilePhoneRepository;
+    private final DeviceMetricsLatestStore latestMetricsStore;
 
     private final BookingManager bookingManager;
 
+    // All MonitoringTask beans registered in the context, shared by every DeviceMonitor
+    private final List<MonitoringTask> monitoringTasks;
+
+    private final DeviceSamplingQueue samplingQueue;
+
+    // The application-wide, fully configured mapper; used as the codec of every status generator
+    private final ObjectMapper objectMapper;
+
+    private final DeviceStatusCache statusCache;
+
+    private final MonitoringMetrics monitoringMetrics;
+
+    // Coalesces metrics updates and persists them in JDBC batches
+    private final MetricsWriteBehindBuffer metricsBuffer;
+
+    // Translates device ids to the handles indexing the monitors, the status cache and the sampling queue
+    private final DeviceHandles deviceHandles;
+
+    // Translates the model names of the phones to the codes kept by the monitors
+    private final ModelDictionary modelDictionary;
+
+    // Decides which devices this node owns and therefore monitors
+    private final BookingRouter bookingRouter;
+
+    // The task results of the devices, cleared when a device is no longer monitored here
+    private final MonitoringResultTable resultTable;
+
+    // Serializes the passes that start or stop monitors by ownership, so no device is bootstrapped twice
+    private final ReentrantLock ownershipLock = new ReentrantLock();
+
+    // Ownership changes not yet followed by a rebalance pass; the pass that counts it down to zero is the last
+    private final AtomicInteger rebalanceRequests = new AtomicInteger();
+
+    // Number of devices written between two flushes of a streamed status response
+    private static final int STATUS_FLUSH_INTERVAL = 256;
+
+    // Phones read per keyset page of the fleet sweep, and pages processed at the same time
+    static final int SWEEP_PAGE_SIZE = 500;
+    private static final int SWEEP_PARALLELISM = 4;
+
+    // Phones read per keyset page of the startup bootstrap, and pages bootstrapped at the same time
+    static final int BOOTSTRAP_PAGE_SIZE = 1000;
+    private static final int BOOTSTRAP_PARALLELISM = 8;
+    private static final int BOOTSTRAP_PROGRESS_INTERVAL = 10;
+
+    /**
+     * Output formats supported when streaming the status of all devices.
+     */
+    public enum StatusStreamFormat {
+        /** A single JSON array containing one object per device. */
+        JSON,
+        /** Newline-delimited JSON with one object per line. */
+        NDJSON
+    }
 
     /**
      * Converts a MobilePhone entity into a DeviceContext object.
@@ -65,70 +150,422 @@ public class DeviceMonitoringService {
     /**
      * Initializes device contexts and starts monitoring upon application readiness.
      * <p>This method is triggered by the ApplicationReadyEvent, ensuring that the monitoring
-     * starts only after the application has been fully initialized.</p>
-     * <p>Fetches all mobile phones from the repository, converts them to device contexts,
-     * and starts monitoring each device with configured tasks.</p>
+     * starts only after the application has been fully initialized. It runs synchronously on the
+     * event thread, and Spring Boot publishes {@code ReadinessState.ACCEPTING_TRAFFIC} only after the
+     * ready listeners returned, so the application reports itself ready once every device is monitored.</p>
+     * <p>The phones are read one keyset page of {@code BOOTSTRAP_PAGE_SIZE} at a time together with their
+     * latest metrics, and every page is bootstrapped on a virtual thread while the next one is fetched.
+     * At most {@code BOOTSTRAP_PARALLELISM} pages are held at once, so memory stays bounded regardless of
+     * the fleet size. A phone without recorded metrics, e.g. because the process stopped before its initial
+     * sample left the {@link MetricsWriteBehindBuffer}, starts from the default metrics of its model, which
+     * are recorded as its initial sample; only phones of an unknown model are skipped.</p>
+     * <p>Phones owned by other nodes of a cluster are skipped as well. A node that does not know its members
+     * yet owns no phones and skips the bootstrap; the first {@link DeviceOwnershipChangedEvent} starts it.</p>
      */
     @EventListener(ApplicationReadyEvent.class)
     public void initializeAndStartMonitoring() {
-        Collection<MobilePhone> mobilePhones = mobilePhoneRepository.findAll();
-
-        List<DeviceContext> deviceContexts = mobilePhones.stream()
-                .map(phone -> {
-                    phone.updateDeviceMetrics();
-                    return new DeviceContext(
-                            phone.getId(),
-                            new DeviceMetrics(
-                                    phone.getBatteryLevel(),
-                                    phone.getTotalMemory(),
-                                    phone.getFreeMemory(),
-                                    phone.getSystemLoad()
-                            ));
-                })
+        if (!bookingRouter.ownsDevices()) {
+            log.info("Bootstrap deferred until this node knows the members of its cluster");
+            return;
+        }
+        ownershipLock.lock();
+        try {
+            bootstrapOwnedPhones("Bootstrap");
+        } finally {
+            ownershipLock.unlock();
+        }
+    }
+
+    /**
+     * Reads the fleet page by page and starts monitoring every owned phone that is not monitored yet.
+     *
+     * @param pass The name of the pass in the log.
+     */
+    private void bootstrapOwnedPhones(String pass) {
+        long start = System.nanoTime();
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Semaphore pagesInFlight = new Semaphore(BOOTSTRAP_PARALLELISM);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            String afterId = "";
+            int pages = 0;
+            List<MobilePhone> page;
+            do {
+                page = mobilePhoneStore.findPageAfter(afterId, Limit.of(BOOTSTRAP_PAGE_SIZE));
+                if (page.isEmpty()) {
+                    break;
+                }
+                afterId = page.getLast().getId();
+
+                pagesInFlight.acquire();
+                List<MobilePhone> chunk = page;
+                executor.submit(() -> {
+                    try {
+                        bootstrapPage(chunk, started, skipped);
+                    } catch (RuntimeException e) {
+                        failed.addAndGet(chunk.size());
+                        log.error("Bootstrap failed for a page of {} devices", chunk.size(), e);
+                    } finally {
+                        pagesInFlight.release();
+                    }
+                });
+                if (++pages % BOOTSTRAP_PROGRESS_INTERVAL == 0) {
+                    log.info("{} progress: {} pages read, {} devices monitored", pass, pages, started.get());
+                }
+            } while (page.size() == BOOTSTRAP_PAGE_SIZE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("{} was interrupted after {} devices", pass, started.get());
+        }
+        log.info("{} finished in {} ms: {} devices monitored, {} without metrics or model, {} failed", pass,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), started.get(), skipped.get(), failed.get());
+    }
+
+    /**
+     * Starts monitoring the owned and not yet monitored phones of one bootstrap page and registers their monitors.
+     *
+     * @param page    The page of phones.
+     * @param started Counts the devices whose monitoring was started.
+     * @param skipped Counts the devices without recorded metrics and of an unknown model.
+     */
+    private void bootstrapPage(List<MobilePhone> page, AtomicInteger started, AtomicInteger skipped) {
+        List<MobilePhone> phones = page.stream()
+                .filter(phone -> bookingRouter.owns(phone.getId()) && getDeviceMonitor(phone.getId()) == null)
                 .toList();
+        if (phones.isEmpty()) {
+            return;
+        }
+        Map<String, DeviceMetrics> latestMetrics = new HashMap<>(phones.size() * 2);
+        latestMetricsStore.findAllById(phones.stream().map(MobilePhone::getId).toList())
+                .forEach(latest -> latestMetrics.put(latest.getDeviceId(), latest.getMetrics()));
+
+        for (MobilePhone phone : phones) {
+            DeviceMetrics metrics = latestMetrics.get(phone.getId());
+            int handle = deviceHandles.register(phone.getId());
+            if (metrics == null) {
+                PhoneModelSpec spec = PhoneModelCatalog.find(phone.getModel());
+                if (spec == null) {
+                    log.debug("No metrics recorded for device {} of unknown model {}", phone.getId(), phone.getModel());
+                    skipped.incrementAndGet();
+                    continue;
+                }
+                metrics = spec.defaultMetrics();
+                metricsBuffer.enqueue(handle, metrics); // the initial sample that was never written
+            }
+            phone.setDeviceMetrics(metrics);
+            phone.updateDeviceMetrics();
+
+            DeviceContext context = createDeviceContextFromMobilePhone(phone);
+            DeviceMonitor monitor = new DeviceMonitor(context, monitoringTasks, modelDictionary.codeOf(phone.getModel()), handle);
+            monitor.startMonitoring();
+            addDeviceMonitor(monitor);
+            samplingQueue.register(monitor.getHandle());
+            started.incrementAndGet();
+        }
+    }
+
+    /**
+     * Follows a change of the devices this node owns: stops monitoring the devices now owned by other nodes and
+     * bootstraps the owned devices that are not monitored yet.
+     * <p>
+     * The pass runs on a virtual thread, so the scheduler thread that published the event is not held up, and
+     * changes arriving while it runs are followed by one more pass.
+     * </p>
+     *
+     * @param event The event published once the bookings of the owned devices are in place.
+     */
+    @EventListener
+    public void onDeviceOwnershipChanged(DeviceOwnershipChangedEvent event) {
+        if (rebalanceRequests.getAndIncrement() == 0) {
+            Thread.ofVirtual().name("monitor-rebalance").start(this::rebalanceWhileRequested);
+        }
+    }
+
+    private void rebalanceWhileRequested() {
+        int followed;
+        do {
+            followed = rebalanceRequests.get();
+            try {
+                rebalanceMonitors();
+            } catch (RuntimeException e) {
+                log.error("Following the devices owned by this node failed", e);
+            }
+        } while (rebalanceRequests.addAndGet(-followed) > 0);
+    }
+
+    /**
+     * Stops monitoring the devices owned by other nodes and bootstraps the owned devices that are not monitored.
+     */
+    void rebalanceMonitors() {
+        ownershipLock.lock();
+        try {
+            List<DeviceMonitor> released = new ArrayList<>();
+            deviceMonitors.forEach(monitor -> {
+                if (!bookingRouter.owns(monitor.getContext().deviceId())) {
+                    released.add(monitor);
+                }
+            });
+            released.forEach(this::removeDeviceMonitor);
+            log.info("Released the monitoring of {} devices owned by other nodes", released.size());
+            bootstrapOwnedPhones("Rebalance");
+        } finally {
+            ownershipLock.unlock();
+        }
+    }
+
+    /**
+     * Starts monitoring phones that another node of a cluster created and forwarded to this node, their owner.
+     * The phones are read from the store and bootstrapped like at startup; phones that this node does not own
+     * or already monitors are skipped.
+     *
+     * @param phoneIds The identifiers of the phones.
+     * @return The number of devices whose monitoring was started.
+     */
+    public int registerForwardedMonitors(Collection<String> phoneIds) {
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+        ownershipLock.lock();
+        try {
+            bootstrapPage(mobilePhoneStore.findAllById(phoneIds), started, skipped);
+        } finally {
+            ownershipLock.unlock();
+        }
+        return started.get();
+    }
+
+    /**
+     * Returns the monitor of a device.
+     *
+     * @param handle The handle of the device.
+     * @return The monitor, or {@code null} if the device is not monitored.
+     */
+    public DeviceMonitor getDeviceMonitor(int handle) {
+        return deviceMonitors.get(handle);
+    }
+
+    /**
+     * Returns the monitor of a device identified by its string id, as received at the API edge.
+     *
+     * @param deviceId The unique identifier of the device.
+     * @return The monitor, or {@code null} if the device is not monitored.
+     */
+    public DeviceMonitor getDeviceMonitor(String deviceId) {
+        int handle = deviceHandles.handleOf(deviceId);
+        return handle == DeviceHandles.UNKNOWN ? null : deviceMonitors.get(handle);
+    }
+
+    /**
+     * Returns the number of monitored devices.
+     *
+     * @return The number of registered monitors.
+     */
+    public int getMonitoredDeviceCount() {
+        return deviceMonitors.size();
+    }
+
+    /**
+     * Registers a monitor under the handle of its device, replacing any previous monitor of the device,
+     * and gives the device a new status version.
+     * <p>
+     * The version is assigned after the monitor is visible, so a client that saw the fleet version before
+     * the device was added receives it with its next delta query.
+     * </p>
+     *
+     * @param monitor The monitor to register, with its tasks already run.
+     */
+    void addDeviceMonitor(DeviceMonitor monitor) {
+        deviceMonitors.set(monitor.getHandle(), monitor);
+        statusCache.markChanged(monitor.getHandle());
+    }
 
-        deviceContexts.stream()
-                .map(ctx -> new DeviceMonitor(ctx, List.of(new BatteryLevelCheck(), new MemoryUsageCheck())))
-                .forEach(DeviceMonitor::startMonitoring);
+    /**
+     * Unregisters a monitor and forgets its sampling entry, cached status and task results.
+     *
+     * @param monitor The monitor to remove.
+     */
+    private void removeDeviceMonitor(DeviceMonitor monitor) {
+        int handle = monitor.getHandle();
+        if (deviceMonitors.compareAndSet(handle, monitor, null)) {
+            samplingQueue.unregister(handle);
+            statusCache.remove(handle);
+            resultTable.remove(handle);
+        }
     }
 
     /**
      * Retrieves the status of all monitored devices.
      *
-     * @return A collection or string representing the status of all devices.
+     * @return A JSON array representing the status of all devices.
      */
     public String getAllPhoneStatuses() {
-        List<Map<String, Object>> allStatuses = new ArrayList<>();
+        return new String(getPhoneStatuses(0), StandardCharsets.UTF_8);
+    }
 
-        for (DeviceMonitor monitor : deviceMonitorsMap.values()) {
-            Map<String, Object> statusMap = new HashMap<>();
-            DeviceContext context = monitor.getContext();
+    /**
+     * Retrieves the status of the devices that changed after the given version as a JSON array.
+     * <p>
+     * The per-device JSON comes from the {@link DeviceStatusCache}, so only devices that changed since
+     * they were last serialized are serialized again.
+     * </p>
+     *
+     * @param sinceVersion Only devices whose version is greater than this are included; {@code 0} includes all.
+     * @return The UTF-8 encoded JSON array.
+     */
+    public byte[] getPhoneStatuses(long sinceVersion) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            writePhoneStatuses(buffer, StatusStreamFormat.JSON, sinceVersion);
+        } catch (IOException e) {
+            log.error("Error while converting statuses to JSON", e);
+            return "{\"error\": \"Failed to convert statuses to JSON\"}".getBytes(StandardCharsets.UTF_8);
+        }
+        return buffer.toByteArray();
+    }
 
+    /**
+     * Returns the current version of the fleet status. It changes whenever the status of any device changes
+     * and can be passed back as {@code sinceVersion} to fetch only the devices that changed afterwards.
+     *
+     * @return The current fleet status version.
+     */
+    public long getStatusVersion() {
+        return statusCache.getFleetVersion();
+    }
 
-            statusMap.put("deviceId", context.deviceId());
-            statusMap.put("status", monitor.getStatus());
-            statusMap.put("booking", findBookingByDeviceId(context.deviceId()));
-            statusMap.put("metrics", context.metrics());
+    /**
+     * Streams the status of all monitored devices to the given output stream.
+     *
+     * @param out    The stream to write to, typically the HTTP response body.
+     * @param format Whether to write a JSON array or newline-delimited JSON.
+     * @throws IOException if writing to the stream fails.
+     * @see #writePhoneStatuses(OutputStream, StatusStreamFormat, long)
+     */
+    public void writeAllPhoneStatuses(OutputStream out, StatusStreamFormat format) throws IOException {
+        writePhoneStatuses(out, format, 0);
+    }
 
-            allStatuses.add(statusMap);
+    /**
+     * Streams the status of the devices that changed after the given version to the given output stream.
+     * <p>
+     * The cached JSON of each device is copied straight to the stream, without building any intermediate
+     * collection, and the stream is flushed periodically. Memory use therefore stays flat regardless of the
+     * fleet size. A device whose cached JSON is outdated is serialized once by a {@link JsonGenerator} created
+     * from the shared {@link ObjectMapper}. The output stream is flushed but not closed.
+     * </p>
+     *
+     * @param out          The stream to write to, typically the HTTP response body.
+     * @param format       Whether to write a JSON array or newline-delimited JSON.
+     * @param sinceVersion Only devices whose version is greater than this are written; {@code 0} writes all.
+     * @throws IOException if writing to the stream fails.
+     */
+    public void writePhoneStatuses(OutputStream out, StatusStreamFormat format, long sinceVersion) throws IOException {
+        boolean ndjson = format == StatusStreamFormat.NDJSON;
+        if (!ndjson) {
+            out.write('[');
         }
 
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.setSerializationInclusion(JsonInclude.Include.ALWAYS);
-        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        mapper.registerModule(new JavaTimeModule());
-        mapper.findAndRegisterModules();
+        StatusWriter writer = new StatusWriter(out, ndjson, sinceVersion);
+        try {
+            deviceMonitors.forEach(writer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
 
-        String jsonResponse;
+        if (!ndjson) {
+            out.write(']');
+        }
+        out.flush();
+    }
 
-        try {
-            jsonResponse = mapper.writeValueAsString(allStatuses);
-        } catch (Exception e) {
-            log.error("Error while converting statuses to JSON", e);
-            jsonResponse = "{\"error\": \"Failed to convert statuses to JSON\"}";
+    /**
+     * Writes the cached status of every visited monitor that changed after a version; the iteration
+     * state of {@link #writePhoneStatuses(OutputStream, StatusStreamFormat, long)}.
+     */
+    private final class StatusWriter implements Consumer<DeviceMonitor> {
+
+        private final OutputStream out;
+        private final boolean ndjson;
+        private final long sinceVersion;
+        private int written;
+
+        private StatusWriter(OutputStream out, boolean ndjson, long sinceVersion) {
+            this.out = out;
+            this.ndjson = ndjson;
+            this.sinceVersion = sinceVersion;
+        }
+
+        @Override
+        public void accept(DeviceMonitor monitor) {
+            try {
+                byte[] json = statusCache.serializedSince(monitor.getHandle(), sinceVersion,
+                        version -> serializePhoneStatus(monitor, version));
+                if (json == null) {
+                    return;
+                }
+
+                if (!ndjson && written > 0) {
+                    out.write(',');
+                }
+                out.write(json);
+                if (ndjson) {
+                    out.write('\n');
+                }
+                if (++written % STATUS_FLUSH_INTERVAL == 0) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
+    }
+
+    /**
+     * Builds the flat status projection of a single device from its monitor and its active booking.
+     *
+     * @param monitor The monitor of the device.
+     * @param version The status version the projection is produced for.
+     * @return The projection of the device status.
+     */
+    DeviceStatusView projectPhoneStatus(DeviceMonitor monitor, long version) {
+        DeviceContext context = monitor.getContext();
+        return DeviceStatusView.of(context.deviceId(), version, modelDictionary.nameOf(monitor.getModelCode()), context.metrics(),
+                findBookingByDeviceId(context.deviceId()));
+    }
 
-        return jsonResponse;
+    /**
+     * Serializes the status object of a single device.
+     * <p>
+     * The {@link DeviceStatusView} is written field by field, so the JSON is flat and no bean introspection
+     * is involved. The booking fields are only written for a booked device.
+     * </p>
+     *
+     * @param monitor The monitor of the device.
+     * @param version The status version the JSON is produced for.
+     * @return The UTF-8 encoded JSON object.
+     * @throws IOException if serialization fails.
+     */
+    private byte[] serializePhoneStatus(DeviceMonitor monitor, long version) throws IOException {
+        DeviceStatusView view = projectPhoneStatus(monitor, version);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("deviceId", view.deviceId());
+            generator.writeNumberField("version", view.version());
+            generator.writeStringField("model", view.model());
+            generator.writeBooleanField("available", view.available());
+            generator.writeNumberField("batteryLevel", view.batteryLevel());
+            generator.writeNumberField("totalMemory", view.totalMemory());
+            generator.writeNumberField("freeMemory", view.freeMemory());
+            generator.writeNumberField("systemLoad", view.systemLoad());
+            if (!view.available()) {
+                generator.writeStringField("bookedBy", view.bookedBy());
+                generator.writeObjectField("bookedAt", view.bookedAt());
+            }
+            generator.writeEndObject();
+        }
+        return buffer.toByteArray();
     }
 
     /**
@@ -142,36 +579,79 @@ public class DeviceMonitoringService {
     }
 
     /**
-     * Handles the MobilePhoneAddedEvent to set up monitoring for the new mobile phone.
+     * Creates and starts a DeviceMonitor for every given phone and registers it for periodic sampling.
+     * The initial metrics of every phone are handed to the {@link MetricsWriteBehindBuffer}, which persists
+     * them in JDBC batches.
      * <p>
-     * This method responds to the MobilePhoneAddedEvent by creating a new DeviceMonitor
-     * for the added phone and starts monitoring its metrics.
+     * Called by the {@link MonitorRegistrationQueue} for the phones added by committed transactions, which
+     * this node owns.
+     * </p>
      *
-     * @param event The event that gets fired when a new mobile phone is added.
+     * @param phones The new phones, already saved by the {@link MobilePhoneService}.
      */
-    @EventListener
-    public void onMobilePhoneAdded(MobilePhoneAddedEvent event) {
-        MobilePhone phone = event.getMobilePhone();
-        DeviceContext context = createDeviceContextFromMobilePhone(phone);
-        DeviceMonitor newMonitor = new DeviceMonitor(context, monitoringTasks);
-        deviceMonitorsMap.put(context.deviceId(), newMonitor);
-        mobilePhoneRepository.save(phone);
-
-        newMonitor.startMonitoring();
+    public void registerMonitors(Collection<MobilePhone> phones) {
+        ownershipLock.lock();
+        try {
+            for (MobilePhone phone : phones) {
+                DeviceContext context = createDeviceContextFromMobilePhone(phone);
+                DeviceMonitor newMonitor = new DeviceMonitor(context, monitoringTasks, modelDictionary.codeOf(phone.getModel()),
+                        deviceHandles.register(phone.getId()));
+                newMonitor.startMonitoring();
+                addDeviceMonitor(newMonitor);
+                metricsBuffer.enqueue(newMonitor.getHandle(), context.metrics()); // the initial sample
+                samplingQueue.register(newMonitor.getHandle());
+            }
+        } finally {
+            ownershipLock.unlock();
+        }
     }
 
     /**
      * Periodically checks and updates the metrics of booked devices.
      * <p>
      * This scheduled task runs every 10 seconds to update device metrics for devices
-     * that are not currently available (assumed to be booked). It checks if the free memory
-     * is below a certain threshold and updates metrics accordingly.
+     * that are not currently available (assumed to be booked) and whose latest free memory is below the
+     * {@link SamplingCadence#LOW_FREE_MEMORY_MB} threshold. Both conditions are evaluated by the database,
+     * so only the rows the sweep acts on are read, one keyset page at a time. Pages are processed on virtual
+     * threads while the next page is fetched; at most {@code SWEEP_PARALLELISM} pages are held at once.
+     * In a cluster every node reads the same rows and updates only the devices it owns.
      */
     @Scheduled(fixedDelay = 10000) // runs every 10 seconds
     public void monitorAndUpdateDeviceMetrics() {
-        mobilePhoneRepository.findAll().stream()
-                .filter(mobilePhone -> !mobilePhone.isAvailable())
-                .forEach(this::updateDeviceMetricsIfNeeded);
+        long start = System.nanoTime();
+        boolean failed = true;
+        Semaphore pagesInFlight = new Semaphore(SWEEP_PARALLELISM);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            String afterId = "";
+            List<DeviceMetricsLatest> page;
+            do {
+                page = latestMetricsStore.findBookedWithFreeMemoryBelow(SamplingCadence.LOW_FREE_MEMORY_MB, afterId, Limit.of(SWEEP_PAGE_SIZE));
+                if (page.isEmpty()) {
+                    break;
+                }
+                afterId = page.getLast().getDeviceId();
+
+                pagesInFlight.acquire();
+                List<DeviceMetricsLatest> chunk = page;
+                executor.submit(() -> {
+                    try {
+                        chunk.stream()
+                                .filter(latest -> bookingRouter.owns(latest.getDeviceId()))
+                                .forEach(latest -> updateDeviceMetricsIfNeeded(latest.getDeviceId(), latest.getMetrics()));
+                    } catch (RuntimeException e) {
+                        log.error("Fleet sweep failed for a page of {} devices", chunk.size(), e);
+                    } finally {
+                        pagesInFlight.release();
+                    }
+                });
+            } while (page.size() == SWEEP_PAGE_SIZE);
+            failed = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Fleet sweep was interrupted");
+        } finally {
+            monitoringMetrics.recordSweep("fleet-metrics", start, 10000, failed);
+        }
     }
 
     /**
@@ -179,14 +659,14 @@ public class DeviceMonitoringService {
      * <p>
      * For example, if the free memory is below a certain threshold, it will update the metrics.
      * This method should contain the actual logic to assess and update the device's metrics.
+     * The new metrics are handed to the {@link MetricsWriteBehindBuffer} instead of being saved right away.
      *
-     * @param device The device for which metrics need to be updated.
+     * @param deviceId       The device for which metrics need to be updated.
+     * @param currentMetrics The latest recorded metrics of the device.
      */
-    void updateDeviceMetricsIfNeeded(MobilePhone device) {
-        DeviceMetrics currentMetrics = device.getDeviceMetrics();
-
-        if (currentMetrics.freeMemory() < 500) { // 500 MB threshold
-            log.info("Updating metrics for device: {}", device.getId());
+    void updateDeviceMetricsIfNeeded(String deviceId, DeviceMetrics currentMetrics) {
+        if (currentMetrics.freeMemory() < SamplingCadence.LOW_FREE_MEMORY_MB) { // 500 MB threshold
+            log.debug("Updating metrics for device: {}", deviceId);
 
             DeviceMetrics updatedMetrics = new DeviceMetrics(
                     currentMetrics.batteryLevel(),
@@ -194,30 +674,24 @@ public class DeviceMonitoringService {
                     currentMetrics.freeMemory() + 100,
                     currentMetrics.systemLoad()
             );
-            device.setDeviceMetrics(updatedMetrics);
-            mobilePhoneRepository.save(device);
+            metricsBuffer.enqueue(deviceHandles.register(deviceId), updatedMetrics);
         }
     }
 
     /**
      * Updates the context of a device monitor for a given device.
      * <p>
-     * If the DeviceMonitor for a device needs to be updated with new context information,
-     * this method replaces the old DeviceMonitor with a new one initialized with the new context.
+     * The monitor keeps its shared, stateless tasks; only its context is swapped before the
+     * tasks are run again for that device and its status version is bumped. No other monitor is touched.
+     * The new metrics are recorded as a sample through the {@link MetricsWriteBehindBuffer}.
      *
-     * @param oldMonitor The existing DeviceMonitor that needs to be updated.
+     * @param monitor    The existing DeviceMonitor that needs to be updated.
      * @param newContext The new DeviceContext information for the DeviceMonitor.
      */
-    public void updateDeviceMonitorContext(DeviceMonitor oldMonitor, DeviceContext newContext) {
-
-        // Since DeviceMonitor is immutable, create a new DeviceMonitor with the new context
-        DeviceMonitor newMonitor = new DeviceMonitor(newContext, List.of(new BatteryLevelCheck(), new MemoryUsageCheck()));
-
-        deviceMonitorsMap.replace(oldMonitor.getContext().deviceId(), newMonitor);
-
-        for(DeviceMonitor deviceMonitor:deviceMonitorsMap.values()) {
-            deviceMonitor.startMonitoring();
-        }
-
+    public void updateDeviceMonitorContext(DeviceMonitor monitor, DeviceContext newContext) {
+        monitor.updateContext(newContext);
+        monitor.startMonitoring();
+        statusCache.markChanged(monitor.getHandle());
+        metricsBuffer.enqueue(monitor.getHandle(), newContext.metrics());
     }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.example.booking.service;
+
+import com.example.booking.entity.DeviceMetricsLatest;
+import com.example.booking.entity.DeviceMetricsSample;
+import com.example.booking.monitoring.entity.DeviceMetrics;
+import com.example.booking.repository.DeviceMetricsLatestStore;
+import com.example.booking.repository.DeviceMetricsSampleStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a batch of coalesced device metrics in a single transaction.
+ * <p>
+ * Every device gets a new {@link DeviceMetricsSample} row and its {@link DeviceMetricsLatest} pointer is
+ * moved to that sample. The samples take their ids from a pooled sequence, so the inserts are grouped into
+ * JDBC batches by {@code hibernate.jdbc.batch_size} and {@code hibernate.order_inserts}; the existing pointers
+ * are loaded with one query and updated in batches by dirty checking. The phone rows are never touched.
+ * Kept in its own bean so the transactional proxy applies to calls coming from {@link MetricsWriteBehindBuffer}.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class MetricsBatchWriter {
+
+    private final DeviceMetricsSampleStore sampleStore;
+
+    private final DeviceMetricsLatestStore latestStore;
+
+    /**
+     * Persists the given metrics.
+     *
+     * @param metricsByDeviceId The latest metrics of every changed device, keyed by device id.
+     * @return The number of samples written.
+     */
+    @Transactional
+    public int write(Map<String, DeviceMetrics> metricsByDeviceId) {
+        Instant sampledAt = Instant.now();
+        List<DeviceMetricsSample> samples = new ArrayList<>(metricsByDeviceId.size());
+        metricsByDeviceId.forEach((deviceId, metrics) -> samples.add(new DeviceMetricsSample(deviceId, sampledAt, metrics)));
+        sampleStore.saveAll(samples); // ids are assigned here, the inserts are batched at flush
+
+        Map<String, DeviceMetricsLatest> pointers = new HashMap<>();
+        latestStore.findAllById(metricsByDeviceId.keySet()).forEach(latest -> pointers.put(latest.getDeviceId(), latest));
+
+        List<DeviceMetricsLatest> created = new ArrayList<>();
+        for (DeviceMetricsSample sample : samples) {
+            DeviceMetricsLatest latest = pointers.get(sample.getDeviceId());
+            if (latest == null) {
+                latest = new DeviceMetricsLatest(sample.getDeviceId());
+                created.add(latest);
+            }
+            latest.pointTo(sample);
+        }
+        latestStore.saveAll(created);
+        return samples.size();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.booking.service;
+
+import com.example.booking.repository.DeviceMetricsSampleStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Prunes the append-only history of device metrics samples.
+ * <p>
+ * Every hour the samples older than {@code booking.metrics.retention-days} (7 by default) are deleted.
+ * The latest sample of every device is kept whatever its age, so a device that has been idle for longer
+ * than the retention keeps its latest pointer and is still monitored after a restart.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Component
+public class MetricsSampleRetention {
+
+    private final DeviceMetricsSampleStore sampleStore;
+    private final Duration retention;
+
+    public MetricsSampleRetention(DeviceMetricsSampleStore sampleStore,
+                                  @Value("${booking.metrics.retention-days:7}") long retentionDays) {
+        this.sampleStore = sampleStore;
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    /**
+     * Deletes the samples that are older than the retention.
+     */
+    @Scheduled(fixedDelayString = "${booking.metrics.retention-sweep-millis:3600000}",
+            initialDelayString = "${booking.metrics.retention-sweep-millis:3600000}")
+    public void pruneSamples() {
+        int deleted = sampleStore.deleteSampledBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Deleted {} device metrics samples older than {} days", deleted, retention.toDays());
+        }
+    }
+}
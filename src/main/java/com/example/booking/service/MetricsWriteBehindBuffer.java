@@ -0,0 +1,150 @@
+package com.example.booking.service;
+
+import com.example.booking.monitoring.DenseTable;
+import com.example.booking.monitoring.DeviceHandles;
+import com.example.booking.monitoring.entity.DeviceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for device metrics.
+ * <p>
+ * Metrics updates are only recorded in memory; updates of the same device replace each other, so
+ * a device that changed many times between two flushes is written once, with its latest metrics.
+ * The buffer is flushed by {@link MetricsBatchWriter} in chunks of {@code FLUSH_CHUNK_SIZE}
+ * devices, every second and as soon as {@code FLUSH_SIZE_THRESHOLD} devices are pending.
+ * The remaining updates are flushed when the application shuts down.
+ * </p>
+ * <p>
+ * The pending metrics are held in a {@link DenseTable} indexed by the {@link DeviceHandles} handle of the
+ * device, so a pending device costs one array element and enqueuing neither hashes nor allocates. A flush
+ * translates the handles back to the device ids the {@link MetricsBatchWriter} writes.
+ * </p>
+ * <p>
+ * At most one size-triggered flush is scheduled at a time: the enqueuing thread that claims
+ * {@code flushScheduled} starts it, and every other enqueue leaves the pending entries to that flush.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MetricsWriteBehindBuffer {
+
+    // Number of pending devices that triggers a flush before the next scheduled one
+    static final int FLUSH_SIZE_THRESHOLD = 1_000;
+    // Number of devices written per transaction; a multiple of hibernate.jdbc.batch_size
+    static final int FLUSH_CHUNK_SIZE = 500;
+
+    private final MetricsBatchWriter batchWriter;
+    private final DeviceHandles deviceHandles;
+
+    private final DenseTable<DeviceMetrics> pending = new DenseTable<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /**
+     * Records the latest metrics of a device, replacing any update of the device that was not flushed yet.
+     *
+     * @param handle  The handle of the device, registered with {@link DeviceHandles}.
+     * @param metrics The metrics to persist.
+     */
+    public void enqueue(int handle, DeviceMetrics metrics) {
+        pending.set(handle, metrics);
+        if (pending.size() >= FLUSH_SIZE_THRESHOLD && flushScheduled.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("metrics-flush").start(this::sizeTriggeredFlush);
+        }
+    }
+
+    /**
+     * Returns the number of devices whose metrics wait to be written.
+     *
+     * @return The number of pending devices.
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Time trigger: flushes the pending updates every second.
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void scheduledFlush() {
+        flush();
+    }
+
+    /**
+     * Flushes the pending updates before the application context, and with it the data source, is closed.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        int written = flush();
+        log.info("Flushed {} pending device metrics on shutdown", written);
+    }
+
+    /**
+     * Writes all pending updates.
+     * <p>
+     * Entries are removed from the buffer before they are written, so updates arriving meanwhile are
+     * kept for the next flush. If a chunk fails, its entries are put back unless a newer update of the
+     * same device arrived in the meantime.
+     * </p>
+     *
+     * @return The number of phones written.
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            int written = 0;
+            Map<String, DeviceMetrics> failed = new HashMap<>();
+            Map<String, DeviceMetrics> chunk = new HashMap<>();
+            for (int handle = 0, capacity = pending.capacity(); handle < capacity; handle++) {
+                DeviceMetrics metrics = pending.get(handle) == null ? null : pending.set(handle, null); // empty slots are only read
+                if (metrics != null) {
+                    chunk.put(deviceHandles.idOf(handle), metrics);
+                }
+                if (chunk.size() == FLUSH_CHUNK_SIZE) {
+                    written += writeChunk(chunk, failed);
+                    chunk = new HashMap<>();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                written += writeChunk(chunk, failed);
+            }
+            // after iterating, so failed entries are not retried in this flush
+            failed.forEach((deviceId, metrics) -> pending.compareAndSet(deviceHandles.handleOf(deviceId), null, metrics));
+            return written;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void sizeTriggeredFlush() {
+        try {
+            flush();
+        } finally {
+            flushScheduled.set(false);
+        }
+    }
+
+    private int writeChunk(Map<String, DeviceMetrics> chunk, Map<String, DeviceMetrics> failed) {
+        try {
+            return batchWriter.write(chunk);
+        } catch (RuntimeException e) {
+            log.error("Writing metrics of {} devices failed, retrying with the next flush", chunk.size(), e);
+            failed.putAll(chunk);
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.booking.service;
+
+import com.example.booking.entity.MobilePhone;
+import com.example.booking.monitoring.ModelDictionary;
+import com.example.booking.repository.MobilePhoneStore;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded read-through cache of {@link MobilePhone} entities in front of {@link MobilePhoneStore}.
+ * <p>
+ * Lookups are served from memory once a phone was loaded. Unknown ids are cached as well (as an empty
+ * {@link Optional}) for a short time, so repeated lookups of mistyped ids do not reach the database either.
+ * Every write made by the booking and monitoring paths goes through this class and updates the cached
+ * entry. Writes made elsewhere (e.g. through the Spring Data REST endpoints) are picked up once the entry expires.
+ * Every loaded row carries its own copy of the model name, so a loaded phone gets the shared instance of its
+ * {@link ModelDictionary} before it is cached.
+ * </p>
+ * <p>
+ * Cache statistics are published as {@code cache.gets}, {@code cache.puts} and {@code cache.evictions}
+ * tagged with {@code cache=mobilePhones}, plus the {@code cache.hit.ratio} gauge.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class MobilePhoneCache {
+
+    static final String CACHE_NAME = "mobilePhones";
+
+    private static final long MAXIMUM_SIZE = 100_000;
+    private static final Duration PHONE_TTL = Duration.ofMinutes(10);
+    private static final Duration UNKNOWN_ID_TTL = Duration.ofSeconds(30);
+
+    // Number of locks serializing availability changes; phones are spread over them by the hash of their id
+    private static final int AVAILABILITY_LOCK_STRIPES = 64;
+
+    private final MobilePhoneStore mobilePhoneStore;
+
+    private final LoadingCache<String, Optional<MobilePhone>> phones;
+
+    private final ReentrantLock[] availabilityLocks = new ReentrantLock[AVAILABILITY_LOCK_STRIPES];
+
+    public MobilePhoneCache(MobilePhoneStore mobilePhoneStore, ModelDictionary modelDictionary, MeterRegistry meterRegistry) {
+        this.mobilePhoneStore = mobilePhoneStore;
+        for (int i = 0; i < availabilityLocks.length; i++) {
+            availabilityLocks[i] = new ReentrantLock();
+        }
+        this.phones = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .expireAfter(new PresenceExpiry())
+                .recordStats()
+                .build(phoneId -> mobilePhoneStore.findById(phoneId).map(phone -> {
+                    if (phone.getModel() != null) {
+                        phone.setModel(modelDictionary.canonical(phone.getModel()));
+                    }
+                    return phone;
+                }));
+
+        CaffeineCacheMetrics.monitor(meterRegistry, phones, CACHE_NAME);
+        Gauge.builder("cache.hit.ratio", phones, cache -> cache.stats().hitRate())
+                .tag("cache", CACHE_NAME)
+                .description("Share of lookups served from the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Finds a phone by its id, loading it from the repository on a miss.
+     *
+     * @param phoneId The unique identifier of the phone.
+     * @return The phone, or an empty {@code Optional} if no phone has this id.
+     */
+    public Optional<MobilePhone> findById(String phoneId) {
+        return phones.get(phoneId);
+    }
+
+    /**
+     * Saves a phone and caches the saved entity.
+     *
+     * @param phone The phone to save.
+     * @return The saved phone.
+     */
+    public MobilePhone save(MobilePhone phone) {
+        MobilePhone saved = mobilePhoneStore.save(phone);
+        phones.put(saved.getId(), Optional.of(saved));
+        return saved;
+    }
+
+    /**
+     * Saves phones in one batch and caches the saved entities.
+     *
+     * @param newPhones The phones to save.
+     * @return The saved phones.
+     */
+    public List<MobilePhone> saveAll(List<MobilePhone> newPhones) {
+        List<MobilePhone> saved = mobilePhoneStore.saveAll(newPhones);
+        saved.forEach(phone -> phones.put(phone.getId(), Optional.of(phone)));
+        return saved;
+    }
+
+    /**
+     * Changes the availability of a phone if it does not have that availability yet.
+     * <p>
+     * The change is a single conditional update; nothing is read. Only the caller whose update
+     * matched the row succeeds, so two concurrent bookings of the same phone cannot both win.
+     * When the update does not match, the cached entry is dropped since it was evidently stale.
+     * </p>
+     * <p>
+     * The cached instance is updated right away, so the fast rejection of bookings sees the change before
+     * the transaction commits. If the surrounding transaction rolls back instead, the entry is dropped and
+     * the next lookup reads the committed availability again.
+     * </p>
+     * <p>
+     * The update and the change of the cached instance happen under a lock striped by phone id. Otherwise a
+     * return could set the instance available after a booking that followed it had already set it unavailable,
+     * leaving a booked phone marked available. A {@link ReentrantLock} is used rather than {@code synchronized},
+     * so virtual threads waiting for the update do not pin their carrier threads.
+     * </p>
+     *
+     * @param phone     The phone to update; its cached instance is updated on success.
+     * @param available The new availability.
+     * @return {@code true} if the availability was changed, {@code false} otherwise.
+     */
+    public boolean changeAvailability(MobilePhone phone, boolean available) {
+        ReentrantLock lock = availabilityLocks[Math.floorMod(phone.getId().hashCode(), AVAILABILITY_LOCK_STRIPES)];
+        lock.lock();
+        try {
+            if (mobilePhoneStore.updateAvailability(phone.getId(), available) == 1) {
+                phone.setAvailable(available);
+                phones.put(phone.getId(), Optional.of(phone));
+                invalidateOnRollback(phone.getId());
+                return true;
+            }
+            phones.invalidate(phone.getId());
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Without a transaction (e.g. the inmemory profile) the change is final as soon as it is made
+    private void invalidateOnRollback(String phoneId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    phones.invalidate(phoneId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Drops the cached entry of a phone, e.g. after it was changed outside of this cache.
+     *
+     * @param phoneId The unique identifier of the phone.
+     */
+    public void invalidate(String phoneId) {
+        phones.invalidate(phoneId);
+    }
+
+    /**
+     * Keeps phones for {@code PHONE_TTL} and unknown ids for the much shorter {@code UNKNOWN_ID_TTL}.
+     */
+    private static final class PresenceExpiry implements Expiry<String, Optional<MobilePhone>> {
+
+        @Override
+        public long expireAfterCreate(String key, Optional<MobilePhone> value, long currentTime) {
+            return (value.isPresent() ? PHONE_TTL : UNKNOWN_ID_TTL).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<MobilePhone> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<MobilePhone> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
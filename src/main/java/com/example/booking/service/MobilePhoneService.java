@@ -1,17 +1,28 @@
 package com.example.booking.service;
 
 import com.example.booking.entity.MobilePhone;
+import com.example.booking.entity.dto.BulkProvisionRequest;
 import com.example.booking.entity.event.MobilePhoneAddedEvent;
+import com.example.booking.entity.event.MobilePhonesAddedEvent;
 import com.example.booking.factory.MobilePhoneFactory;
-import com.example.booking.repository.MobilePhoneRepository;
 import lombok.AllArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Service class for managing mobile phone operations.
  * This service handles the creation and management of mobile phones,
- * leveraging a mobile phone repository for persistence.
+ * leveraging the {@link MobilePhoneCache} for persistence so that new phones are cached right away.
  *
  * @author Milos Holclajtner
  * @version 1.0
@@ -21,7 +32,12 @@ import org.springframework.stereotype.Service;
 @AllArgsConstructor
 public class MobilePhoneService {
 
-    private final MobilePhoneRepository mobilePhoneRepository;
+    // Upper bound of the phones created by a single bulk request
+    static final int MAX_BULK_SIZE = 100_000;
+
+    private final MobilePhoneCache mobilePhoneCache;
+
+    private final DeviceIdAllocator deviceIdAllocator;
 
     private final ApplicationEventPublisher eventPublisher;
 
@@ -30,16 +46,102 @@ public class MobilePhoneService {
      * Creates a new mobile phone with the specified model.
      * This method utilizes the MobilePhoneFactory for creating a mobile phone instance,
      * sets the phone's availability to true, and saves it to the repository.
+     * The id number comes from the {@link DeviceIdAllocator}, which reaches the database once per block of ids.
+     * The id is taken before any transaction is started, so a block allocation commits on its own connection
+     * instead of needing a second one while the insert holds the first.
+     * The phone is inserted with a single statement in the transaction of the store; its monitoring is
+     * registered asynchronously by the {@link MonitorRegistrationQueue} once the insert committed.
      *
      * @param model the model of the mobile phone to be created.
-     * @return the newly created and saved MobilePhone object.
+     * @return the newly created and saved MobilePhone object, or null if the model is not supported.
      */
     public MobilePhone createMobilePhone(String model) {
-        MobilePhone newPhone = MobilePhoneFactory.createPhone(model);
-        assert newPhone != null;
+        if (!MobilePhoneFactory.isSupported(model)) {
+            return null;
+        }
+        MobilePhone newPhone = MobilePhoneFactory.createPhone(model, deviceIdAllocator.nextId(model));
         newPhone.setAvailable(true);
-        MobilePhone result = mobilePhoneRepository.save(newPhone);
+        MobilePhone result = mobilePhoneCache.save(newPhone);
         eventPublisher.publishEvent(new MobilePhoneAddedEvent(this, result));
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates phones in bulk, e.g. when a new rack of devices is provisioned.
+     * <p>
+     * All lines are validated before anything is created. The identifiers of every model are reserved as one
+     * range with a single database round trip before the phones are inserted, so no allocation runs inside the
+     * insert transaction. The phones are inserted in one transaction with a single batched {@code saveAll} that
+     * flushes and clears the persistence context every {@code hibernate.jdbc.batch_size} phones, and one
+     * {@link MobilePhonesAddedEvent} is published for the whole batch instead of one {@link MobilePhoneAddedEvent} per phone.
+     * </p>
+     *
+     * @param requests The models and the number of phones of each model to create.
+     * @return The newly created and saved phones, in the order of the request lines.
+     * @throws IllegalArgumentException if a model is not supported, a count is not positive or the total is too large.
+     */
+    public List<MobilePhone> createMobilePhones(List<BulkProvisionRequest> requests) {
+        long total = 0;
+        for (BulkProvisionRequest request : requests) {
+            if (!MobilePhoneFactory.isSupported(request.getModel())) {
+                throw new IllegalArgumentException(STR."The phone model is not supported: \{request.getModel()}");
+            }
+            if (request.getCount() < 1) {
+                throw new IllegalArgumentException(STR."The count must be positive: \{request.getCount()}");
+            }
+            total += request.getCount();
+        }
+        if (total > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException(STR."At most \{MAX_BULK_SIZE} phones can be created at once");
+        }
+
+        List<MobilePhone> newPhones = new ArrayList<>((int) total);
+        for (BulkProvisionRequest request : requests) {
+            long first = deviceIdAllocator.reserveRange(request.getModel(), request.getCount());
+            newPhones.addAll(MobilePhoneFactory.createPhones(request.getModel(), first, request.getCount()));
+        }
+        List<MobilePhone> result = mobilePhoneCache.saveAll(newPhones);
+        eventPublisher.publishEvent(new MobilePhonesAddedEvent(this, result));
+        return result;
+    }
+
+    /**
+     * Reads a bulk provisioning request from CSV lines of {@code model,count}.
+     * <p>
+     * The stream is read line by line before any transaction is started; lines of the same model are merged,
+     * so a manifest listing one device per line (with the count omitted) is accepted as well. Blank lines,
+     * {@code #} comments and a {@code model,count} header are skipped.
+     * </p>
+     *
+     * @param csv The CSV content, UTF-8 encoded.
+     * @return One request line per model, in the order of first appearance.
+     * @throws IOException if reading the stream fails.
+     * @throws IllegalArgumentException if a line is malformed.
+     * @see #createMobilePhones(List)
+     */
+    public static List<BulkProvisionRequest> readBulkRequests(InputStream csv) throws IOException {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#") || line.equalsIgnoreCase("model,count")) {
+                    continue;
+                }
+                int comma = line.lastIndexOf(',');
+                String model = comma < 0 ? line : line.substring(0, comma).strip();
+                int count;
+                try {
+                    count = comma < 0 ? 1 : Integer.parseInt(line.substring(comma + 1).strip());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException(STR."Malformed line: \{line}");
+                }
+                counts.merge(model, count, Integer::sum);
+            }
+        }
+
+        List<BulkProvisionRequest> requests = new ArrayList<>(counts.size());
+        counts.forEach((model, count) -> requests.add(new BulkProvisionRequest(model, count)));
+        return requests;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.booking.service;
+
+import com.example.booking.cluster.BookingRouter;
+import com.example.booking.cluster.RemoteNode;
+import com.example.booking.entity.MobilePhone;
+import com.example.booking.entity.event.MobilePhoneAddedEvent;
+import com.example.booking.entity.event.MobilePhonesAddedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Registers the monitoring of new phones asynchronously, after the transaction that inserted them committed.
+ * <p>
+ * The phone-added listeners only put the new phones into a bounded queue, so creating a phone costs
+ * the request thread just its insert, and phones of a rolled-back insert are never monitored. Outside a
+ * transaction (e.g. with the {@code inmemory} profile) the phones are queued right away.
+ * </p>
+ * <p>
+ * A single worker thread takes the queued phones and registers everything that is waiting in one
+ * {@link DeviceMonitoringService#registerMonitors} pass, so events that arrive close together are
+ * micro-batched without delaying a lone event. When the queue is full, the publishing thread registers
+ * its phones itself, which slows producers down instead of dropping registrations.
+ * </p>
+ * <p>
+ * Only the phones this node owns according to the {@link BookingRouter} are registered here. In a cluster the
+ * ids of the others are forwarded to their owners in batches of at most {@code FORWARD_BATCH_SIZE}; while
+ * this node does not know the members yet, they are left to the bootstrap of their owner.
+ * </p>
+ *
+ * @author Milos Holclajtner
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MonitorRegistrationQueue {
+
+    // Number of events waiting for registration before publishers register their phones themselves
+    static final int QUEUE_CAPACITY = 10_000;
+
+    // Phone ids handed to another node per request
+    static final int FORWARD_BATCH_SIZE = 1000;
+
+    private final DeviceMonitoringService deviceMonitoringService;
+
+    private final BookingRouter bookingRouter;
+
+    private final LinkedBlockingQueue<List<MobilePhone>> pending = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+
+    private Thread worker;
+
+    /**
+     * Queues the phone of a committed {@link MobilePhoneAddedEvent}.
+     *
+     * @param event The event that gets fired when a new mobile phone is added.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMobilePhoneAdded(MobilePhoneAddedEvent event) {
+        submit(List.of(event.getMobilePhone()));
+    }
+
+    /**
+     * Queues the phones of a committed {@link MobilePhonesAddedEvent}.
+     *
+     * @param event The event that gets fired when a batch of mobile phones is added.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMobilePhonesAdded(MobilePhonesAddedEvent event) {
+        submit(event.getMobilePhones());
+    }
+
+    /**
+     * Returns the number of events waiting for registration.
+     *
+     * @return The queue depth.
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    @PostConstruct
+    void start() {
+        worker = Thread.ofVirtual().name("monitor-registration").start(this::registerQueued);
+    }
+
+    /**
+     * Stops the worker and registers the phones that are still queued.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        worker.interrupt();
+        worker.join();
+        List<List<MobilePhone>> remaining = new ArrayList<>();
+        pending.drainTo(remaining);
+        register(remaining);
+    }
+
+    private void submit(List<MobilePhone> phones) {
+        if (!pending.offer(phones)) {
+            log.warn("Monitor registration queue is full, registering {} devices on the publishing thread", phones.size());
+            register(List.of(phones));
+        }
+    }
+
+    private void registerQueued() {
+        List<List<MobilePhone>> batches = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batches.add(pending.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            pending.drainTo(batches); // everything that arrived meanwhile joins this pass
+            register(batches);
+            batches.clear();
+        }
+    }
+
+    private void register(List<List<MobilePhone>> batches) {
+        if (batches.isEmpty()) {
+            return;
+        }
+        List<MobilePhone> phones = batches.size() == 1 ? batches.getFirst() : batches.stream().flatMap(List::stream).toList();
+        try {
+            List<MobilePhone> owned = phones;
+            if (!phones.stream().allMatch(phone -> bookingRouter.owns(phone.getId()))) {
+                owned = phones.stream().filter(phone -> bookingRouter.owns(phone.getId())).toList();
+                forward(phones);
+            }
+            deviceMonitoringService.registerMonitors(owned);
+            log.debug("Registered monitoring for {} of {} devices of {} events", owned.size(), phones.size(), batches.size());
+        } catch (RuntimeException e) {
+            log.error("Registering monitoring for {} devices failed", phones.size(), e);
+        }
+    }
+
+    private void forward(List<MobilePhone> phones) {
+        Map<String, RemoteNode> owners = new HashMap<>();
+        Map<String, List<String>> idsByOwner = new HashMap<>();
+        for (MobilePhone phone : phones) {
+            RemoteNode owner = bookingRouter.remoteOwnerOf(phone.getId());
+            if (owner != null) {
+                owners.putIfAbsent(owner.getUrl(), owner);
+                idsByOwner.computeIfAbsent(owner.getUrl(), url -> new ArrayList<>()).add(phone.getId());
+            }
+        }
+        idsByOwner.forEach((url, ids) -> {
+            for (int from = 0; from < ids.size(); from += FORWARD_BATCH_SIZE) {
+                owners.get(url).registerMonitors(ids.subList(from, Math.min(from + FORWARD_BATCH_SIZE, ids.size())));
+            }
+        });
+    }
+}
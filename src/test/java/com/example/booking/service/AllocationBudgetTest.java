@@ -0,0 +1,108 @@
+package com.example.booking.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.booking.entity.MobilePhone;
+import com.example.booking.monitoring.DeviceMonitor;
+import com.example.booking.monitoring.DeviceStatusCache;
+import com.example.booking.monitoring.entity.DeviceContext;
+import com.example.booking.monitoring.entity.DeviceMetrics;
+import com.example.booking.repository.inmemory.InMemoryMobilePhoneStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+/**
+ * Fails when a hot path allocates more per operation than its budget in {@code allocation-budgets.properties}.
+ * The services run on the in-memory stores, with the application logging at {@code INFO} as in production.
+ */
+class AllocationBudgetTest {
+
+    private static final int PHONES = 2_000;
+    private static final int ROUNDS = 20;
+    private static final String USER = "admin";
+
+    private final AllocationMeter meter = new AllocationMeter();
+
+    private BookingManager bookingManager;
+    private DeviceMonitoringService monitoringService;
+    private DeviceStatusCache statusCache;
+    private final String[] phoneIds = new String[PHONES];
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(meter.isSupported(), "Thread allocation counting is not supported by this JVM");
+        ((Logger) LoggerFactory.getLogger("com.example.booking")).setLevel(Level.INFO);
+
+        InMemoryMobilePhoneStore phoneStore = new InMemoryMobilePhoneStore();
+        for (int i = 0; i < PHONES; i++) {
+            phoneIds[i] = STR."alloc-\{i}";
+            phoneStore.save(new MobilePhone(phoneIds[i], "Nokia 3310", new DeviceMetrics(100, 2048, 1024, 0.1)));
+        }
+        ServiceFixture fixture = new ServiceFixture(phoneStore);
+        bookingManager = fixture.bookingManager();
+        monitoringService = fixture.monitoringService();
+        statusCache = fixture.statusCache();
+    }
+
+    @Test
+    void bookAndReturn_StayWithinBudget() {
+        long book = Long.MAX_VALUE;
+        long returned = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            book = Math.min(book, meter.bytesPerOperation(PHONES, i -> bookingManager.bookPhone(phoneIds[i], USER)));
+            returned = Math.min(returned, meter.bytesPerOperation(PHONES, i -> bookingManager.returnPhone(phoneIds[i], USER)));
+        }
+
+        assertWithinBudget("booking.bookPhone", book);
+        assertWithinBudget("booking.returnPhone", returned);
+    }
+
+    @Test
+    void isDeviceBooked_StaysWithinBudget() {
+        for (int i = 0; i < PHONES; i += 2) {
+            bookingManager.bookPhone(phoneIds[i], USER);
+        }
+
+        long bytes = meter.bytesPerOperation(ROUNDS, PHONES, i -> bookingManager.isDeviceBooked(phoneIds[i]));
+
+        assertWithinBudget("booking.isDeviceBooked", bytes);
+    }
+
+    @Test
+    void metricsUpdate_StaysWithinBudget() {
+        DeviceMetrics lowMemory = new DeviceMetrics(80, 2048, 100, 0.3);
+
+        // Stays below the size that triggers an early flush, which is not part of the update itself
+        int devices = MetricsWriteBehindBuffer.FLUSH_SIZE_THRESHOLD / 2;
+
+        long bytes = meter.bytesPerOperation(ROUNDS, PHONES,
+                i -> monitoringService.updateDeviceMetricsIfNeeded(phoneIds[i % devices], lowMemory));
+
+        assertWithinBudget("monitoring.metricsUpdate", bytes);
+    }
+
+    @Test
+    void statusSerialization_StaysWithinBudget() {
+        MobilePhone phone = new MobilePhone("alloc-status", "Nokia 3310", new DeviceMetrics(100, 2048, 1024, 0.1));
+        monitoringService.registerMonitors(List.of(phone));
+        DeviceMonitor monitor = monitoringService.getDeviceMonitor(phone.getId());
+        monitoringService.updateDeviceMonitorContext(monitor, new DeviceContext(phone.getId(), phone.getDeviceMetrics()));
+
+        long bytes = meter.bytesPerOperation(ROUNDS, PHONES, i -> {
+            statusCache.markChanged(monitor.getHandle());
+            monitoringService.getPhoneStatuses(0);
+        });
+
+        assertWithinBudget("monitoring.statusSerialization", bytes);
+    }
+
+    private void assertWithinBudget(String operation, long bytes) {
+        long budget = meter.budget(operation);
+        assertTrue(bytes <= budget, STR."\{operation} allocated \{bytes} bytes per operation, its budget is \{budget}");
+    }
+}
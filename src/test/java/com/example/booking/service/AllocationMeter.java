@@ -0,0 +1,96 @@
+package com.example.booking.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+import java.util.function.IntConsumer;
+
+/**
+ * Measures the bytes allocated per operation by the calling thread and holds the allocation budgets.
+ * <p>
+ * The counter is {@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()}, which counts
+ * what the current thread allocated on the heap, including allocations that die young. Operations are
+ * measured over several rounds of a loop and the cheapest round counts, so the interpreter, the first
+ * compilation and one-off allocations such as growing a table do not enter the result.
+ * </p>
+ * <p>
+ * Budgets are read from {@code allocation-budgets.properties} on the test class path, in bytes per operation.
+ * </p>
+ */
+final class AllocationMeter {
+
+    private static final String BUDGETS = "allocation-budgets.properties";
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final Properties budgets = new Properties();
+
+    AllocationMeter() {
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+        try (InputStream in = AllocationMeter.class.getClassLoader().getResourceAsStream(BUDGETS)) {
+            if (in == null) {
+                throw new IllegalStateException(STR."\{BUDGETS} is missing from the test class path");
+            }
+            budgets.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns whether the JVM can count the allocations of a thread.
+     *
+     * @return {@code true} if allocations can be measured.
+     */
+    boolean isSupported() {
+        return threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled();
+    }
+
+    /**
+     * Runs an operation {@code iterations} times per round and returns the bytes allocated per operation
+     * in the cheapest round.
+     *
+     * @param rounds     The number of rounds; the earlier ones warm the code up.
+     * @param iterations The number of operations per round.
+     * @param operation  The operation, receiving the index of the iteration within its round.
+     * @return The bytes allocated per operation.
+     */
+    long bytesPerOperation(int rounds, int iterations, IntConsumer operation) {
+        long fewest = Long.MAX_VALUE;
+        for (int round = 0; round < rounds; round++) {
+            fewest = Math.min(fewest, bytesPerOperation(iterations, operation));
+        }
+        return fewest;
+    }
+
+    /**
+     * Runs an operation {@code iterations} times and returns the bytes allocated per operation.
+     *
+     * @param iterations The number of operations.
+     * @param operation  The operation, receiving the index of the iteration.
+     * @return The bytes allocated per operation.
+     */
+    long bytesPerOperation(int iterations, IntConsumer operation) {
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            operation.accept(i);
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - before) / iterations;
+    }
+
+    /**
+     * Returns the configured budget of an operation.
+     *
+     * @param operation The key of the operation in {@code allocation-budgets.properties}.
+     * @return The budget in bytes per operation.
+     */
+    long budget(String operation) {
+        String budget = budgets.getProperty(operation);
+        if (budget == null) {
+            throw new IllegalArgumentException(STR."No allocation budget for \{operation} in \{BUDGETS}");
+        }
+        return Long.parseLong(budget.trim());
+    }
+}
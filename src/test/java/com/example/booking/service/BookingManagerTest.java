@@ -2,13 +2,15 @@ package com.example.booking.service;
 
 import com.example.booking.entity.Booking;
 import com.example.booking.entity.MobilePhone;
-import com.example.booking.repository.MobilePhoneRepository;
+import com.example.booking.repository.MobilePhoneStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -17,13 +19,18 @@ import static org.mockito.Mockito.*;
 class BookingManagerTest {
 
     @Mock
-    private MobilePhoneRepository mobilePhoneRepository;
+    private MobilePhoneStore mobilePhoneStore;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     private BookingManager bookingManager;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        bookingManager = new BookingManager(mobilePhoneRepository, new ArrayList<>());
+        ServiceFixture fixture = new ServiceFixture(mobilePhoneStore).eventPublisher(eventPublisher);
+        bookingManager = fixture.bookingManager();
+        meterRegistry = fixture.registry();
     }
 
     @Test
@@ -35,22 +42,46 @@ class BookingManagerTest {
         phone.setId(phoneId);
         phone.setAvailable(true);
 
-        when(mobilePhoneRepository.findById(phoneId)).thenReturn(Optional.of(phone));
+        when(mobilePhoneStore.findById(phoneId)).thenReturn(Optional.of(phone));
+        when(mobilePhoneStore.updateAvailability(phoneId, false)).thenReturn(1);
 
         Optional<Booking> booking = bookingManager.bookPhone(phoneId, user);
 
         assertTrue(booking.isPresent());
         assertEquals(user, booking.get().getBookedBy());
-        verify(mobilePhoneRepository).save(phone);
+        verify(mobilePhoneStore).updateAvailability(phoneId, false);
         assertFalse(phone.isAvailable());
     }
 
+    @Test
+    void bookPhone_WhenCacheIsWarm_ShouldNotReadFromStore() {
+
+        MobilePhone phone = new MobilePhone();
+        phone.setId("123");
+        phone.setAvailable(true);
+
+        when(mobilePhoneStore.findById("123")).thenReturn(Optional.of(phone));
+        when(mobilePhoneStore.findById("typo")).thenReturn(Optional.empty());
+        when(mobilePhoneStore.updateAvailability(eq("123"), anyBoolean())).thenReturn(1);
+
+        Booking first = bookingManager.bookPhone("123", "John Doe").orElseThrow();
+        bookingManager.returnPhone(first.getId(), "John Doe");
+        assertTrue(bookingManager.bookPhone("123", "Jane Doe").isPresent());
+        assertTrue(bookingManager.bookPhone("typo", "Jane Doe").isEmpty());
+        assertTrue(bookingManager.bookPhone("typo", "Jane Doe").isEmpty());
+
+        verify(mobilePhoneStore, times(1)).findById("123");
+        verify(mobilePhoneStore, times(1)).findById("typo");
+        verify(mobilePhoneStore, never()).save(any());
+    }
+
     @Test
     void returnPhone_WhenBookingExistsAndUserMatches_ShouldMarkPhoneAsAvailable() {
 
-        String bookingId = "booking123";
+        String bookingId = "123"; // a booking has the id of its phone
         String user = "John Doe";
         MobilePhone phone = new MobilePhone();
+        phone.setId(bookingId);
         phone.setAvailable(false);
 
         Booking booking = new Booking(bookingId, phone, LocalDateTime.now(), user);
@@ -72,7 +103,7 @@ class BookingManagerTest {
         phone.setId(deviceId);
         phone.setAvailable(false);
 
-        Booking booking = new Booking("booking123", phone, LocalDateTime.now(), "John Doe");
+        Booking booking = new Booking(deviceId, phone, LocalDateTime.now(), "John Doe");
         bookingManager.getBookings().add(booking);
 
         boolean isBooked = bookingManager.isDeviceBooked(deviceId);
@@ -80,5 +111,32 @@ class BookingManagerTest {
         assertTrue(isBooked);
     }
 
+    @Test
+    void bookPhone_ShouldRecordOutcomeInTimer() {
+
+        MobilePhone phone = new MobilePhone();
+        phone.setId("123");
+        phone.setAvailable(false);
+
+        when(mobilePhoneStore.findById("123")).thenReturn(Optional.of(phone));
+        when(mobilePhoneStore.findById("404")).thenReturn(Optional.empty());
+
+        bookingManager.bookPhone("123", "John Doe");
+        bookingManager.bookPhone("404", "John Doe");
+
+        assertEquals(2, meterRegistry.get("booking.book").tag("outcome", "rejected").timer().count());
+        assertEquals(0, meterRegistry.get("booking.book").tag("outcome", "booked").timer().count());
+    }
+
+    @Test
+    void bookPhone_WhenStoreFails_ShouldRecordErrorInTimer() {
+
+        when(mobilePhoneStore.findById("123")).thenThrow(new IllegalStateException("database down"));
+
+        assertThrows(IllegalStateException.class, () -> bookingManager.bookPhone("123", "John Doe"));
+
+        assertEquals(1, meterRegistry.get("booking.book").tag("outcome", "error").timer().count());
+        assertEquals(0, meterRegistry.get("booking.book").tag("outcome", "rejected").timer().count());
+    }
 
 }
\ No newline at end of file
@@ -0,0 +1,120 @@
+package com.example.booking.service;
+
+import com.example.booking.cluster.LocalBookingJournal;
+import com.example.booking.entity.Booking;
+import com.example.booking.entity.MobilePhone;
+import com.example.booking.metrics.BookingMetrics;
+import com.example.booking.monitoring.DeviceHandles;
+import com.example.booking.monitoring.ModelDictionary;
+import com.example.booking.repository.JpaDeviceIdBlockStore;
+import com.example.booking.repository.JpaMobilePhoneStore;
+import com.example.booking.repository.MobilePhoneStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Booking and returning in a transaction that rolls back, on H2, leave the booking store in line with the
+ * committed availability of the phone.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({BookingRollbackTest.MetricsConfiguration.class, JpaMobilePhoneStore.class, ModelDictionary.class, MobilePhoneCache.class,
+        DeviceHandles.class, BookingStore.class, BookingMetrics.class, LocalBookingJournal.class, BookingManager.class,
+        JpaDeviceIdBlockStore.class, DeviceIdAllocator.class, MobilePhoneService.class})
+class BookingRollbackTest {
+
+    private static final String MODEL = "Samsung Galaxy S9";
+    private static final String USER = "John Doe";
+
+    @Autowired
+    private MobilePhoneService mobilePhoneService;
+    @Autowired
+    private BookingManager bookingManager;
+    @Autowired
+    private MobilePhoneStore mobilePhoneStore;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @TestConfiguration
+    static class MetricsConfiguration {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void bookPhone_RolledBack_LeavesNoBooking() {
+        MobilePhone phone = mobilePhoneService.createMobilePhone(MODEL);
+
+        transaction.executeWithoutResult(status -> {
+            assertTrue(bookingManager.bookPhone(phone.getId(), USER).isPresent());
+            status.setRollbackOnly();
+        });
+
+        assertTrue(mobilePhoneStore.findById(phone.getId()).orElseThrow().isAvailable());
+        assertTrue(bookingManager.findBookingByDeviceId(phone.getId()).isEmpty());
+        assertTrue(bookingManager.bookPhone(phone.getId(), USER).isPresent());
+    }
+
+    @Test
+    void bookPhone_CommitFails_LeavesNoBooking() {
+        MobilePhone phone = mobilePhoneService.createMobilePhone(MODEL);
+
+        assertThrows(IllegalStateException.class, () -> transaction.executeWithoutResult(status -> {
+            assertTrue(bookingManager.bookPhone(phone.getId(), USER).isPresent());
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    throw new IllegalStateException("Commit refused");
+                }
+            });
+        }));
+
+        assertTrue(mobilePhoneStore.findById(phone.getId()).orElseThrow().isAvailable());
+        assertTrue(bookingManager.findBookingByDeviceId(phone.getId()).isEmpty());
+        assertFalse(bookingManager.isDeviceBooked(phone.getId()));
+    }
+
+    @Test
+    void returnPhone_RolledBack_KeepsBooking() {
+        MobilePhone phone = mobilePhoneService.createMobilePhone(MODEL);
+        Booking booking = bookingManager.bookPhone(phone.getId(), USER).orElseThrow();
+
+        transaction.executeWithoutResult(status -> {
+            assertTrue(bookingManager.returnPhone(booking.getId(), USER).isPresent());
+            status.setRollbackOnly();
+        });
+
+        assertFalse(mobilePhoneStore.findById(phone.getId()).orElseThrow().isAvailable());
+        assertTrue(bookingManager.isDeviceBooked(phone.getId()));
+        assertTrue(bookingManager.bookPhone(phone.getId(), "Jane Doe").isEmpty());
+        assertTrue(bookingManager.returnPhone(booking.getId(), USER).isPresent());
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.booking.service;
+
+import com.example.booking.cluster.LocalBookingRouter;
+import com.example.booking.controller.BookingController;
+import com.example.booking.entity.MobilePhone;
+import com.example.booking.entity.dto.BookingRequest;
+import com.example.booking.entity.dto.BookingResponse;
+import com.example.booking.monitoring.DeviceMonitor;
+import com.example.booking.monitoring.entity.DeviceContext;
+import com.example.booking.monitoring.entity.DeviceMetrics;
+import com.example.booking.repository.DeviceMetricsLatestStore;
+import com.example.booking.repository.inmemory.InMemoryMobilePhoneStore;
+import com.example.booking.service.impl.PriorityBookingStrategy;
+import com.example.booking.service.impl.SimpleBookingStrategy;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Hammers booking, returning, strategy switching and the monitoring paths from many threads and checks the
+ * invariants that must hold once all threads have finished:
+ * <ul>
+ *     <li>every successful booking of a phone is matched by at most one successful return,</li>
+ *     <li>a phone is unavailable exactly when it has an active booking, in the store and in its status,</li>
+ *     <li>every registered monitor is still registered.</li>
+ * </ul>
+ * <p>
+ * Every worker draws its operations from a {@link Random} seeded from the run's seed, so a failing run is
+ * repeated with the same operation sequences by passing the seed printed in the failure message, e.g.
+ * {@code mvn test -Dtest=BookingStressTest -Dstress.seed=42}. The interleaving of the threads is left to
+ * the scheduler; random pauses between operations vary it from run to run.
+ * </p>
+ */
+class BookingStressTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 5_000;
+    private static final int PHONES = 32;
+    private static final int ROUNDS = 3;
+    private static final List<String> USERS = List.of("admin", "manager", "user", "guest");
+
+    private InMemoryMobilePhoneStore phoneStore;
+    private BookingManager bookingManager;
+    private BookingController bookingController;
+    private DeviceMonitoringService monitoringService;
+    private ObjectMapper objectMapper;
+
+    private final List<String> phoneIds = new ArrayList<>();
+    private final Queue<String> registeredDevices = new ConcurrentLinkedQueue<>();
+    private AtomicIntegerArray books;
+    private AtomicIntegerArray returns;
+
+    private long seed;
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        seed = Long.getLong("stress.seed", System.nanoTime());
+    }
+
+    @Test
+    void concurrentBookingAndMonitoring_KeepsInvariants() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            long roundSeed = seed + round;
+            build(roundSeed);
+            run(roundSeed);
+            verifyInvariants(roundSeed);
+        }
+    }
+
+    private void build(long roundSeed) {
+        prefix = STR."stress-\{roundSeed}-";
+        phoneIds.clear();
+        registeredDevices.clear();
+
+        phoneStore = new InMemoryMobilePhoneStore();
+        ServiceFixture fixture = new ServiceFixture(phoneStore)
+                .latestStore(mock(DeviceMetricsLatestStore.class))
+                .metricsBuffer(mock(MetricsWriteBehindBuffer.class));
+        bookingManager = fixture.bookingManager();
+        monitoringService = fixture.monitoringService();
+        objectMapper = fixture.objectMapper();
+
+        ApplicationContext applicationContext = mock(ApplicationContext.class);
+        when(applicationContext.getBean("simpleStrategy", BookingStrategy.class)).thenReturn(new SimpleBookingStrategy());
+        bookingController = new BookingController(bookingManager, applicationContext, fixture.bookingMetrics(),
+                new LocalBookingRouter());
+
+        List<MobilePhone> phones = new ArrayList<>();
+        for (int i = 0; i < PHONES; i++) {
+            MobilePhone phone = phoneStore.save(new MobilePhone(prefix + i, "Nokia 3310", metrics(100)));
+            phones.add(phone);
+            phoneIds.add(phone.getId());
+            registeredDevices.add(phone.getId());
+        }
+        monitoringService.registerMonitors(phones);
+    }
+
+    private void run(long roundSeed) throws Exception {
+        books = new AtomicIntegerArray(PHONES);
+        returns = new AtomicIntegerArray(PHONES);
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int worker = 0; worker < THREADS; worker++) {
+                Random random = new Random(roundSeed * 31 + worker);
+                AtomicInteger newDevices = new AtomicInteger();
+                int workerId = worker;
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        operate(random, workerId, newDevices);
+                        if (random.nextInt(16) == 0) {
+                            LockSupport.parkNanos(random.nextInt(20_000));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get(2, TimeUnit.MINUTES);
+                } catch (Exception e) {
+                    fail(STR."Worker failed, rerun with -Dstress.seed=\{roundSeed}", e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void operate(Random random, int workerId, AtomicInteger newDevices) throws IOException {
+        int phone = random.nextInt(PHONES);
+        String phoneId = phoneIds.get(phone);
+        String user = USERS.get(random.nextInt(USERS.size()));
+        int operation = random.nextInt(100);
+
+        if (operation < 30) {
+            if (bookingManager.bookPhone(phoneId, user).isPresent()) {
+                books.incrementAndGet(phone);
+            }
+        } else if (operation < 60) {
+            if (bookingManager.returnPhone(phoneId, user).isPresent()) {
+                returns.incrementAndGet(phone);
+            }
+        } else if (operation < 70) {
+            if (succeeded(bookingController.bookPhone(new BookingRequest(phoneId, user), false))) {
+                books.incrementAndGet(phone);
+            }
+        } else if (operation < 80) {
+            if (succeeded(bookingController.returnPhone(new BookingRequest(phoneId, user), false))) {
+                returns.incrementAndGet(phone);
+            }
+        } else if (operation < 82) {
+            bookingController.setBookingStrategy(random.nextBoolean() ? new SimpleBookingStrategy() : new PriorityBookingStrategy());
+        } else if (operation < 88) {
+            bookingManager.isDeviceBooked(phoneId);
+            objectMapper.readTree(monitoringService.getPhoneStatuses(random.nextLong(monitoringService.getStatusVersion() + 1)));
+        } else if (operation < 95) {
+            DeviceMonitor monitor = monitoringService.getDeviceMonitor(phoneId);
+            monitoringService.updateDeviceMonitorContext(monitor, new DeviceContext(phoneId, metrics(random.nextInt(101))));
+            monitor.startMonitoring();
+            monitor.getStatus();
+        } else {
+            String deviceId = STR."\{prefix}w\{workerId}-\{newDevices.getAndIncrement()}";
+            monitoringService.registerMonitors(List.of(new MobilePhone(deviceId, "Pixel 8", metrics(100))));
+            registeredDevices.add(deviceId);
+        }
+    }
+
+    private void verifyInvariants(long roundSeed) throws IOException {
+        String rerun = STR."rerun with -Dstress.seed=\{roundSeed}";
+
+        for (int i = 0; i < PHONES; i++) {
+            String phoneId = phoneIds.get(i);
+            int active = books.get(i) - returns.get(i);
+            boolean booked = bookingManager.getBookings().findByDeviceId(phoneId).isPresent();
+
+            assertTrue(active == 0 || active == 1,
+                    STR."\{phoneId} was booked \{books.get(i)} times and returned \{returns.get(i)} times, \{rerun}");
+            assertEquals(active == 1, booked, STR."\{phoneId} booking does not match the successful calls, \{rerun}");
+            assertEquals(!booked, phoneStore.findById(phoneId).orElseThrow().isAvailable(),
+                    STR."\{phoneId} availability does not match its booking, \{rerun}");
+            assertEquals(booked, bookingManager.isDeviceBooked(phoneId), STR."\{phoneId} booked state, \{rerun}");
+        }
+
+        assertEquals(registeredDevices.size(), monitoringService.getMonitoredDeviceCount(), STR."Monitors were lost, \{rerun}");
+        for (String deviceId : registeredDevices) {
+            assertNotNull(monitoringService.getDeviceMonitor(deviceId), STR."Monitor of \{deviceId} was lost, \{rerun}");
+        }
+
+        JsonNode statuses = objectMapper.readTree(monitoringService.getPhoneStatuses(0));
+        assertEquals(registeredDevices.size(), statuses.size(), STR."Statuses were lost, \{rerun}");
+        for (JsonNode status : statuses) {
+            String deviceId = status.get("deviceId").asText();
+            boolean booked = bookingManager.getBookings().findByDeviceId(deviceId).isPresent();
+            assertEquals(!booked, status.get("available").asBoolean(), STR."Stale status of \{deviceId}, \{rerun}");
+        }
+    }
+
+    private static boolean succeeded(ResponseEntity<BookingResponse> response) {
+        return response.getBody() != null && response.getBody().isSuccess();
+    }
+
+    private static DeviceMetrics metrics(int batteryLevel) {
+        return new DeviceMetrics(batteryLevel, 2048, 1024, 0.1);
+    }
+}
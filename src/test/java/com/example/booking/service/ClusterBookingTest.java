@@ -0,0 +1,215 @@
+package com.example.booking.service;
+
+import com.example.booking.BookingApplication;
+import com.example.booking.cluster.ClusterBookingRouter;
+import com.example.booking.cluster.ClusterMembership;
+import com.example.booking.cluster.HashRing;
+import com.example.booking.cluster.LocalNode;
+import com.example.booking.entity.dto.BookingRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts three nodes on one shared H2 database with database membership and checks that a phone booked or
+ * returned through any node is handled and held by its owner only, that a second booking through another node
+ * is refused, that a booking made on a node that stops is taken over by the new owner of its phone, and that
+ * a phone is monitored and shown booked by its owner, not by the node that created it.
+ * Also checks that the cluster refuses to start with the in-memory stores, which the nodes could not share.
+ * <p>
+ * The nodes are started once for all tests, which work on phones of their own; the test that stops a node runs last.
+ * </p>
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ClusterBookingTest {
+
+    private static final int NODES = 3;
+    private static final int PHONES = 60;
+    private static final long CONVERGENCE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(15);
+
+    private static final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private static final RestClient client = RestClient.create();
+
+    @BeforeAll
+    static void startNodes() throws InterruptedException {
+        String database = STR."cluster-test-\{System.nanoTime()}";
+        for (int i = 0; i < NODES; i++) {
+            nodes.add(new SpringApplicationBuilder(BookingApplication.class)
+                    .profiles("h2", "cluster")
+                    // Arguments rather than default properties, which the profile's properties would override
+                    .run(STR."--spring.datasource.url=jdbc:h2:mem:\{database};MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                            "--spring.jpa.hibernate.ddl-auto=update",
+                            "--spring.main.banner-mode=off",
+                            "--server.port=0",
+                            "--booking.cluster.membership=database",
+                            "--booking.cluster.heartbeat-millis=200",
+                            "--booking.cluster.booking-sync-millis=200"));
+        }
+        awaitRings(NODES);
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+        nodes.clear();
+    }
+
+    @Test
+    void bookAndReturn_ThroughAnyNode_AreHandledAndHeldByTheOwnerOnly() {
+        List<String> phoneIds = createPhones();
+        HashRing ring = nodes.getFirst().getBean(ClusterMembership.class).ring();
+        Set<String> owners = new HashSet<>();
+
+        for (int i = 0; i < phoneIds.size(); i++) {
+            String phoneId = phoneIds.get(i);
+            String owner = ring.ownerOf(phoneId);
+            owners.add(owner);
+
+            assertEquals(200, post(nodes.get(i % NODES), "bookPhone", phoneId, "admin"));
+            assertEquals(400, post(nodes.get((i + 1) % NODES), "bookPhone", phoneId, "manager"));
+            for (ConfigurableApplicationContext node : nodes) {
+                assertEquals(url(node).equals(owner), node.getBean(BookingManager.class).isDeviceBooked(phoneId),
+                        STR."\{phoneId} should be held by its owner \{owner} only");
+            }
+        }
+
+        for (int i = 0; i < phoneIds.size(); i++) {
+            String phoneId = phoneIds.get(i);
+            assertEquals(200, post(nodes.get((i + 2) % NODES), "returnPhone", phoneId, "admin"));
+            assertFalse(node(ring.ownerOf(phoneId)).getBean(BookingManager.class).isDeviceBooked(phoneId));
+        }
+
+        assertEquals(NODES, owners.size(), "Every node should own some of the phones");
+    }
+
+    @Test
+    void status_OfTheOwner_ShowsAPhoneCreatedOnAnotherNodeBooked() throws InterruptedException {
+        List<String> phoneIds = createPhones();
+        HashRing ring = nodes.getFirst().getBean(ClusterMembership.class).ring();
+        String phoneId = phoneIds.stream()
+                .filter(id -> !ring.ownerOf(id).equals(url(nodes.getFirst())))
+                .findFirst()
+                .orElseThrow();
+
+        // The phones were created through the first node, which hands their monitoring to their owners
+        ConfigurableApplicationContext owner = node(ring.ownerOf(phoneId));
+        assertEquals(200, post(nodes.getFirst(), "bookPhone", phoneId, "admin"));
+
+        long deadline = System.currentTimeMillis() + CONVERGENCE_TIMEOUT_MILLIS;
+        Map<String, Object> status;
+        while ((status = statusOf(owner, phoneId)) == null || !"admin".equals(status.get("bookedBy"))) {
+            assertTrue(System.currentTimeMillis() < deadline, STR."The owner does not show \{phoneId} booked: \{status}");
+            Thread.sleep(50);
+        }
+        assertEquals(false, status.get("available"));
+        for (ConfigurableApplicationContext node : nodes) {
+            assertEquals(node == owner, statusOf(node, phoneId) != null, STR."Only the owner should monitor \{phoneId}");
+        }
+    }
+
+    @Test
+    @Order(Integer.MAX_VALUE) // stops one of the shared nodes
+    void returnPhone_AfterItsOwnerStopped_IsHandledByTheNewOwner() throws InterruptedException {
+        List<String> phoneIds = createPhones();
+        ConfigurableApplicationContext stopping = nodes.get(1);
+        String stoppingUrl = url(stopping);
+        HashRing ring = nodes.getFirst().getBean(ClusterMembership.class).ring();
+        List<String> ownedByStopping = phoneIds.stream().filter(id -> ring.ownerOf(id).equals(stoppingUrl)).toList();
+        assertFalse(ownedByStopping.isEmpty(), "The stopping node should own some of the phones");
+
+        for (String phoneId : ownedByStopping) {
+            assertEquals(200, post(stopping, "bookPhone", phoneId, "admin"));
+        }
+        nodes.remove(stopping);
+        stopping.close();
+        awaitRings(NODES - 1);
+        awaitBookedOnTheirOwners(ownedByStopping);
+
+        for (int i = 0; i < ownedByStopping.size(); i++) {
+            String phoneId = ownedByStopping.get(i);
+            assertEquals(400, post(nodes.get(i % nodes.size()), "returnPhone", phoneId, "manager"));
+            assertEquals(200, post(nodes.get(i % nodes.size()), "returnPhone", phoneId, "admin"));
+            assertEquals(200, post(nodes.get((i + 1) % nodes.size()), "bookPhone", phoneId, "manager"));
+        }
+    }
+
+    @Test
+    void clusterRouter_WithInMemoryStores_RefusesToStart() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("cluster", "inmemory");
+
+        assertThrows(IllegalStateException.class, () -> new ClusterBookingRouter(
+                HashRing::empty, new LocalNode(""), RestClient.builder(), 2000, environment));
+    }
+
+    private static void awaitRings(int members) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + CONVERGENCE_TIMEOUT_MILLIS;
+        while (!nodes.stream().allMatch(node -> node.getBean(ClusterMembership.class).ring().getNodes().size() == members)) {
+            assertTrue(System.currentTimeMillis() < deadline, "The nodes did not see each other in time");
+            Thread.sleep(50);
+        }
+    }
+
+    private void awaitBookedOnTheirOwners(List<String> phoneIds) throws InterruptedException {
+        HashRing ring = nodes.getFirst().getBean(ClusterMembership.class).ring();
+        long deadline = System.currentTimeMillis() + CONVERGENCE_TIMEOUT_MILLIS;
+        while (!phoneIds.stream().allMatch(phoneId -> node(ring.ownerOf(phoneId)).getBean(BookingManager.class).isDeviceBooked(phoneId))) {
+            assertTrue(System.currentTimeMillis() < deadline, "The new owners did not take over the bookings in time");
+            Thread.sleep(50);
+        }
+    }
+
+    private List<String> createPhones() {
+        List<String> phoneIds = new ArrayList<>();
+        for (int i = 0; i < PHONES; i++) {
+            Map<String, Object> phone = client.post()
+                    .uri(STR."\{url(nodes.getFirst())}/api/mobilephones/?model={model}", "Samsung Galaxy S9")
+                    .retrieve()
+                    .body(new ParameterizedTypeReference<>() { });
+            phoneIds.add(String.valueOf(phone.get("id")));
+        }
+        return phoneIds;
+    }
+
+    private int post(ConfigurableApplicationContext node, String operation, String phoneId, String user) {
+        return client.post()
+                .uri(STR."\{url(node)}/api/bookings/\{operation}")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new BookingRequest(phoneId, user))
+                .exchange((request, response) -> response.getStatusCode().value());
+    }
+
+    private Map<String, Object> statusOf(ConfigurableApplicationContext node, String phoneId) {
+        List<Map<String, Object>> statuses = client.get()
+                .uri(STR."\{url(node)}/api/mobilephones/status")
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() { });
+        return statuses.stream().filter(status -> phoneId.equals(status.get("deviceId"))).findFirst().orElse(null);
+    }
+
+    private static ConfigurableApplicationContext node(String url) {
+        return nodes.stream().filter(node -> url(node).equals(url)).findFirst().orElseThrow();
+    }
+
+    private static String url(ConfigurableApplicationContext node) {
+        return node.getBean(LocalNode.class).getUrl();
+    }
+}
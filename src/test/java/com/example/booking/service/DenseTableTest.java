@@ -0,0 +1,98 @@
+package com.example.booking.service;
+
+import com.example.booking.monitoring.DenseTable;
+import com.example.booking.monitoring.ModelDictionary;
+import com.example.booking.monitoring.StringDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the handle-indexed {@link DenseTable} and the {@link StringDictionary} assigning the handles.
+ */
+class DenseTableTest {
+
+    @Test
+    void set_BeyondFirstChunk_GrowsAndIteratesInIndexOrder() {
+        DenseTable<String> table = new DenseTable<>();
+
+        table.set(100_000, "far");
+        table.set(3, "near");
+        table.set(5000, "middle");
+
+        assertEquals("far", table.get(100_000));
+        assertNull(table.get(4));
+        assertNull(table.get(1_000_000));
+        assertEquals(3, table.size());
+        List<String> visited = new ArrayList<>();
+        table.forEach(visited::add);
+        assertEquals(List.of("near", "middle", "far"), visited);
+    }
+
+    @Test
+    void compareAndSet_TracksSize() {
+        DenseTable<String> table = new DenseTable<>();
+
+        assertTrue(table.compareAndSet(7, null, "a"));
+        assertFalse(table.compareAndSet(7, null, "b"));
+        assertTrue(table.compareAndSet(7, "a", null));
+
+        assertEquals(0, table.size());
+        assertNull(table.get(7));
+    }
+
+    @Test
+    void encode_AssignsDenseCodesOnceAndDecodesCanonicalInstance() {
+        StringDictionary dictionary = new StringDictionary();
+        String first = new String("Samsung Galaxy S9-1");
+
+        int code = dictionary.encode(first);
+
+        assertEquals(0, code);
+        assertEquals(1, dictionary.encode("Samsung Galaxy S9-2"));
+        assertEquals(code, dictionary.encode(new String("Samsung Galaxy S9-1")));
+        assertSame(first, dictionary.decode(code));
+        assertEquals(StringDictionary.ABSENT, dictionary.lookup("unknown"));
+        assertEquals(2, dictionary.size());
+    }
+
+    @Test
+    void encode_ConcurrentlyBeyondSeveralGrowths_AssignsEveryStringOneCode() throws InterruptedException {
+        StringDictionary dictionary = new StringDictionary();
+        int strings = 20_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                for (int i = 0; i < strings; i++) {
+                    dictionary.encode(STR."device-\{i}");
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(strings, dictionary.size());
+        boolean[] assigned = new boolean[strings];
+        for (int i = 0; i < strings; i++) {
+            int code = dictionary.lookup(STR."device-\{i}");
+            assertFalse(assigned[code]);
+            assigned[code] = true;
+            assertEquals(STR."device-\{i}", dictionary.decode(code));
+        }
+    }
+
+    @Test
+    void canonical_SharesOneModelNameInstance() {
+        String loaded = new String("Nokia 3310");
+
+        ModelDictionary models = new ModelDictionary();
+
+        assertSame(models.canonical("Nokia 3310"), models.canonical(loaded));
+        assertEquals(loaded, models.nameOf(models.codeOf(loaded)));
+        assertNull(models.nameOf(ModelDictionary.NO_MODEL));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.booking.service;
+
+import com.example.booking.repository.DeviceIdBlockStore;
+import com.example.booking.repository.inmemory.InMemoryDeviceIdBlockStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DeviceIdAllocatorTest {
+
+    private static final String MODEL = "Samsung Galaxy S9";
+
+    @Test
+    void nextId_FromManyThreads_IsUniqueAndFetchesOncePerBlock() {
+        DeviceIdBlockStore blockStore = spy(new InMemoryDeviceIdBlockStore());
+        DeviceIdAllocator allocator = new DeviceIdAllocator(blockStore);
+        int ids = 10 * DeviceIdAllocator.BLOCK_SIZE;
+        Set<Long> allocated = ConcurrentHashMap.newKeySet();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < ids; i++) {
+                executor.submit(() -> allocated.add(allocator.nextId(MODEL)));
+            }
+        }
+
+        assertEquals(ids, allocated.size());
+        verify(blockStore, times(10)).allocateBlock(MODEL, DeviceIdAllocator.BLOCK_SIZE);
+    }
+
+    @Test
+    void reserveRange_DoesNotOverlapTheCurrentBlock() {
+        DeviceIdAllocator allocator = new DeviceIdAllocator(new InMemoryDeviceIdBlockStore());
+
+        long single = allocator.nextId(MODEL);
+        long first = allocator.reserveRange(MODEL, 50);
+
+        assertEquals(1, single);
+        assertEquals(1 + DeviceIdAllocator.BLOCK_SIZE, first);
+        assertEquals(2, allocator.nextId(MODEL));
+    }
+
+    @Test
+    void nextId_RetriesWhenAnotherNodeCreatedTheSequence() {
+        DeviceIdBlockStore blockStore = mock(DeviceIdBlockStore.class);
+        when(blockStore.allocateBlock(eq(MODEL), anyInt()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenReturn(201L);
+        DeviceIdAllocator allocator = new DeviceIdAllocator(blockStore);
+
+        assertEquals(201, allocator.nextId(MODEL));
+        assertEquals(202, allocator.nextId(MODEL));
+    }
+}
@@ -25,7 +25,7 @@ public class DeviceMonitorTest {
     public void setUp() {
         MockitoAnnotations.openMocks(this);
         when(mockContext.deviceId()).thenReturn("12345");
-        when(mockTask.getStatus()).thenReturn("Mock task status");
+        when(mockTask.getStatus(0)).thenReturn("Mock task status");
     }
 
     @Test
@@ -34,7 +34,7 @@ public class DeviceMonitorTest {
         List<MonitoringTask> tasks = new ArrayList<>();
         tasks.add(mockTask);
 
-        DeviceMonitor deviceMonitor = new DeviceMonitor(mockContext, tasks);
+        DeviceMonitor deviceMonitor = new DeviceMonitor(mockContext, tasks, 0);
         String status = deviceMonitor.getStatus();
 
         assertTrue(status.contains("Mock task status"), "The status should contain the mock task status");
@@ -1,56 +1,84 @@
 package com.example.booking.service;
 
+import com.example.booking.cluster.BookingRouter;
 import com.example.booking.entity.Booking;
+import com.example.booking.entity.DeviceMetricsLatest;
+import com.example.booking.entity.DeviceMetricsSample;
 import com.example.booking.entity.MobilePhone;
+import com.example.booking.factory.catalog.PhoneModelCatalog;
+import com.example.booking.monitoring.DeviceHandles;
 import com.example.booking.monitoring.DeviceMonitor;
+import com.example.booking.monitoring.ModelDictionary;
 import com.example.booking.monitoring.entity.DeviceContext;
 import com.example.booking.monitoring.entity.DeviceMetrics;
-import com.example.booking.repository.MobilePhoneRepository;
+import com.example.booking.repository.DeviceMetricsLatestStore;
+import com.example.booking.repository.MobilePhoneStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 import static org.mockito.Mockito.*;
 
-import java.lang.reflect.Field;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class DeviceMonitoringServiceTest {
 
     @Mock
-    private MobilePhoneRepository mobilePhoneRepository;
+    private MobilePhoneStore mobilePhoneStore;
+    @Mock
+    private DeviceMetricsLatestStore latestMetricsStore;
     @Mock
     private BookingManager bookingManager;
     @Mock
+    private MetricsWriteBehindBuffer metricsBuffer;
+    @Mock
     private DeviceMonitor deviceMonitor;
     @Mock
     private Booking booking;
+    @Mock
+    private BookingRouter bookingRouter;
 
     private DeviceMonitoringService deviceMonitoringService;
 
+    private DeviceHandles deviceHandles;
+
+    private ModelDictionary modelDictionary;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        deviceMonitoringService = new DeviceMonitoringService(mobilePhoneRepository, bookingManager);
+        ServiceFixture fixture = new ServiceFixture(mobilePhoneStore)
+                .latestStore(latestMetricsStore)
+                .metricsBuffer(metricsBuffer)
+                .bookingManager(bookingManager)
+                .bookingRouter(bookingRouter)
+                .monitoringTasks(List.of());
+        when(bookingRouter.owns(anyString())).thenReturn(true);
+        when(bookingRouter.ownsDevices()).thenReturn(true);
+        deviceMonitoringService = fixture.monitoringService();
+        deviceHandles = fixture.deviceHandles();
+        modelDictionary = fixture.modelDictionary();
     }
 
     @Test
-    void getAllPhoneStatuses_ReturnsCorrectJson() throws NoSuchFieldException, IllegalAccessException {
+    void getAllPhoneStatuses_ReturnsCorrectJson() {
 
         DeviceContext context = new DeviceContext("123", new DeviceMetrics(100, 2048, 1024, 0.1));
         when(deviceMonitor.getContext()).thenReturn(context);
         when(deviceMonitor.getStatus()).thenReturn("OK");
+        when(deviceMonitor.getHandle()).thenReturn(deviceHandles.register("123"));
         when(bookingManager.findBookingByDeviceId("123")).thenReturn(Optional.of(booking));
 
-        ConcurrentHashMap<String, DeviceMonitor> deviceMonitorsMap = new ConcurrentHashMap<>();
-        deviceMonitorsMap.put("123", deviceMonitor);
-
-        Field mapField = DeviceMonitoringService.class.getDeclaredField("deviceMonitorsMap");
-        mapField.setAccessible(true);
-        mapField.set(deviceMonitoringService, deviceMonitorsMap);
+        deviceMonitoringService.addDeviceMonitor(deviceMonitor);
 
         String jsonStatuses = deviceMonitoringService.getAllPhoneStatuses();
 
@@ -59,18 +87,231 @@ class DeviceMonitoringServiceTest {
 
     }
 
+    @Test
+    void writeAllPhoneStatuses_Ndjson_WritesOneLinePerDevice() throws Exception {
+
+        DeviceMonitor first = new DeviceMonitor(new DeviceContext("1", new DeviceMetrics(100, 2048, 1024, 0.1)), List.of(), deviceHandles.register("1"));
+        DeviceMonitor second = new DeviceMonitor(new DeviceContext("2", new DeviceMetrics(50, 2048, 512, 0.2)), List.of(), deviceHandles.register("2"));
+        deviceMonitoringService.addDeviceMonitor(first);
+        deviceMonitoringService.addDeviceMonitor(second);
+        when(bookingManager.findBookingByDeviceId(anyString())).thenReturn(Optional.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        deviceMonitoringService.writeAllPhoneStatuses(out, DeviceMonitoringService.StatusStreamFormat.NDJSON);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        for (String line : lines) {
+            assertTrue(line.startsWith("{\"deviceId\":"));
+            assertTrue(line.endsWith("}"));
+        }
+    }
+
+    @Test
+    void getPhoneStatuses_SinceVersion_ReturnsOnlyChangedDevices() {
+
+        DeviceMonitor first = new DeviceMonitor(new DeviceContext("1", new DeviceMetrics(100, 2048, 1024, 0.1)), List.of(), deviceHandles.register("1"));
+        DeviceMonitor second = new DeviceMonitor(new DeviceContext("2", new DeviceMetrics(50, 2048, 512, 0.2)), List.of(), deviceHandles.register("2"));
+        deviceMonitoringService.addDeviceMonitor(first);
+        deviceMonitoringService.addDeviceMonitor(second);
+        when(bookingManager.findBookingByDeviceId(anyString())).thenReturn(Optional.empty());
+
+        deviceMonitoringService.getPhoneStatuses(0);
+        long seenVersion = deviceMonitoringService.getStatusVersion();
+        assertEquals("[]", new String(deviceMonitoringService.getPhoneStatuses(seenVersion), StandardCharsets.UTF_8));
+
+        deviceMonitoringService.updateDeviceMonitorContext(second, new DeviceContext("2", new DeviceMetrics(40, 2048, 256, 0.2)));
+
+        String delta = new String(deviceMonitoringService.getPhoneStatuses(seenVersion), StandardCharsets.UTF_8);
+        assertTrue(delta.contains("\"deviceId\":\"2\""));
+        assertFalse(delta.contains("\"deviceId\":\"1\""));
+        assertTrue(deviceMonitoringService.getStatusVersion() > seenVersion);
+    }
+
+    @Test
+    void getPhoneStatuses_LeavesStatusVersionUnchanged() {
+
+        deviceMonitoringService.addDeviceMonitor(
+                new DeviceMonitor(new DeviceContext("1", new DeviceMetrics(100, 2048, 1024, 0.1)), List.of(), deviceHandles.register("1")));
+        when(bookingManager.findBookingByDeviceId(anyString())).thenReturn(Optional.empty());
+
+        long version = deviceMonitoringService.getStatusVersion();
+        String statuses = new String(deviceMonitoringService.getPhoneStatuses(0), StandardCharsets.UTF_8);
+
+        assertTrue(statuses.contains("\"deviceId\":\"1\""));
+        assertEquals(version, deviceMonitoringService.getStatusVersion());
+    }
+
+    @Test
+    void getPhoneStatuses_WritesFlatProjectionWithoutPhoneGraph() {
+
+        MobilePhone phone = new MobilePhone("1", "Nokia 3310", new DeviceMetrics(100, 2048, 1024, 0.1));
+        deviceMonitoringService.addDeviceMonitor(
+                new DeviceMonitor(new DeviceContext("1", phone.getDeviceMetrics()), List.of(),
+                        modelDictionary.codeOf("Nokia 3310"), deviceHandles.register("1")));
+        when(bookingManager.findBookingByDeviceId("1"))
+                .thenReturn(Optional.of(new Booking("b-1", phone, LocalDateTime.of(2024, 3, 1, 10, 0), "alice")));
+
+        byte[] payload = deviceMonitoringService.getPhoneStatuses(0);
+        String json = new String(payload, StandardCharsets.UTF_8);
+
+        assertTrue(json.contains("\"model\":\"Nokia 3310\""));
+        assertTrue(json.contains("\"available\":false"));
+        assertTrue(json.contains("\"freeMemory\":1024"));
+        assertTrue(json.contains("\"bookedBy\":\"alice\""));
+        assertTrue(json.contains("\"bookedAt\":\"2024-03-01T10:00:00\""));
+        assertFalse(json.contains("mobilePhone"));
+        assertFalse(json.contains("\"metrics\""));
+        assertFalse(json.contains("\"status\""));
+        // With the booking and its phone embedded, a booked device took about 550 bytes
+        assertTrue(payload.length <= 200, STR."\{payload.length} bytes: \{json}");
+    }
+
+    @Test
+    void getPhoneStatuses_AvailableDevice_OmitsBookingFields() {
+
+        deviceMonitoringService.addDeviceMonitor(
+                new DeviceMonitor(new DeviceContext("1", new DeviceMetrics(100, 2048, 1024, 0.1)), List.of(),
+                        modelDictionary.codeOf("Nokia 3310"), deviceHandles.register("1")));
+        when(bookingManager.findBookingByDeviceId("1")).thenReturn(Optional.empty());
+
+        byte[] payload = deviceMonitoringService.getPhoneStatuses(0);
+        String json = new String(payload, StandardCharsets.UTF_8);
+
+        assertTrue(json.contains("\"available\":true"));
+        assertFalse(json.contains("bookedBy"));
+        assertFalse(json.contains("bookedAt"));
+        assertTrue(payload.length <= 150, STR."\{payload.length} bytes: \{json}");
+    }
+
     @Test
     void updateDeviceMetricsIfNeeded_UpdatesMetricsWhenConditionMet() {
 
-        MobilePhone phone = mock(MobilePhone.class);
         DeviceMetrics originalMetrics = new DeviceMetrics(100, 2048, 499, 0.1); // Below the threshold
-        when(phone.getDeviceMetrics()).thenReturn(originalMetrics);
-        when(phone.isAvailable()).thenReturn(false);
 
-        deviceMonitoringService.updateDeviceMetricsIfNeeded(phone);
+        deviceMonitoringService.updateDeviceMetricsIfNeeded("123", originalMetrics);
+
+        verify(metricsBuffer).enqueue(deviceHandles.handleOf("123"), new DeviceMetrics(100, 2048, 599, 0.1));
+        verifyNoInteractions(mobilePhoneStore);
+
+    }
 
-        verify(phone).setDeviceMetrics(any(DeviceMetrics.class));
-        verify(mobilePhoneRepository).save(phone);
+    @Test
+    void monitorAndUpdateDeviceMetrics_ReadsOnlyMatchingRowsPageByPage() {
+
+        List<DeviceMetricsLatest> firstPage = new ArrayList<>();
+        for (int i = 0; i < DeviceMonitoringService.SWEEP_PAGE_SIZE; i++) {
+            firstPage.add(latest(STR."p-\{1000 + i}", new DeviceMetrics(50, 2048, 100, 0.1)));
+        }
+        DeviceMetricsLatest last = latest("p-9999", new DeviceMetrics(50, 2048, 100, 0.1));
+
+        when(latestMetricsStore.findBookedWithFreeMemoryBelow(eq(500L), eq(""), any(Limit.class))).thenReturn(firstPage);
+        when(latestMetricsStore.findBookedWithFreeMemoryBelow(eq(500L), eq("p-1499"), any(Limit.class))).thenReturn(List.of(last));
+
+        deviceMonitoringService.monitorAndUpdateDeviceMetrics();
+
+        verify(metricsBuffer, times(DeviceMonitoringService.SWEEP_PAGE_SIZE + 1)).enqueue(anyInt(), any(DeviceMetrics.class));
+        verify(metricsBuffer).enqueue(deviceHandles.handleOf("p-9999"), new DeviceMetrics(50, 2048, 200, 0.1));
+        verify(latestMetricsStore, times(2)).findBookedWithFreeMemoryBelow(anyLong(), anyString(), any(Limit.class));
+        verifyNoInteractions(mobilePhoneStore);
+    }
+
+    @Test
+    void initializeAndStartMonitoring_RegistersEveryPhoneWithMetricsPageByPage() {
+
+        List<MobilePhone> firstPage = new ArrayList<>();
+        List<DeviceMetricsLatest> firstMetrics = new ArrayList<>();
+        for (int i = 0; i < DeviceMonitoringService.BOOTSTRAP_PAGE_SIZE; i++) {
+            String id = STR."p-\{10000 + i}";
+            firstPage.add(storedPhone(id));
+            firstMetrics.add(latest(id, new DeviceMetrics(50, 2048, 1024, 0.1)));
+        }
+        MobilePhone withoutMetrics = storedPhone("p-99999");
+
+        when(mobilePhoneStore.findPageAfter(eq(""), any(Limit.class))).thenReturn(firstPage);
+        when(mobilePhoneStore.findPageAfter(eq("p-10999"), any(Limit.class))).thenReturn(List.of(withoutMetrics));
+        when(latestMetricsStore.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<String> ids = new ArrayList<>();
+            invocation.<Iterable<String>>getArgument(0).forEach(ids::add);
+            return firstMetrics.stream().filter(latest -> ids.contains(latest.getDeviceId())).toList();
+        });
+
+        deviceMonitoringService.initializeAndStartMonitoring();
+
+        assertEquals(DeviceMonitoringService.BOOTSTRAP_PAGE_SIZE, deviceMonitoringService.getMonitoredDeviceCount());
+        assertNull(deviceMonitoringService.getDeviceMonitor("p-99999"));
+        verify(mobilePhoneStore, times(2)).findPageAfter(anyString(), any(Limit.class));
+        verify(mobilePhoneStore, never()).findAll();
+    }
+
+    @Test
+    void initializeAndStartMonitoring_PhoneWithoutMetrics_StartsFromModelDefaults() {
+
+        MobilePhone phone = storedPhone("p-1");
+        phone.setModel("Samsung Galaxy S9");
+        when(mobilePhoneStore.findPageAfter(eq(""), any(Limit.class))).thenReturn(List.of(phone));
+        when(latestMetricsStore.findAllById(anyIterable())).thenReturn(List.of());
+
+        deviceMonitoringService.initializeAndStartMonitoring();
+
+        assertNotNull(deviceMonitoringService.getDeviceMonitor("p-1"));
+        verify(metricsBuffer).enqueue(deviceHandles.handleOf("p-1"), PhoneModelCatalog.find("Samsung Galaxy S9").defaultMetrics());
+    }
+
+    @Test
+    void registerMonitors_RegistersEveryMonitorInOnePass() {
+
+        List<MobilePhone> phones = List.of(
+                new MobilePhone("1", "Model", new DeviceMetrics(100, 2048, 1024, 0.1)),
+                new MobilePhone("2", "Model", new DeviceMetrics(90, 2048, 512, 0.2)));
+
+        deviceMonitoringService.registerMonitors(phones);
+
+        assertEquals(2, deviceMonitoringService.getMonitoredDeviceCount());
+        verify(metricsBuffer).enqueue(deviceHandles.handleOf("1"), new DeviceMetrics(100, 2048, 1024, 0.1));
+        verify(metricsBuffer).enqueue(deviceHandles.handleOf("2"), new DeviceMetrics(90, 2048, 512, 0.2));
+        verifyNoInteractions(mobilePhoneStore);
+    }
+
+    @Test
+    void rebalanceMonitors_StopsMonitoringDevicesOfOtherNodesAndStartsTheOwnedOnes() {
+
+        deviceMonitoringService.registerMonitors(List.of(
+                new MobilePhone("1", "Model", new DeviceMetrics(100, 2048, 1024, 0.1)),
+                new MobilePhone("2", "Model", new DeviceMetrics(90, 2048, 512, 0.2))));
+        when(bookingRouter.owns("2")).thenReturn(false);
+        when(mobilePhoneStore.findPageAfter(eq(""), any(Limit.class))).thenReturn(List.of(storedPhone("1"), storedPhone("2"), storedPhone("3")));
+        when(latestMetricsStore.findAllById(anyIterable())).thenReturn(List.of(latest("3", new DeviceMetrics(80, 2048, 256, 0.3))));
+
+        deviceMonitoringService.rebalanceMonitors();
+
+        assertEquals(2, deviceMonitoringService.getMonitoredDeviceCount());
+        assertNull(deviceMonitoringService.getDeviceMonitor("2"));
+        assertNotNull(deviceMonitoringService.getDeviceMonitor("3"));
+        assertFalse(deviceMonitoringService.getAllPhoneStatuses().contains("\"2\""));
+    }
+
+    @Test
+    void initializeAndStartMonitoring_NodeWithoutMembers_DefersTheBootstrap() {
+
+        when(bookingRouter.ownsDevices()).thenReturn(false);
+
+        deviceMonitoringService.initializeAndStartMonitoring();
+
+        verifyNoInteractions(mobilePhoneStore);
+    }
+
+    // A phone as loaded by the store, which carries no metrics
+    private static MobilePhone storedPhone(String id) {
+        MobilePhone phone = new MobilePhone();
+        phone.setId(id);
+        phone.setModel("Model");
+        return phone;
+    }
 
+    private static DeviceMetricsLatest latest(String deviceId, DeviceMetrics metrics) {
+        DeviceMetricsLatest latest = new DeviceMetricsLatest(deviceId);
+        latest.pointTo(new DeviceMetricsSample(deviceId, Instant.now(), metrics));
+        return latest;
     }
-}
\ No newline at end of file
+}
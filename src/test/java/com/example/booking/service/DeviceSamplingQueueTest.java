@@ -0,0 +1,82 @@
+package com.example.booking.service;
+
+import com.example.booking.monitoring.DeviceHandles;
+import com.example.booking.monitoring.DeviceSamplingQueue;
+import com.example.booking.monitoring.SamplingCadence;
+import com.example.booking.monitoring.entity.DeviceMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the due-time scheduling of device samples in {@link DeviceSamplingQueue}
+ * and the intervals chosen by {@link SamplingCadence}.
+ */
+public class DeviceSamplingQueueTest {
+
+    private final DeviceHandles deviceHandles = new DeviceHandles();
+
+    private final int device = deviceHandles.register("device-1");
+
+    private DeviceSamplingQueue samplingQueue;
+
+    @BeforeEach
+    void setUp() {
+        samplingQueue = new DeviceSamplingQueue(deviceHandles);
+    }
+
+    @Test
+    void pollDue_RegisteredDevice_IsDueImmediatelyOnce() {
+        samplingQueue.register(device);
+        samplingQueue.register(device);
+
+        DeviceSamplingQueue.ScheduledSample due = samplingQueue.pollDue();
+
+        assertNotNull(due);
+        assertEquals(device, due.getHandle());
+        assertNull(samplingQueue.pollDue());
+    }
+
+    @Test
+    void pollDue_RescheduledDevice_IsNotDueBeforeItsInterval() {
+        samplingQueue.register(device);
+        samplingQueue.reschedule(samplingQueue.pollDue(), 60_000);
+
+        assertNull(samplingQueue.pollDue());
+        assertEquals(1, samplingQueue.size());
+    }
+
+    @Test
+    void expedite_RescheduledDevice_BecomesDueAndDropsStaleEntry() {
+        samplingQueue.register(device);
+        samplingQueue.reschedule(samplingQueue.pollDue(), 60_000);
+
+        samplingQueue.expedite(device);
+
+        assertEquals(device, samplingQueue.pollDue().getHandle());
+        assertNull(samplingQueue.pollDue());
+    }
+
+    @Test
+    void pollDue_UnregisteredDevice_IsDropped() {
+        samplingQueue.register(device);
+        samplingQueue.unregister(device);
+
+        assertNull(samplingQueue.pollDue());
+    }
+
+    @Test
+    void nextIntervalMillis_FollowsDeviceActivity() {
+        DeviceMetrics healthy = new DeviceMetrics(90, 4096, 4096, 0.1);
+        DeviceMetrics lowMemory = new DeviceMetrics(90, 4096, 450, 0.1);
+        DeviceMetrics lowBattery = new DeviceMetrics(10, 4096, 4096, 0.1);
+
+        long idle = SamplingCadence.nextIntervalMillis(healthy, false);
+        long booked = SamplingCadence.nextIntervalMillis(healthy, true);
+
+        assertTrue(booked < idle);
+        assertTrue(SamplingCadence.nextIntervalMillis(lowMemory, false) < booked);
+        assertTrue(SamplingCadence.nextIntervalMillis(lowBattery, true) < booked);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.booking.service;
+
+import com.example.booking.cluster.HashRing;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashRingTest {
+
+    private static final List<String> NODES = List.of("http://node-1:8080", "http://node-2:8080", "http://node-3:8080");
+    private static final int DEVICES = 30_000;
+
+    @Test
+    void ownerOf_SameMembersInAnyOrder_AgreeOnEveryDevice() {
+        HashRing ring = new HashRing(NODES);
+        HashRing reordered = new HashRing(List.of(NODES.get(2), NODES.get(0), NODES.get(1), NODES.get(0)));
+
+        for (int i = 0; i < DEVICES; i++) {
+            assertEquals(ring.ownerOf(STR."SAM-\{i}"), reordered.ownerOf(STR."SAM-\{i}"));
+        }
+        assertEquals(NODES, reordered.getNodes());
+    }
+
+    @Test
+    void ownerOf_SpreadsDevicesEvenly() {
+        HashRing ring = new HashRing(NODES);
+        Map<String, Integer> owned = new HashMap<>();
+
+        for (int i = 0; i < DEVICES; i++) {
+            owned.merge(ring.ownerOf(STR."SAM-\{i}"), 1, Integer::sum);
+        }
+
+        assertEquals(NODES.size(), owned.size());
+        owned.forEach((node, devices) ->
+                assertTrue(devices > DEVICES / 4 && devices < DEVICES / 2, STR."\{node} owns \{devices} devices"));
+    }
+
+    @Test
+    void ownerOf_AddedNode_TakesDevicesOnlyFromTheOthers() {
+        HashRing ring = new HashRing(NODES);
+        String added = "http://node-4:8080";
+        HashRing grown = new HashRing(List.of(NODES.get(0), NODES.get(1), NODES.get(2), added));
+
+        int moved = 0;
+        for (int i = 0; i < DEVICES; i++) {
+            String before = ring.ownerOf(STR."SAM-\{i}");
+            String after = grown.ownerOf(STR."SAM-\{i}");
+            if (!before.equals(after)) {
+                assertEquals(added, after);
+                moved++;
+            }
+        }
+        assertTrue(moved > DEVICES / 6 && moved < DEVICES / 3, STR."\{moved} devices moved");
+    }
+
+    @Test
+    void segmentsGainedBy_CoverExactlyTheDevicesTheNodeTookOver() {
+        HashRing ring = new HashRing(NODES);
+        String added = "http://node-4:8080";
+        HashRing grown = new HashRing(List.of(NODES.get(0), NODES.get(1), NODES.get(2), added));
+        List<HashRing.Segment> gainedByAdded = grown.segmentsGainedBy(added, ring);
+        List<HashRing.Segment> gainedByRemaining = ring.segmentsGainedBy(NODES.getFirst(), grown);
+
+        for (int i = 0; i < DEVICES; i++) {
+            String deviceId = STR."SAM-\{i}";
+            long position = HashRing.positionOf(deviceId);
+            assertEquals(added.equals(grown.ownerOf(deviceId)), gainedByAdded.stream().anyMatch(segment -> segment.contains(position)));
+            assertEquals(NODES.getFirst().equals(ring.ownerOf(deviceId)) && added.equals(grown.ownerOf(deviceId)),
+                    gainedByRemaining.stream().anyMatch(segment -> segment.contains(position)), deviceId);
+        }
+    }
+
+    @Test
+    void segmentsGainedBy_FromEmptyRing_CoverTheRingOnceBetweenTheNodes() {
+        HashRing ring = new HashRing(NODES);
+        Map<String, List<HashRing.Segment>> owned = new HashMap<>();
+        long covered = 0;
+
+        for (String node : NODES) {
+            owned.put(node, ring.segmentsGainedBy(node, HashRing.empty()));
+            for (HashRing.Segment segment : owned.get(node)) {
+                covered += segment.to() - segment.from() + 1;
+            }
+        }
+        for (int i = 0; i < DEVICES; i++) {
+            long position = HashRing.positionOf(STR."SAM-\{i}");
+            assertTrue(owned.get(ring.ownerOf(STR."SAM-\{i}")).stream().anyMatch(segment -> segment.contains(position)));
+        }
+        assertEquals(0, covered, "The lengths should add up to 2^64, which overflows to 0");
+        assertTrue(ring.segmentsGainedBy("http://node-4:8080", HashRing.empty()).isEmpty());
+        assertTrue(ring.segmentsGainedBy(NODES.getFirst(), ring).isEmpty());
+    }
+
+    @Test
+    void ownerOf_EmptyRing_HasNoOwner() {
+        assertNull(HashRing.empty().ownerOf("SAM-1"));
+        assertTrue(HashRing.empty().hasMembers(List.of()));
+    }
+}
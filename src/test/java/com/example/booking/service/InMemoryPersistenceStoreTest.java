@@ -0,0 +1,47 @@
+package com.example.booking.service;
+
+import com.example.booking.repository.DeviceIdBlockStore;
+import com.example.booking.repository.DeviceMetricsLatestStore;
+import com.example.booking.repository.DeviceMetricsSampleStore;
+import com.example.booking.repository.MobilePhoneStore;
+import com.example.booking.repository.inmemory.InMemoryDeviceIdBlockStore;
+import com.example.booking.repository.inmemory.InMemoryDeviceMetricsLatestStore;
+import com.example.booking.repository.inmemory.InMemoryDeviceMetricsSampleStore;
+import com.example.booking.repository.inmemory.InMemoryMobilePhoneStore;
+import org.junit.jupiter.api.BeforeEach;
+
+class InMemoryPersistenceStoreTest extends PersistenceStoreContractTest {
+
+    private MobilePhoneStore phoneStore;
+    private DeviceMetricsLatestStore latestStore;
+    private DeviceMetricsSampleStore sampleStore;
+    private DeviceIdBlockStore idBlockStore;
+
+    @BeforeEach
+    void setUp() {
+        phoneStore = new InMemoryMobilePhoneStore();
+        latestStore = new InMemoryDeviceMetricsLatestStore(phoneStore);
+        sampleStore = new InMemoryDeviceMetricsSampleStore();
+        idBlockStore = new InMemoryDeviceIdBlockStore();
+    }
+
+    @Override
+    protected MobilePhoneStore phoneStore() {
+        return phoneStore;
+    }
+
+    @Override
+    protected DeviceMetricsLatestStore latestStore() {
+        return latestStore;
+    }
+
+    @Override
+    protected DeviceMetricsSampleStore sampleStore() {
+        return sampleStore;
+    }
+
+    @Override
+    protected DeviceIdBlockStore idBlockStore() {
+        return idBlockStore;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.booking.service;
+
+import com.example.booking.entity.MobilePhone;
+import com.example.booking.repository.DeviceIdBlockStore;
+import com.example.booking.repository.DeviceMetricsLatestStore;
+import com.example.booking.repository.DeviceMetricsSampleStore;
+import com.example.booking.repository.JpaDeviceIdBlockStore;
+import com.example.booking.repository.JpaDeviceMetricsLatestStore;
+import com.example.booking.repository.JpaDeviceMetricsSampleStore;
+import com.example.booking.repository.JpaMobilePhoneStore;
+import com.example.booking.repository.MobilePhoneStore;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JpaMobilePhoneStore.class, JpaDeviceMetricsLatestStore.class, JpaDeviceMetricsSampleStore.class,
+        JpaDeviceIdBlockStore.class})
+class JpaPersistenceStoreTest extends PersistenceStoreContractTest {
+
+    @Autowired
+    private MobilePhoneStore phoneStore;
+    @Autowired
+    private DeviceMetricsLatestStore latestStore;
+    @Autowired
+    private DeviceMetricsSampleStore sampleStore;
+    @Autowired
+    private DeviceIdBlockStore idBlockStore;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void saveAll_ClearsThePersistenceContextEveryBatch() {
+        List<MobilePhone> phones = IntStream.range(0, 120).mapToObj(i -> phone("p" + (1000 + i), true, 1000)).toList();
+
+        phoneStore.saveAll(phones);
+
+        assertFalse(entityManager.contains(phones.get(0)));
+        assertFalse(entityManager.contains(phones.get(99)));
+        assertTrue(entityManager.contains(phones.get(100)));
+        assertEquals(120, phoneStore.count());
+    }
+
+    @Override
+    protected MobilePhoneStore phoneStore() {
+        return phoneStore;
+    }
+
+    @Override
+    protected DeviceMetricsLatestStore latestStore() {
+        return latestStore;
+    }
+
+    @Override
+    protected DeviceMetricsSampleStore sampleStore() {
+        return sampleStore;
+    }
+
+    @Override
+    protected DeviceIdBlockStore idBlockStore() {
+        return idBlockStore;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.booking.service;
+
+import com.example.booking.monitoring.DeviceHandles;
+import com.example.booking.monitoring.entity.DeviceMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+class MetricsWriteBehindBufferTest {
+
+    @Mock
+    private MetricsBatchWriter batchWriter;
+    private final DeviceHandles deviceHandles = new DeviceHandles();
+    private MetricsWriteBehindBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        buffer = new MetricsWriteBehindBuffer(batchWriter, deviceHandles);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_CoalescesUpdatesOfTheSameDevice() {
+        DeviceMetrics latest = new DeviceMetrics(40, 2048, 300, 0.2);
+        buffer.enqueue(deviceHandles.register("1"), new DeviceMetrics(50, 2048, 100, 0.1));
+        buffer.enqueue(deviceHandles.register("1"), new DeviceMetrics(45, 2048, 200, 0.1));
+        buffer.enqueue(deviceHandles.register("1"), latest);
+        buffer.enqueue(deviceHandles.register("2"), new DeviceMetrics(80, 4096, 1000, 0.3));
+        when(batchWriter.write(anyMap())).thenAnswer(invocation -> ((Map<String, DeviceMetrics>) invocation.getArgument(0)).size());
+
+        assertEquals(2, buffer.flush());
+
+        ArgumentCaptor<Map<String, DeviceMetrics>> written = ArgumentCaptor.forClass(Map.class);
+        verify(batchWriter, times(1)).write(written.capture());
+        assertEquals(latest, written.getValue().get("1"));
+        assertEquals(0, buffer.pendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void enqueue_BurstAboveThreshold_SchedulesOneFlushAtATime() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(batchWriter.write(anyMap())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            release.await(5, TimeUnit.SECONDS);
+            running.decrementAndGet();
+            return ((Map<String, DeviceMetrics>) invocation.getArgument(0)).size();
+        });
+
+        DeviceMetrics metrics = new DeviceMetrics(50, 2048, 100, 0.1);
+        for (int i = 0; i < 3 * MetricsWriteBehindBuffer.FLUSH_SIZE_THRESHOLD; i++) {
+            buffer.enqueue(deviceHandles.register(String.valueOf(i)), metrics);
+        }
+        verify(batchWriter, timeout(5_000)).write(anyMap());
+        release.countDown();
+
+        verify(batchWriter, timeout(5_000).atLeast(2)).write(anyMap());
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    void flush_KeepsEntriesWhenWriteFails() {
+        buffer.enqueue(deviceHandles.register("1"), new DeviceMetrics(50, 2048, 100, 0.1));
+        when(batchWriter.write(anyMap())).thenThrow(new IllegalStateException("database down"));
+
+        assertEquals(0, buffer.flush());
+        assertEquals(1, buffer.pendingCount());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.booking.service;
+
+import com.example.booking.entity.MobilePhone;
+import com.example.booking.monitoring.ModelDictionary;
+import com.example.booking.monitoring.entity.DeviceMetrics;
+import com.example.booking.repository.MobilePhoneStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MobilePhoneCacheTest {
+
+    @Mock
+    private MobilePhoneStore mobilePhoneStore;
+    private MobilePhoneCache phoneCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        phoneCache = new MobilePhoneCache(mobilePhoneStore, new ModelDictionary(), new SimpleMeterRegistry());
+        when(mobilePhoneStore.findById("1"))
+                .thenAnswer(invocation -> Optional.of(new MobilePhone("1", "Nokia 3310", new DeviceMetrics(100, 2048, 1024, 0.1))));
+        when(mobilePhoneStore.updateAvailability("1", false)).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void changeAvailability_RolledBack_ReloadsCommittedAvailability() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertTrue(phoneCache.changeAvailability(phoneCache.findById("1").orElseThrow(), false));
+        assertFalse(phoneCache.findById("1").orElseThrow().isAvailable());
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertTrue(phoneCache.findById("1").orElseThrow().isAvailable());
+        verify(mobilePhoneStore, times(2)).findById("1");
+    }
+
+    @Test
+    void changeAvailability_Committed_KeepsCachedChange() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertTrue(phoneCache.changeAvailability(phoneCache.findById("1").orElseThrow(), false));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertFalse(phoneCache.findById("1").orElseThrow().isAvailable());
+        verify(mobilePhoneStore, times(1)).findById("1");
+    }
+
+    @Test
+    void changeAvailability_ReturnThenBooking_LeavesPhoneBooked() throws InterruptedException {
+        MobilePhone phone = phoneCache.findById("1").orElseThrow();
+        phone.setAvailable(false);
+        CountDownLatch returnUpdated = new CountDownLatch(1);
+        CountDownLatch releaseReturn = new CountDownLatch(1);
+        when(mobilePhoneStore.updateAvailability("1", true)).thenAnswer(invocation -> {
+            returnUpdated.countDown();
+            releaseReturn.await();
+            return 1;
+        });
+
+        Thread returning = Thread.ofPlatform().start(() -> phoneCache.changeAvailability(phone, true));
+        returnUpdated.await();
+        // The booking is made once the return is in the store, but before the return updated the cached instance
+        Thread booking = Thread.ofPlatform().start(() -> phoneCache.changeAvailability(phone, false));
+        while (booking.getState() != Thread.State.WAITING && booking.getState() != Thread.State.TERMINATED) {
+            Thread.onSpinWait();
+        }
+        releaseReturn.countDown();
+        returning.join();
+        booking.join();
+
+        assertFalse(phone.isAvailable());
+    }
+
+    @Test
+    void findById_LoadedPhones_ShareTheirModelName() {
+        when(mobilePhoneStore.findById("2"))
+                .thenReturn(Optional.of(new MobilePhone("2", new String("Nokia 3310"), new DeviceMetrics(100, 2048, 1024, 0.1))));
+
+        assertSame(phoneCache.findById("1").orElseThrow().getModel(), phoneCache.findById("2").orElseThrow().getModel());
+    }
+
+    private static void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.afterCompletion(status));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
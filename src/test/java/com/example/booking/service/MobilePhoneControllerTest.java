@@ -2,6 +2,9 @@ package com.example.booking.service;
 
 import com.example.booking.controller.MobilePhoneController;
 import com.example.booking.entity.MobilePhone;
+import com.example.booking.entity.dto.BulkProvisionRequest;
+import com.example.booking.entity.dto.BulkProvisionResponse;
+import com.example.booking.monitoring.entity.DeviceMetrics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -10,8 +13,13 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.Mockito.when;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
 
 public class MobilePhoneControllerTest {
 
@@ -54,12 +62,64 @@ public class MobilePhoneControllerTest {
 
     @Test
     void testGetAllPhoneStatuses_Success() {
-        String mockStatuses = "Statuses";
-        when(deviceMonitoringService.getAllPhoneStatuses()).thenReturn(mockStatuses);
+        byte[] mockStatuses = "Statuses".getBytes();
+        when(deviceMonitoringService.getStatusVersion()).thenReturn(7L);
+        when(deviceMonitoringService.getPhoneStatuses(0L)).thenReturn(mockStatuses);
 
-        ResponseEntity<String> responseEntity = mobilePhoneController.getAllPhoneStatuses();
+        ResponseEntity<?> responseEntity = mobilePhoneController.getAllPhoneStatuses(null, null);
 
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals("\"7\"", responseEntity.getHeaders().getETag());
         assertEquals(mockStatuses, responseEntity.getBody());
     }
+
+    @Test
+    void testGetAllPhoneStatuses_SinceVersion() {
+        byte[] mockStatuses = "Changed".getBytes();
+        when(deviceMonitoringService.getStatusVersion()).thenReturn(9L);
+        when(deviceMonitoringService.getPhoneStatuses(7L)).thenReturn(mockStatuses);
+
+        ResponseEntity<?> responseEntity = mobilePhoneController.getAllPhoneStatuses(7L, "\"7\"");
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(mockStatuses, responseEntity.getBody());
+    }
+
+    @Test
+    void testGetAllPhoneStatuses_NotModified() {
+        when(deviceMonitoringService.getStatusVersion()).thenReturn(7L);
+
+        ResponseEntity<?> responseEntity = mobilePhoneController.getAllPhoneStatuses(null, "\"7\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, responseEntity.getStatusCode());
+        verify(deviceMonitoringService, never()).getPhoneStatuses(anyLong());
+    }
+
+    @Test
+    void testCreateMobilePhonesFromCsv_MergesLinesOfTheSameModel() throws Exception {
+        String csv = """
+                model,count
+                Nokia 3310,2
+                # spare devices
+                Apple iPhone 13
+                Nokia 3310, 1
+                """;
+        List<MobilePhone> created = List.of(new MobilePhone("Nokia 3310-1", "Nokia 3310", new DeviceMetrics(1, 1, 1, 1)));
+        when(mobilePhoneService.createMobilePhones(anyList())).thenReturn(created);
+
+        ResponseEntity<BulkProvisionResponse> responseEntity = mobilePhoneController.createMobilePhonesFromCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(HttpStatus.CREATED, responseEntity.getStatusCode());
+        assertEquals(List.of("Nokia 3310-1"), responseEntity.getBody().getPhoneIds());
+        verify(mobilePhoneService).createMobilePhones(List.of(
+                new BulkProvisionRequest("Nokia 3310", 3), new BulkProvisionRequest("Apple iPhone 13", 1)));
+    }
+
+    @Test
+    void testCreateMobilePhonesFromCsv_MalformedCount() {
+        assertThrows(IllegalArgumentException.class, () -> mobilePhoneController.createMobilePhonesFromCsv(
+                new ByteArrayInputStream("Nokia 3310,many".getBytes(StandardCharsets.UTF_8))));
+        verifyNoInteractions(mobilePhoneService);
+    }
 }
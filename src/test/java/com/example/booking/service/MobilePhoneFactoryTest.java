@@ -6,6 +6,8 @@ import com.example.booking.factory.annotation.PhoneModel;
 import com.example.booking.monitoring.entity.DeviceMetrics;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class MobilePhoneFactoryTest {
@@ -23,6 +25,25 @@ public class MobilePhoneFactoryTest {
         assertNull(phone);
     }
 
+    @Test
+    void testCreatePhones_ReservesContiguousIds() {
+        List<MobilePhone> phones = MobilePhoneFactory.createPhones("Nokia 3310", 3);
+        String next = MobilePhoneFactory.generateId("Nokia 3310");
+
+        assertEquals(3, phones.size());
+        int first = Integer.parseInt(phones.getFirst().getId().substring("Nokia 3310-".length()));
+        for (int i = 0; i < phones.size(); i++) {
+            assertEquals(STR."Nokia 3310-\{first + i}", phones.get(i).getId());
+            assertEquals("Nokia 3310", phones.get(i).getModel());
+        }
+        assertEquals(STR."Nokia 3310-\{first + 3}", next);
+    }
+
+    @Test
+    void testCreatePhones_UnsupportedModel() {
+        assertTrue(MobilePhoneFactory.createPhones("UnknownModel", 3).isEmpty());
+    }
+
     @Test
     void testGenerateId() {
         String model = "GalaxyS21";
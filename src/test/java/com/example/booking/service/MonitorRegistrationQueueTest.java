@@ -0,0 +1,88 @@
+package com.example.booking.service;
+
+import com.example.booking.cluster.BookingRouter;
+import com.example.booking.entity.MobilePhone;
+import com.example.booking.entity.event.MobilePhoneAddedEvent;
+import com.example.booking.entity.event.MobilePhonesAddedEvent;
+import com.example.booking.monitoring.entity.DeviceMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+class MonitorRegistrationQueueTest {
+
+    @Mock
+    private DeviceMonitoringService deviceMonitoringService;
+    @Mock
+    private BookingRouter bookingRouter;
+
+    private MonitorRegistrationQueue registrationQueue;
+
+    private final List<String> registeredIds = new CopyOnWriteArrayList<>();
+    private final List<Thread> registeringThreads = new CopyOnWriteArrayList<>();
+    private final CountDownLatch allRegistered = new CountDownLatch(3);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        doAnswer(invocation -> {
+            registeringThreads.add(Thread.currentThread());
+            Collection<MobilePhone> phones = invocation.getArgument(0);
+            phones.forEach(phone -> {
+                registeredIds.add(phone.getId());
+                allRegistered.countDown();
+            });
+            return null;
+        }).when(deviceMonitoringService).registerMonitors(anyCollection());
+
+        when(bookingRouter.owns(anyString())).thenReturn(true);
+
+        registrationQueue = new MonitorRegistrationQueue(deviceMonitoringService, bookingRouter);
+        registrationQueue.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        registrationQueue.stop();
+    }
+
+    @Test
+    void onMobilePhoneAdded_RegistersQueuedPhonesOffThePublishingThread() throws InterruptedException {
+        registrationQueue.onMobilePhoneAdded(new MobilePhoneAddedEvent(this, phone("1")));
+        registrationQueue.onMobilePhonesAdded(new MobilePhonesAddedEvent(this, List.of(phone("2"), phone("3"))));
+
+        assertTrue(allRegistered.await(1, TimeUnit.SECONDS));
+        assertEquals(List.of("1", "2", "3"), registeredIds);
+        registeringThreads.forEach(thread -> assertNotEquals(Thread.currentThread(), thread));
+    }
+
+    @Test
+    void onMobilePhonesAdded_RegistersOnlyTheOwnedPhones() throws InterruptedException {
+        when(bookingRouter.owns("2")).thenReturn(false);
+
+        registrationQueue.onMobilePhonesAdded(new MobilePhonesAddedEvent(this, List.of(phone("1"), phone("2"), phone("3"), phone("4"))));
+
+        assertTrue(allRegistered.await(1, TimeUnit.SECONDS));
+        assertEquals(List.of("1", "3", "4"), registeredIds);
+    }
+
+    private static MobilePhone phone(String id) {
+        return new MobilePhone(id, "Model", new DeviceMetrics(100, 2048, 1024, 0.1));
+    }
+}
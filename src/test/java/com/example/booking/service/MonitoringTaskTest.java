@@ -0,0 +1,75 @@
+package com.example.booking.service;
+
+import com.example.booking.monitoring.DeviceMonitor;
+import com.example.booking.monitoring.MonitoringResultTable;
+import com.example.booking.monitoring.entity.DeviceContext;
+import com.example.booking.monitoring.entity.DeviceMetrics;
+import com.example.booking.monitoring.tasks.BatteryLevelCheck;
+import com.example.booking.monitoring.tasks.MemoryUsageCheck;
+import com.example.booking.monitoring.tasks.MonitoringTask;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the stateless {@link MonitoringTask} implementations sharing one {@link MonitoringResultTable}.
+ */
+public class MonitoringTaskTest {
+
+    private MonitoringResultTable resultTable;
+    private List<MonitoringTask> tasks;
+
+    @BeforeEach
+    void setUp() {
+        resultTable = new MonitoringResultTable();
+        tasks = List.of(new BatteryLevelCheck(resultTable), new MemoryUsageCheck(resultTable));
+    }
+
+    @Test
+    void getStatus_BeforeAnyCheck_ReportsUnknown() {
+        assertEquals("Battery Level: Unknown", tasks.get(0).getStatus(0));
+        assertEquals("Memory Status: Unknown", tasks.get(1).getStatus(0));
+    }
+
+    @Test
+    void getStatus_AfterCheck_ReportsRecordedMetrics() {
+        tasks.forEach(task -> task.performCheck(0, new DeviceContext("device-1", new DeviceMetrics(80, 4096, 1024, 0.1))));
+
+        assertTrue(tasks.get(0).getStatus(0).startsWith("Battery Level: 80"));
+        assertEquals("Total Memory: 4096 MB, Free Memory: 1024 MB", tasks.get(1).getStatus(0));
+    }
+
+    @Test
+    void getStatus_SharedTasks_KeepResultsPerDevice() {
+        DeviceMonitor first = new DeviceMonitor(new DeviceContext("device-1", new DeviceMetrics(10, 512, 256, 0.1)), tasks, 0);
+        DeviceMonitor second = new DeviceMonitor(new DeviceContext("device-2", new DeviceMetrics(90, 512, 128, 0.1)), tasks, 1);
+
+        first.startMonitoring();
+        second.startMonitoring();
+
+        assertTrue(first.getStatus().contains("Free Memory: 256 MB"));
+        assertTrue(second.getStatus().contains("Free Memory: 128 MB"));
+    }
+
+    @Test
+    void remove_ClearsResultsOfOneDevice() {
+        tasks.forEach(task -> task.performCheck(0, new DeviceContext("device-1", new DeviceMetrics(80, 4096, 1024, 0.1))));
+        tasks.forEach(task -> task.performCheck(1, new DeviceContext("device-2", new DeviceMetrics(70, 4096, 2048, 0.1))));
+
+        resultTable.remove(0);
+
+        assertEquals("Memory Status: Unknown", tasks.get(1).getStatus(0));
+        assertEquals("Total Memory: 4096 MB, Free Memory: 2048 MB", tasks.get(1).getStatus(1));
+    }
+
+    @Test
+    void getStatus_TaskOfSameName_ReadsSameResults() {
+        tasks.get(1).performCheck(0, new DeviceContext("device-1", new DeviceMetrics(80, 4096, 1024, 0.1)));
+
+        assertEquals("Total Memory: 4096 MB, Free Memory: 1024 MB", new MemoryUsageCheck(resultTable).getStatus(0));
+    }
+}
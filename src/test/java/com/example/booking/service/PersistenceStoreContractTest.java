@@ -0,0 +1,155 @@
+package com.example.booking.service;
+
+import com.example.booking.entity.DeviceMetricsLatest;
+import com.example.booking.entity.DeviceMetricsSample;
+import com.example.booking.entity.MobilePhone;
+import com.example.booking.monitoring.entity.DeviceMetrics;
+import com.example.booking.repository.DeviceIdBlockStore;
+import com.example.booking.repository.DeviceMetricsLatestStore;
+import com.example.booking.repository.DeviceMetricsSampleStore;
+import com.example.booking.repository.MobilePhoneStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contract every persistence profile has to fulfil; run against the in-memory stores and against H2.
+ * <p>
+ * The inherited test methods only roll back in a Spring test when their declaring class is
+ * {@code @Transactional}; the annotation of the {@code @DataJpaTest} subclass does not apply to them.
+ * </p>
+ */
+@Transactional
+abstract class PersistenceStoreContractTest {
+
+    protected abstract MobilePhoneStore phoneStore();
+
+    protected abstract DeviceMetricsLatestStore latestStore();
+
+    protected abstract DeviceMetricsSampleStore sampleStore();
+
+    protected abstract DeviceIdBlockStore idBlockStore();
+
+    private MetricsBatchWriter batchWriter() {
+        return new MetricsBatchWriter(sampleStore(), latestStore());
+    }
+
+    protected MobilePhone phone(String id, boolean available, long freeMemory) {
+        MobilePhone phone = new MobilePhone(id, "Model", new DeviceMetrics(50, 2048, freeMemory, 0.1));
+        phone.setAvailable(available);
+        return phone;
+    }
+
+    @Test
+    void save_ThenFindById_ReturnsPhoneAndUnknownIdIsEmpty() {
+        phoneStore().save(phone("1", true, 1000));
+
+        assertEquals("Model", phoneStore().findById("1").orElseThrow().getModel());
+        assertTrue(phoneStore().findById("unknown").isEmpty());
+        assertEquals(1, phoneStore().count());
+    }
+
+    @Test
+    void saveAll_ThenFindAll_ReturnsAllPhones() {
+        phoneStore().saveAll(List.of(phone("1", true, 1000), phone("2", true, 1000), phone("3", false, 1000)));
+
+        assertEquals(3, phoneStore().findAll().size());
+    }
+
+    @Test
+    void findPageAfter_WalksPhonesInIdOrder() {
+        phoneStore().saveAll(List.of(phone("3", true, 1000), phone("1", true, 1000), phone("2", true, 1000)));
+
+        List<MobilePhone> first = phoneStore().findPageAfter("", Limit.of(2));
+        List<MobilePhone> second = phoneStore().findPageAfter(first.getLast().getId(), Limit.of(2));
+
+        assertEquals(List.of("1", "2"), first.stream().map(MobilePhone::getId).toList());
+        assertEquals(List.of("3"), second.stream().map(MobilePhone::getId).toList());
+    }
+
+    @Test
+    void allocateBlock_ReturnsConsecutiveDisjointBlocksPerModel() {
+        long first = idBlockStore().allocateBlock("Contract Model", 10);
+        long second = idBlockStore().allocateBlock("Contract Model", 5);
+        long third = idBlockStore().allocateBlock("Contract Model", 1);
+
+        assertTrue(first >= 1);
+        assertEquals(first + 10, second);
+        assertEquals(second + 5, third);
+    }
+
+    @Test
+    void updateAvailability_ChangesOnlyWhenDifferent() {
+        phoneStore().save(phone("1", true, 1000));
+
+        assertEquals(1, phoneStore().updateAvailability("1", false));
+        assertEquals(0, phoneStore().updateAvailability("1", false));
+        assertEquals(0, phoneStore().updateAvailability("unknown", false));
+        assertFalse(phoneStore().findById("1").orElseThrow().isAvailable());
+    }
+
+    @Test
+    void write_AppendsSamplesAndMovesLatestPointer() {
+        DeviceMetrics first = new DeviceMetrics(90, 2048, 1024, 0.1);
+        DeviceMetrics second = new DeviceMetrics(80, 2048, 400, 0.3);
+
+        batchWriter().write(Map.of("1", first, "2", first));
+        batchWriter().write(Map.of("1", second));
+
+        List<DeviceMetricsSample> history = sampleStore().findByDeviceIdOrderBySampledAtAsc("1");
+        assertEquals(2, history.size());
+        assertEquals(3, sampleStore().count());
+        assertEquals(2, latestStore().count());
+
+        DeviceMetricsLatest latest = latestStore().findById("1").orElseThrow();
+        assertEquals(second, latest.getMetrics());
+        assertEquals(history.getLast().getId(), latest.getSampleId());
+    }
+
+    @Test
+    void deleteSampledBefore_KeepsRecentSamplesAndTheLatestOfEveryDevice() {
+        Instant old = Instant.now().minus(Duration.ofDays(30));
+        DeviceMetrics metrics = new DeviceMetrics(90, 2048, 1024, 0.1);
+        sampleStore().saveAll(List.of(new DeviceMetricsSample("1", old, metrics)));
+        batchWriter().write(Map.of("1", metrics));
+        DeviceMetricsSample idle = new DeviceMetricsSample("2", old, metrics);
+        sampleStore().saveAll(List.of(idle));
+        DeviceMetricsLatest idleLatest = new DeviceMetricsLatest("2");
+        idleLatest.pointTo(idle);
+        latestStore().saveAll(List.of(idleLatest));
+
+        assertEquals(1, sampleStore().deleteSampledBefore(Instant.now().minus(Duration.ofDays(7))));
+
+        assertEquals(2, sampleStore().count());
+        assertEquals(latestStore().findById("1").orElseThrow().getSampleId(),
+                sampleStore().findByDeviceIdOrderBySampledAtAsc("1").getFirst().getId());
+        assertEquals(idle.getId(), sampleStore().findByDeviceIdOrderBySampledAtAsc("2").getFirst().getId());
+    }
+
+    @Test
+    void findBookedWithFreeMemoryBelow_ReturnsBookedDevicesBelowThresholdByKeyset() {
+        MobilePhone bookedA = phone("a", false, 100);
+        MobilePhone available = phone("b", true, 100);
+        MobilePhone bookedC = phone("c", false, 200);
+        MobilePhone healthy = phone("d", false, 1500);
+        MobilePhone bookedE = phone("e", false, 300);
+        List<MobilePhone> phones = List.of(bookedA, available, bookedC, healthy, bookedE);
+        phoneStore().saveAll(phones);
+        batchWriter().write(Map.of(
+                "a", bookedA.getDeviceMetrics(), "b", available.getDeviceMetrics(), "c", bookedC.getDeviceMetrics(),
+                "d", healthy.getDeviceMetrics(), "e", bookedE.getDeviceMetrics()));
+
+        List<DeviceMetricsLatest> firstPage = latestStore().findBookedWithFreeMemoryBelow(500, "", Limit.of(2));
+        List<DeviceMetricsLatest> secondPage = latestStore().findBookedWithFreeMemoryBelow(500, firstPage.getLast().getDeviceId(), Limit.of(2));
+
+        assertEquals(List.of("a", "c"), firstPage.stream().map(DeviceMetricsLatest::getDeviceId).toList());
+        assertEquals(List.of("e"), secondPage.stream().map(DeviceMetricsLatest::getDeviceId).toList());
+    }
+}
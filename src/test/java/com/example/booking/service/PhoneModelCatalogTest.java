@@ -0,0 +1,87 @@
+package com.example.booking.service;
+
+import com.example.booking.entity.MobilePhone;
+import com.example.booking.factory.MobilePhoneFactory;
+import com.example.booking.factory.catalog.PhoneModelCatalog;
+import com.example.booking.factory.catalog.PhoneModelCatalogLoader;
+import com.example.booking.factory.configuration.PhoneModelConfigRegistry;
+import com.example.booking.monitoring.entity.DeviceMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhoneModelCatalogTest {
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        PhoneModelCatalog.install(List.of());
+    }
+
+    @Test
+    void reload_AddsAndOverridesModels() throws IOException {
+        PhoneModelCatalogLoader loader = loader("""
+                [
+                  {"name": "Pixel 8", "defaultMetrics": {"batteryLevel": 100, "totalMemory": 8192, "freeMemory": 8192, "systemLoad": 0.01}},
+                  {"name": "Nokia 3310", "defaultMetrics": {"batteryLevel": 60, "totalMemory": 256, "freeMemory": 256, "systemLoad": 0.1},
+                   "lowBatteryLevel": 10, "lowFreeMemoryMb": 64}
+                ]
+                """);
+
+        assertTrue(loader.reload());
+
+        MobilePhone pixel = MobilePhoneFactory.createPhone("Pixel 8");
+        assertNotNull(pixel);
+        assertEquals(new DeviceMetrics(100, 8192, 8192, 0.01), pixel.getDeviceMetrics());
+        assertEquals(256, MobilePhoneFactory.createPhone("Nokia 3310").getTotalMemory());
+        assertEquals(64, PhoneModelCatalog.find("Nokia 3310").lowFreeMemoryMb());
+        assertEquals(20.0, PhoneModelCatalog.find("Pixel 8").lowBatteryLevel());
+        assertNotNull(PhoneModelCatalog.find("Samsung Galaxy S9")); // built-in models stay available
+    }
+
+    @Test
+    void createPhone_UsesGeneratedCreatorUnlessCatalogReplacesModel() throws IOException {
+        assertTrue(PhoneModelCatalog.isBuiltIn(PhoneModelCatalog.find("Nokia 3310")));
+        assertEquals(PhoneModelConfigRegistry.create("Nokia 3310", "Nokia 3310-7").getDeviceMetrics(),
+                MobilePhoneFactory.createPhone("Nokia 3310", 7).getDeviceMetrics());
+
+        PhoneModelCatalogLoader loader = loader("""
+                [{"name": "Nokia 3310", "defaultMetrics": {"batteryLevel": 60, "totalMemory": 256, "freeMemory": 256, "systemLoad": 0.1}}]
+                """);
+        assertTrue(loader.reload());
+
+        assertFalse(PhoneModelCatalog.isBuiltIn(PhoneModelCatalog.find("Nokia 3310")));
+        assertTrue(PhoneModelCatalog.isBuiltIn(PhoneModelCatalog.find("Samsung Galaxy S9")));
+        assertEquals(new DeviceMetrics(60, 256, 256, 0.1), MobilePhoneFactory.createPhone("Nokia 3310", 7).getDeviceMetrics());
+    }
+
+    @Test
+    void reload_KeepsCurrentCatalogWhenFileIsInvalid() throws IOException {
+        PhoneModelCatalogLoader loader = loader("""
+                [{"name": "Pixel 8", "defaultMetrics": {"batteryLevel": 100, "totalMemory": 8192, "freeMemory": 8192, "systemLoad": 0.01}}]
+                """);
+        assertTrue(loader.reload());
+
+        Files.writeString(directory.resolve("phone-models.json"), "[{\"name\": \"Broken\"}");
+
+        assertFalse(loader.reload());
+        assertNotNull(PhoneModelCatalog.find("Pixel 8"));
+        assertNull(PhoneModelCatalog.find("Broken"));
+    }
+
+    private PhoneModelCatalogLoader loader(String catalog) throws IOException {
+        Path file = directory.resolve("phone-models.json");
+        Files.writeString(file, catalog);
+        return new PhoneModelCatalogLoader(file.toString(), new ObjectMapper());
+    }
+}
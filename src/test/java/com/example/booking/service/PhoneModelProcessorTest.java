@@ -0,0 +1,103 @@
+package com.example.booking.service;
+
+import com.example.booking.factory.processor.PhoneModelProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhoneModelProcessorTest {
+
+    @TempDir
+    Path output;
+
+    @Test
+    void validCreators_GenerateRegistry() throws IOException {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        boolean compiled = compile(diagnostics, """
+                package sample;
+
+                import com.example.booking.entity.MobilePhone;
+                import com.example.booking.factory.annotation.PhoneModel;
+                import com.example.booking.monitoring.entity.DeviceMetrics;
+
+                public class SampleConfig {
+                    @PhoneModel("Sample One")
+                    public static MobilePhone createOne(String id) {
+                        return new MobilePhone(id, "Sample One", new DeviceMetrics(1, 1, 1, 1));
+                    }
+                }
+                """);
+
+        assertTrue(compiled, diagnostics.getDiagnostics().toString());
+        String registry = Files.readString(output.resolve("sample/SampleConfigRegistry.java"));
+        assertTrue(registry.contains("case \"Sample One\" -> sample.SampleConfig.createOne(id);"));
+    }
+
+    @Test
+    void invalidCreators_FailCompilation() {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        boolean compiled = compile(diagnostics, """
+                package sample;
+
+                import com.example.booking.entity.MobilePhone;
+                import com.example.booking.factory.annotation.PhoneModel;
+
+                public class SampleConfig {
+                    @PhoneModel("Private")
+                    static MobilePhone createPrivate(String id) {
+                        return null;
+                    }
+
+                    @PhoneModel("Twice")
+                    public static MobilePhone createTwice(String id) {
+                        return null;
+                    }
+
+                    @PhoneModel("Twice")
+                    public static MobilePhone createTwiceAgain(String id) {
+                        return null;
+                    }
+                }
+                """);
+
+        assertFalse(compiled);
+        List<String> errors = diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getMessage(Locale.ROOT))
+                .toList();
+        assertTrue(errors.contains("@PhoneModel methods must be public static"), errors.toString());
+        assertTrue(errors.contains("Phone model \"Twice\" is already created by createTwice()"), errors.toString());
+    }
+
+    private boolean compile(DiagnosticCollector<JavaFileObject> diagnostics, String source) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///sample/SampleConfig.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics,
+                List.of("-d", output.toString(), "-s", output.toString(),
+                        "-classpath", System.getProperty("java.class.path"), "--release", "21", "--enable-preview"),
+                null, List.of(file));
+        task.setProcessors(List.of(new PhoneModelProcessor()));
+        return task.call();
+    }
+}
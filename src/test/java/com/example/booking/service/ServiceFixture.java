@@ -0,0 +1,161 @@
+package com.example.booking.service;
+
+import com.example.booking.cluster.BookingRouter;
+import com.example.booking.cluster.LocalBookingJournal;
+import com.example.booking.cluster.LocalBookingRouter;
+import com.example.booking.entity.event.BookingChangedEvent;
+import com.example.booking.metrics.BookingMetrics;
+import com.example.booking.metrics.MonitoringMetrics;
+import com.example.booking.monitoring.DeviceHandles;
+import com.example.booking.monitoring.DeviceSamplingQueue;
+import com.example.booking.monitoring.DeviceStatusCache;
+import com.example.booking.monitoring.ModelDictionary;
+import com.example.booking.monitoring.MonitoringResultTable;
+import com.example.booking.monitoring.tasks.BatteryLevelCheck;
+import com.example.booking.monitoring.tasks.MemoryUsageCheck;
+import com.example.booking.monitoring.tasks.MonitoringTask;
+import com.example.booking.repository.DeviceMetricsLatestStore;
+import com.example.booking.repository.MobilePhoneStore;
+import com.example.booking.repository.inmemory.InMemoryDeviceMetricsLatestStore;
+import com.example.booking.repository.inmemory.InMemoryDeviceMetricsSampleStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+/**
+ * Wires the booking and monitoring services the way the application context does, without Spring, for the
+ * tests and the benchmarks.
+ * <p>
+ * Every collaborator defaults to the in-memory implementation the {@code inmemory} profile uses, and the
+ * {@link BookingChangedEvent}s of the booking manager reach the status cache and the sampling queue as they do
+ * in the application. A test replaces a collaborator, e.g. with a mock, before it asks for the first service;
+ * the services are created once, on first use, from the collaborators set at that time.
+ * </p>
+ * <p>
+ * Published in the test jar, which the {@code booking-benchmarks} project depends on.
+ * </p>
+ */
+public final class ServiceFixture {
+
+    private final MobilePhoneStore phoneStore;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DeviceHandles deviceHandles = new DeviceHandles();
+    private final ModelDictionary modelDictionary = new ModelDictionary();
+    private final DeviceStatusCache statusCache = new DeviceStatusCache(deviceHandles);
+    private final DeviceSamplingQueue samplingQueue = new DeviceSamplingQueue(deviceHandles);
+    private final MonitoringResultTable resultTable = new MonitoringResultTable();
+    private final ObjectMapper objectMapper =
+            new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final BookingMetrics bookingMetrics = new BookingMetrics(registry);
+
+    private ApplicationEventPublisher eventPublisher = this::routeEvent;
+    private DeviceMetricsLatestStore latestStore;
+    private MetricsWriteBehindBuffer metricsBuffer;
+    private BookingRouter bookingRouter = new LocalBookingRouter();
+    private List<MonitoringTask> monitoringTasks =
+            List.of(new BatteryLevelCheck(resultTable), new MemoryUsageCheck(resultTable));
+
+    private BookingManager bookingManager;
+    private DeviceMonitoringService monitoringService;
+
+    public ServiceFixture(MobilePhoneStore phoneStore) {
+        this.phoneStore = phoneStore;
+        this.latestStore = new InMemoryDeviceMetricsLatestStore(phoneStore);
+    }
+
+    public ServiceFixture eventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+        return this;
+    }
+
+    public ServiceFixture latestStore(DeviceMetricsLatestStore latestStore) {
+        this.latestStore = latestStore;
+        return this;
+    }
+
+    public ServiceFixture metricsBuffer(MetricsWriteBehindBuffer metricsBuffer) {
+        this.metricsBuffer = metricsBuffer;
+        return this;
+    }
+
+    public ServiceFixture bookingRouter(BookingRouter bookingRouter) {
+        this.bookingRouter = bookingRouter;
+        return this;
+    }
+
+    public ServiceFixture monitoringTasks(List<MonitoringTask> monitoringTasks) {
+        this.monitoringTasks = monitoringTasks;
+        return this;
+    }
+
+    /**
+     * Makes the monitoring service use the given booking manager, e.g. a mock, instead of its own.
+     */
+    public ServiceFixture bookingManager(BookingManager bookingManager) {
+        this.bookingManager = bookingManager;
+        return this;
+    }
+
+    public BookingManager bookingManager() {
+        if (bookingManager == null) {
+            bookingManager = new BookingManager(new MobilePhoneCache(phoneStore, modelDictionary, registry), new BookingStore(deviceHandles),
+                    eventPublisher, bookingMetrics, new LocalBookingJournal());
+        }
+        return bookingManager;
+    }
+
+    public DeviceMonitoringService monitoringService() {
+        if (monitoringService == null) {
+            if (metricsBuffer == null) {
+                metricsBuffer = new MetricsWriteBehindBuffer(
+                        new MetricsBatchWriter(new InMemoryDeviceMetricsSampleStore(), latestStore), deviceHandles);
+            }
+            monitoringService = new DeviceMonitoringService(phoneStore, latestStore, bookingManager(), monitoringTasks,
+                    samplingQueue, objectMapper, statusCache, new MonitoringMetrics(registry), metricsBuffer,
+                    deviceHandles, modelDictionary, bookingRouter, resultTable);
+        }
+        return monitoringService;
+    }
+
+    public MobilePhoneStore phoneStore() {
+        return phoneStore;
+    }
+
+    public DeviceHandles deviceHandles() {
+        return deviceHandles;
+    }
+
+    public ModelDictionary modelDictionary() {
+        return modelDictionary;
+    }
+
+    public DeviceStatusCache statusCache() {
+        return statusCache;
+    }
+
+    public DeviceSamplingQueue samplingQueue() {
+        return samplingQueue;
+    }
+
+    public ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    public BookingMetrics bookingMetrics() {
+        return bookingMetrics;
+    }
+
+    public SimpleMeterRegistry registry() {
+        return registry;
+    }
+
+    private void routeEvent(Object event) {
+        if (event instanceof BookingChangedEvent changed) {
+            statusCache.onBookingChanged(changed);
+            samplingQueue.onBookingChanged(changed);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.booking.service;
+
+import com.example.booking.cluster.LocalBookingJournal;
+import com.example.booking.entity.Booking;
+import com.example.booking.entity.MobilePhone;
+import com.example.booking.metrics.BookingMetrics;
+import com.example.booking.monitoring.DeviceHandles;
+import com.example.booking.monitoring.ModelDictionary;
+import com.example.booking.repository.JpaDeviceIdBlockStore;
+import com.example.booking.repository.JpaMobilePhoneStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Statement budgets of the booking use cases, measured with Hibernate statistics.
+ * Every use case runs in its own committed transaction, as in production. The pool holds a single connection,
+ * so a use case that needs a second connection while holding the first times out instead of passing.
+ */
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.datasource.hikari.maximum-pool-size=1", "spring.datasource.hikari.connection-timeout=2000"})
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({StatementBudgetTest.MetricsConfiguration.class, JpaMobilePhoneStore.class, ModelDictionary.class, MobilePhoneCache.class,
+        DeviceHandles.class, BookingStore.class, BookingMetrics.class, LocalBookingJournal.class, BookingManager.class,
+        JpaDeviceIdBlockStore.class, DeviceIdAllocator.class, MobilePhoneService.class})
+class StatementBudgetTest {
+
+    private static final String MODEL = "Samsung Galaxy S9";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MobilePhoneService mobilePhoneService;
+    @Autowired
+    private BookingManager bookingManager;
+    @Autowired
+    private MobilePhoneCache mobilePhoneCache;
+    @Autowired
+    private DeviceIdAllocator deviceIdAllocator;
+
+    private Statistics statistics;
+
+    @TestConfiguration
+    static class MetricsConfiguration {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        deviceIdAllocator.clear();
+    }
+
+    private void assertStatementsAtMost(long budget, Runnable useCase) {
+        statistics.clear();
+        useCase.run();
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= budget, STR."Expected at most \{budget} statements but \{statements} were executed");
+    }
+
+    @Test
+    void createMobilePhone_IsOneInsert() {
+        // The first creation after the reset takes a new id block
+        mobilePhoneService.createMobilePhone(MODEL);
+
+        assertStatementsAtMost(1, () -> mobilePhoneService.createMobilePhone(MODEL));
+        assertTrue(statistics.getEntityInsertCount() <= 1);
+    }
+
+    @Test
+    void createMobilePhone_AllocatesIdsOncePerBlock() {
+        // BLOCK_SIZE creations from a reset allocator take one block: a locking read and an update (or insert)
+        assertStatementsAtMost(DeviceIdAllocator.BLOCK_SIZE + 2, () -> {
+            for (int i = 0; i < DeviceIdAllocator.BLOCK_SIZE; i++) {
+                mobilePhoneService.createMobilePhone(MODEL);
+            }
+        });
+    }
+
+    @Test
+    void bookPhone_OnColdCache_IsAtMostTwoStatements() {
+        MobilePhone phone = mobilePhoneService.createMobilePhone(MODEL);
+        mobilePhoneCache.invalidate(phone.getId());
+
+        assertStatementsAtMost(2, () -> assertTrue(bookingManager.bookPhone(phone.getId(), "John Doe").isPresent()));
+    }
+
+    @Test
+    void bookPhone_OnWarmCache_IsOneUpdate() {
+        MobilePhone phone = mobilePhoneService.createMobilePhone(MODEL);
+
+        assertStatementsAtMost(1, () -> assertTrue(bookingManager.bookPhone(phone.getId(), "John Doe").isPresent()));
+    }
+
+    @Test
+    void returnPhone_IsOneUpdate() {
+        MobilePhone phone = mobilePhoneService.createMobilePhone(MODEL);
+        Booking booking = bookingManager.bookPhone(phone.getId(), "John Doe").orElseThrow();
+
+        assertStatementsAtMost(1, () -> assertTrue(bookingManager.returnPhone(booking.getId(), "John Doe").isPresent()));
+    }
+
+    @Test
+    void bookPhone_WithUnknownId_ReadsOnce() {
+        assertStatementsAtMost(1, () -> {
+            bookingManager.bookPhone("unknown", "John Doe");
+            bookingManager.bookPhone("unknown", "John Doe");
+        });
+    }
+}